@@ -0,0 +1,540 @@
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.function.Function;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber1L;
+import components.naturalnumber.NaturalNumber2;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Times the main operations of every {@code NaturalNumber} implementation in
+ * this project, of the library kernels {@code NaturalNumber1L} and
+ * {@code NaturalNumber2}, and of {@code BigInteger}, on operands of 10 to
+ * 10^6 digits, and prints the results as CSV with one line per subject,
+ * operation and size:
+ *
+ * <pre>
+ * subject,operation,digits,runs,ns_per_op,bytes_per_op
+ * </pre>
+ *
+ * <p>
+ * Each measurement repeats the operation in batches of growing size until
+ * the batches together take at least {@code MIN_NANOS}; operations that
+ * change their operand run on copies made before each batch starts.
+ * Allocation is read from {@code com.sun.management.ThreadMXBean}, which
+ * HotSpot-based JVMs provide; elsewhere {@code bytes_per_op} is -1. Once one
+ * operation takes more than {@code MAX_NANOS_PER_OP / (GROWTH * GROWTH)} for
+ * a subject, the larger sizes for that subject and operation are skipped:
+ * the slowest operations are at least quadratic, so the next size, with
+ * {@code GROWTH} times as many digits, would take at least
+ * {@code GROWTH * GROWTH} times as long, more than {@code MAX_NANOS_PER_OP}
+ * per operation, and an operation that grows faster still could take
+ * minutes.
+ *
+ * <p>
+ * The first command line argument, if any, is the largest number of digits
+ * to time; the second is a file to write the CSV to instead of the console.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public final class NaturalNumberBenchmarkSuite {
+
+    /**
+     * Smallest operand size, in digits.
+     */
+    private static final int MIN_DIGITS = 10;
+
+    /**
+     * Largest operand size, in digits, unless overridden.
+     */
+    private static final int MAX_DIGITS = 1_000_000;
+
+    /**
+     * Factor between consecutive operand sizes.
+     */
+    private static final int GROWTH = 10;
+
+    /**
+     * Minimum time spent on each measurement, in nanoseconds.
+     */
+    private static final long MIN_NANOS = 100_000_000L;
+
+    /**
+     * Largest number of operations timed in one batch; each batch allocates
+     * its operands and results up front, so batches are kept small enough
+     * for million-digit operands to fit in memory.
+     */
+    private static final int MAX_BATCH = 1_024;
+
+    /**
+     * Longest time per operation a measurement is allowed to be expected to
+     * take, in nanoseconds; a size is not timed if the previous one,
+     * scaled up by {@code GROWTH * GROWTH} as for a quadratic operation,
+     * would exceed it.
+     */
+    private static final long MAX_NANOS_PER_OP = 10_000_000_000L;
+
+    /**
+     * Operand size used to warm up every subject and operation, in digits.
+     */
+    private static final int WARM_UP_DIGITS = 100;
+
+    /**
+     * Digit appended and removed by {@code MULTIPLY_BY_10_DIVIDE_BY_10}.
+     */
+    private static final int DIGIT = 7;
+
+    /**
+     * Operation being timed. Binary operations take a second operand of the
+     * same size, except {@code DIVIDE}, whose divisor has half as many
+     * digits.
+     */
+    private enum Operation {
+        /**
+         * Construction from a decimal {@code String}.
+         */
+        CONSTRUCT,
+        /**
+         * {@code multiplyBy10} followed by {@code divideBy10}.
+         */
+        MULTIPLY_BY_10_DIVIDE_BY_10,
+        /**
+         * {@code add}.
+         */
+        ADD,
+        /**
+         * {@code multiply}.
+         */
+        MULTIPLY,
+        /**
+         * {@code divide}.
+         */
+        DIVIDE,
+        /**
+         * {@code toString}.
+         */
+        TO_STRING,
+        /**
+         * {@code compareTo} between equal values, which has to look at every
+         * digit.
+         */
+        COMPARE_TO
+    }
+
+    /**
+     * An implementation whose operations are timed.
+     */
+    private interface Subject {
+
+        /**
+         * Returns the name of the implementation.
+         *
+         * @return the name
+         */
+        String name();
+
+        /**
+         * Returns a new value from its decimal depiction.
+         *
+         * @param s
+         *            the depiction
+         * @return the value
+         */
+        Object make(String s);
+
+        /**
+         * Returns an independent copy of {@code x} for an operation that
+         * changes its operand.
+         *
+         * @param x
+         *            the value to copy
+         * @return the copy
+         */
+        Object copy(Object x);
+
+        /**
+         * Runs {@code operation} once on {@code x} and {@code y} and returns
+         * something derived from the result, so that it cannot be optimized
+         * away.
+         *
+         * @param operation
+         *            the operation
+         * @param x
+         *            the first operand, which may be changed
+         * @param y
+         *            the second operand, or the depiction of {@code x} for
+         *            {@code CONSTRUCT}
+         * @return a value depending on the result
+         */
+        Object run(Operation operation, Object x, Object y);
+
+    }
+
+    /**
+     * A {@code NaturalNumber} implementation.
+     */
+    private static final class NaturalNumberSubject implements Subject {
+
+        /**
+         * The name of the implementation.
+         */
+        private final String name;
+
+        /**
+         * Constructor of the implementation from a depiction.
+         */
+        private final Function<String, NaturalNumber> constructor;
+
+        /**
+         * Constructor.
+         *
+         * @param name
+         *            the name of the implementation
+         * @param constructor
+         *            its constructor from a depiction
+         */
+        NaturalNumberSubject(String name,
+                Function<String, NaturalNumber> constructor) {
+            this.name = name;
+            this.constructor = constructor;
+        }
+
+        @Override
+        public String name() {
+            return this.name;
+        }
+
+        @Override
+        public Object make(String s) {
+            return this.constructor.apply(s);
+        }
+
+        @Override
+        public Object copy(Object x) {
+            NaturalNumber copy = ((NaturalNumber) x).newInstance();
+            copy.copyFrom((NaturalNumber) x);
+            return copy;
+        }
+
+        @Override
+        public Object run(Operation operation, Object x, Object y) {
+            NaturalNumber n = (NaturalNumber) x;
+            Object result = n;
+            switch (operation) {
+                case CONSTRUCT:
+                    result = this.constructor.apply((String) y);
+                    break;
+                case MULTIPLY_BY_10_DIVIDE_BY_10:
+                    n.multiplyBy10(DIGIT);
+                    result = n.divideBy10();
+                    break;
+                case ADD:
+                    n.add((NaturalNumber) y);
+                    break;
+                case MULTIPLY:
+                    n.multiply((NaturalNumber) y);
+                    break;
+                case DIVIDE:
+                    result = n.divide((NaturalNumber) y);
+                    break;
+                case TO_STRING:
+                    result = n.toString();
+                    break;
+                default:
+                    result = n.compareTo((NaturalNumber) y);
+                    break;
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * {@code BigInteger}, for reference.
+     */
+    private static final class BigIntegerSubject implements Subject {
+
+        @Override
+        public String name() {
+            return "BigInteger";
+        }
+
+        @Override
+        public Object make(String s) {
+            return new BigInteger(s);
+        }
+
+        @Override
+        public Object copy(Object x) {
+            return x;
+        }
+
+        @Override
+        public Object run(Operation operation, Object x, Object y) {
+            BigInteger n = (BigInteger) x;
+            Object result;
+            switch (operation) {
+                case CONSTRUCT:
+                    result = new BigInteger((String) y);
+                    break;
+                case MULTIPLY_BY_10_DIVIDE_BY_10:
+                    result = n.multiply(BigInteger.TEN)
+                            .add(BigInteger.valueOf(DIGIT))
+                            .divide(BigInteger.TEN);
+                    break;
+                case ADD:
+                    result = n.add((BigInteger) y);
+                    break;
+                case MULTIPLY:
+                    result = n.multiply((BigInteger) y);
+                    break;
+                case DIVIDE:
+                    result = n.divideAndRemainder((BigInteger) y);
+                    break;
+                case TO_STRING:
+                    result = n.toString();
+                    break;
+                default:
+                    result = n.compareTo((BigInteger) y);
+                    break;
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Result of one measurement.
+     */
+    private static final class Measurement {
+
+        /**
+         * Number of operations run.
+         */
+        private final long runs;
+
+        /**
+         * Mean time per operation, in nanoseconds.
+         */
+        private final double nanosPerOp;
+
+        /**
+         * Mean bytes allocated per operation, or -1 if unknown.
+         */
+        private final double bytesPerOp;
+
+        /**
+         * Constructor.
+         *
+         * @param runs
+         *            the number of operations run
+         * @param nanosPerOp
+         *            the mean time per operation
+         * @param bytesPerOp
+         *            the mean bytes allocated per operation
+         */
+        Measurement(long runs, double nanosPerOp, double bytesPerOp) {
+            this.runs = runs;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+    }
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private NaturalNumberBenchmarkSuite() {
+    }
+
+    /**
+     * Returns a pseudo-random decimal depiction with exactly {@code digits}
+     * digits.
+     *
+     * @param random
+     *            the source of randomness
+     * @param digits
+     *            the number of digits
+     * @return the depiction
+     * @requires digits > 0
+     */
+    private static String randomDigits(Random random, int digits) {
+        final int nonZeroDigits = 9;
+        StringBuilder depiction = new StringBuilder();
+        depiction.append((char) ('1' + random.nextInt(nonZeroDigits)));
+        for (int i = 1; i < digits; i++) {
+            depiction.append(
+                    (char) ('0' + random.nextInt(NaturalNumber.RADIX)));
+        }
+        return depiction.toString();
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread, or
+     * -1 if the JVM cannot tell.
+     *
+     * @return the allocated bytes
+     */
+    private static long allocatedBytes() {
+        long bytes = -1;
+        java.lang.management.ThreadMXBean bean = ManagementFactory
+                .getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            bytes = ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return bytes;
+    }
+
+    /**
+     * Reports whether {@code operation} changes its first operand.
+     *
+     * @param operation
+     *            the operation
+     * @return true iff each run needs its own copy of the first operand
+     */
+    private static boolean changesOperand(Operation operation) {
+        return operation == Operation.ADD || operation == Operation.MULTIPLY
+                || operation == Operation.DIVIDE;
+    }
+
+    /**
+     * Times {@code operation} of {@code subject} on operands with the given
+     * depictions.
+     *
+     * @param subject
+     *            the implementation
+     * @param operation
+     *            the operation
+     * @param a
+     *            depiction of the first operand
+     * @param b
+     *            depiction of the second operand
+     * @return the measurement
+     */
+    private static Measurement measure(Subject subject, Operation operation,
+            String a, String b) {
+        Object x = subject.make(a);
+        Object y = subject.make(b);
+        if (operation == Operation.CONSTRUCT) {
+            y = a;
+        } else if (operation == Operation.COMPARE_TO) {
+            y = subject.make(a);
+        }
+        long runs = 0;
+        long elapsed = 0;
+        long allocated = 0;
+        int batch = 1;
+        while (elapsed < MIN_NANOS) {
+            Object[] operands = new Object[batch];
+            for (int i = 0; i < batch; i++) {
+                operands[i] = x;
+                if (changesOperand(operation)) {
+                    operands[i] = subject.copy(x);
+                }
+            }
+            /*
+             * The results are kept so that they cannot be optimized away;
+             * they are only stored, since hashing them could cost more than
+             * the operation itself
+             */
+            Object[] results = new Object[batch];
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < batch; i++) {
+                results[i] = subject.run(operation, operands[i], y);
+            }
+            elapsed += System.nanoTime() - start;
+            allocated += allocatedBytes() - bytes;
+            runs += batch;
+            if (results[batch - 1] == null) {
+                throw new AssertionError("missing result");
+            }
+            batch = Math.min(2 * batch, MAX_BATCH);
+        }
+        double bytesPerOp = -1;
+        if (allocatedBytes() >= 0) {
+            bytesPerOp = (double) allocated / runs;
+        }
+        return new Measurement(runs, (double) elapsed / runs, bytesPerOp);
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; the optional first one is the
+     *            largest number of digits to time, and the optional second
+     *            one is a file to write the CSV to
+     */
+    public static void main(String[] args) {
+        int maxDigits = MAX_DIGITS;
+        if (args.length > 0) {
+            maxDigits = Integer.parseInt(args[0]);
+        }
+        SimpleWriter out;
+        if (args.length > 1) {
+            out = new SimpleWriter1L(args[1]);
+        } else {
+            out = new SimpleWriter1L();
+        }
+        Subject[] subjects = {
+            new NaturalNumberSubject("NaturalNumber1L", NaturalNumber1L::new),
+            new NaturalNumberSubject("NaturalNumber2", NaturalNumber2::new),
+            new NaturalNumberSubject("NaturalNumber3", NaturalNumber3::new),
+            new NaturalNumberSubject("NaturalNumber4", NaturalNumber4::new),
+            new NaturalNumberSubject("NaturalNumber5", NaturalNumber5::new),
+            new BigIntegerSubject() };
+        Operation[] operations = Operation.values();
+        Random random = new Random(1L);
+
+        String warmA = randomDigits(random, WARM_UP_DIGITS);
+        String warmB = randomDigits(random, WARM_UP_DIGITS);
+        for (Subject subject : subjects) {
+            for (Operation operation : operations) {
+                measure(subject, operation, warmA, warmB);
+            }
+        }
+
+        out.println("subject,operation,digits,runs,ns_per_op,bytes_per_op");
+        boolean[][] skipped = new boolean[subjects.length][operations.length];
+        for (long digits = MIN_DIGITS; digits <= maxDigits; digits *= GROWTH) {
+            String a = randomDigits(random, (int) digits);
+            String b = randomDigits(random, (int) digits);
+            String half = randomDigits(random, Math.max((int) digits / 2, 1));
+            for (int s = 0; s < subjects.length; s++) {
+                for (int o = 0; o < operations.length; o++) {
+                    if (!skipped[s][o]) {
+                        String second = b;
+                        if (operations[o] == Operation.DIVIDE) {
+                            second = half;
+                        }
+                        /*
+                         * Collect the previous measurement's garbage before
+                         * timing the next
+                         */
+                        System.gc();
+                        Measurement m = measure(subjects[s], operations[o], a,
+                                second);
+                        out.println(subjects[s].name() + "," + operations[o]
+                                + "," + digits + "," + m.runs + ","
+                                + m.nanosPerOp + "," + m.bytesPerOp);
+                        /*
+                         * Skip larger sizes once the next one, growing as a
+                         * quadratic operation would, is expected to exceed
+                         * MAX_NANOS_PER_OP per operation
+                         */
+                        skipped[s][o] = m.nanosPerOp * GROWTH
+                                * GROWTH > MAX_NANOS_PER_OP;
+                    }
+                }
+            }
+        }
+        out.close();
+    }
+
+}
@@ -0,0 +1,122 @@
+import java.util.Random;
+
+import components.naturalnumber.NaturalNumber;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Times {@code divide} on {@code NaturalNumber3}, which inherits the
+ * digit-by-digit secondary implementation, and on {@code NaturalNumber4},
+ * which uses Burnikel-Ziegler division on limbs, for dividends of twice the
+ * length of the divisor.
+ *
+ * <p>
+ * The inherited path is only timed up to {@code SLOW_PATH_MAX_DIGITS}
+ * divisor digits (override with the first command line argument), since
+ * beyond that a single division takes minutes.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public final class NaturalNumberDivideBenchmark {
+
+    /**
+     * Divisor sizes to time, in decimal digits.
+     */
+    private static final int[] DIGITS = { 100, 1_000, 10_000, 100_000 };
+
+    /**
+     * Largest divisor size for which the inherited path is timed.
+     */
+    private static final int SLOW_PATH_MAX_DIGITS = 1_000;
+
+    /**
+     * Number of timed divisions per measurement.
+     */
+    private static final int RUNS = 3;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private NaturalNumberDivideBenchmark() {
+    }
+
+    /**
+     * Returns a pseudo-random decimal depiction with exactly {@code digits}
+     * digits.
+     *
+     * @param random
+     *            the source of randomness
+     * @param digits
+     *            the number of digits
+     * @return the depiction
+     * @requires digits > 0
+     */
+    private static String randomDigits(Random random, int digits) {
+        final int nonZeroDigits = 9;
+        StringBuilder depiction = new StringBuilder();
+        depiction.append((char) ('1' + random.nextInt(nonZeroDigits)));
+        for (int i = 1; i < digits; i++) {
+            depiction.append(
+                    (char) ('0' + random.nextInt(NaturalNumber.RADIX)));
+        }
+        return depiction.toString();
+    }
+
+    /**
+     * Returns the mean time of one {@code divide}, in milliseconds.
+     *
+     * @param dividend
+     *            the dividend, restored after each run
+     * @param divisor
+     *            the divisor
+     * @return the mean time per division
+     */
+    private static double time(NaturalNumber dividend, NaturalNumber divisor) {
+        NaturalNumber copy = dividend.newInstance();
+        long total = 0;
+        for (int run = 0; run < RUNS; run++) {
+            copy.copyFrom(dividend);
+            long start = System.nanoTime();
+            copy.divide(divisor);
+            total += System.nanoTime() - start;
+        }
+        return total / (RUNS * NANOS_PER_MILLI);
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; the optional first one is the
+     *            largest divisor size for which {@code NaturalNumber3} is timed
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        int slowPathMaxDigits = SLOW_PATH_MAX_DIGITS;
+        if (args.length > 0) {
+            slowPathMaxDigits = Integer.parseInt(args[0]);
+        }
+        Random random = new Random(1L);
+
+        out.println("divisor_digits,naturalnumber3_ms,naturalnumber4_ms");
+        for (int digits : DIGITS) {
+            String a = randomDigits(random, 2 * digits);
+            String b = randomDigits(random, digits);
+            String slow = "skipped";
+            if (digits <= slowPathMaxDigits) {
+                slow = Double.toString(time(new NaturalNumber3(a),
+                        new NaturalNumber3(b)));
+            }
+            double fast = time(new NaturalNumber4(a), new NaturalNumber4(b));
+            out.println(digits + "," + slow + "," + fast);
+        }
+        out.close();
+    }
+
+}
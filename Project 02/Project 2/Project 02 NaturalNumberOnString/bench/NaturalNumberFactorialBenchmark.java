@@ -0,0 +1,93 @@
+import components.naturalnumber.NaturalNumber;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Times {@code n!} computed by {@code NaturalNumberCombinatorics.factorial}
+ * against the same factorial built by multiplying a {@code NaturalNumber4} by
+ * 2, 3, ..., n in turn.
+ *
+ * <p>
+ * The running product is only timed up to {@code SLOW_PATH_MAX_N} (override
+ * with the first command line argument), since it is quadratic in the number
+ * of digits of the result.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public final class NaturalNumberFactorialBenchmark {
+
+    /**
+     * Values of n to time.
+     */
+    private static final int[] NS = { 1_000, 10_000, 100_000, 1_000_000 };
+
+    /**
+     * Largest n for which the running product is timed.
+     */
+    private static final int SLOW_PATH_MAX_N = 10_000;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private NaturalNumberFactorialBenchmark() {
+    }
+
+    /**
+     * Returns {@code n!} as a running product.
+     *
+     * @param n
+     *            the number whose factorial is computed
+     * @return the factorial
+     */
+    private static NaturalNumber runningProduct(int n) {
+        NaturalNumber result = new NaturalNumber4(1);
+        NaturalNumber factor = new NaturalNumber4();
+        for (int i = 2; i <= n; i++) {
+            factor.setFromInt(i);
+            result.multiply(factor);
+        }
+        return result;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; the optional first one is the
+     *            largest n for which the running product is timed
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        int slowPathMaxN = SLOW_PATH_MAX_N;
+        if (args.length > 0) {
+            slowPathMaxN = Integer.parseInt(args[0]);
+        }
+
+        out.println("n,digits,running_product_ms,product_tree_ms");
+        for (int n : NS) {
+            long start = System.nanoTime();
+            NaturalNumber fast = NaturalNumberCombinatorics.factorial(n);
+            double fastMillis = (System.nanoTime() - start) / NANOS_PER_MILLI;
+            String slow = "skipped";
+            if (n <= slowPathMaxN) {
+                start = System.nanoTime();
+                NaturalNumber check = runningProduct(n);
+                slow = Double.toString(
+                        (System.nanoTime() - start) / NANOS_PER_MILLI);
+                if (!check.equals(fast)) {
+                    throw new AssertionError("factorials differ at n = " + n);
+                }
+            }
+            out.println(n + "," + fast.toString().length() + "," + slow + ","
+                    + fastMillis);
+        }
+        out.close();
+    }
+
+}
@@ -0,0 +1,151 @@
+import java.lang.management.ManagementFactory;
+
+import components.naturalnumber.NaturalNumber;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Counts up with {@code increment} and back down with {@code decrement} on
+ * {@code NaturalNumber4} (10^8 steps each way by default) and on
+ * {@code NaturalNumber3} (far fewer steps, since each one allocates new
+ * {@code String}s), reporting time and heap allocation per step.
+ *
+ * <p>
+ * Allocation is read from {@code com.sun.management.ThreadMXBean}, which
+ * HotSpot-based JVMs provide; elsewhere it is reported as -1.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public final class NaturalNumberIncrementBenchmark {
+
+    /**
+     * Default number of steps for {@code NaturalNumber4}.
+     */
+    private static final long FAST_STEPS = 100_000_000L;
+
+    /**
+     * Default number of steps for {@code NaturalNumber3}.
+     */
+    private static final long SLOW_STEPS = 100_000L;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private NaturalNumberIncrementBenchmark() {
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread, or
+     * -1 if the JVM cannot tell.
+     *
+     * @return the allocated bytes
+     */
+    private static long allocatedBytes() {
+        long bytes = -1;
+        java.lang.management.ThreadMXBean bean = ManagementFactory
+                .getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            bytes = ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return bytes;
+    }
+
+    /**
+     * Runs {@code steps} increments followed by {@code steps} decrements on
+     * {@code n} and reports each phase on {@code out}.
+     *
+     * @param out
+     *            the output stream
+     * @param name
+     *            the name of the implementation
+     * @param n
+     *            the number to count with
+     * @param steps
+     *            the number of steps each way
+     * @updates out.content
+     * @requires out.is_open
+     */
+    private static void run(SimpleWriter out, String name, NaturalNumber n,
+            long steps) {
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        for (long i = 0; i < steps; i++) {
+            n.increment();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - bytes;
+        report(out, name, "increment", steps, elapsed, allocated, bytes);
+
+        bytes = allocatedBytes();
+        start = System.nanoTime();
+        for (long i = 0; i < steps; i++) {
+            n.decrement();
+        }
+        elapsed = System.nanoTime() - start;
+        allocated = allocatedBytes() - bytes;
+        report(out, name, "decrement", steps, elapsed, allocated, bytes);
+        if (!n.isZero()) {
+            throw new AssertionError(name + " did not count back to 0");
+        }
+    }
+
+    /**
+     * Prints one CSV line of results.
+     *
+     * @param out
+     *            the output stream
+     * @param name
+     *            the name of the implementation
+     * @param operation
+     *            the operation measured
+     * @param steps
+     *            the number of steps
+     * @param elapsed
+     *            the elapsed time in nanoseconds
+     * @param allocated
+     *            the bytes allocated
+     * @param before
+     *            the allocation counter before the run, -1 if unsupported
+     * @updates out.content
+     * @requires out.is_open
+     */
+    private static void report(SimpleWriter out, String name,
+            String operation, long steps, long elapsed, long allocated,
+            long before) {
+        double bytesPerStep = -1;
+        if (before >= 0) {
+            bytesPerStep = (double) allocated / steps;
+        }
+        out.println(name + "," + operation + "," + steps + ","
+                + elapsed / NANOS_PER_SECOND + "," + (double) elapsed / steps
+                + "," + bytesPerStep);
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; the optional first one is the
+     *            number of {@code NaturalNumber4} steps
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        long steps = FAST_STEPS;
+        if (args.length > 0) {
+            steps = Long.parseLong(args[0]);
+        }
+        out.println("kernel,operation,steps,seconds,ns_per_step,"
+                + "bytes_per_step");
+        run(out, "NaturalNumber3", new NaturalNumber3(), SLOW_STEPS);
+        run(out, "NaturalNumber4", new NaturalNumber4(), steps);
+        out.close();
+    }
+
+}
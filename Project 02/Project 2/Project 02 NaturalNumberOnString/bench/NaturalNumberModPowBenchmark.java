@@ -0,0 +1,162 @@
+import java.math.BigInteger;
+import java.util.Random;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Times {@code NaturalNumber4.modPow} against
+ * {@code java.math.BigInteger.modPow} for moduli and exponents of growing
+ * size, with both an odd modulus (Montgomery path) and an even modulus
+ * (ordinary reduction path). Each measurement is preceded by an untimed pass
+ * of the same length.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public final class NaturalNumberModPowBenchmark {
+
+    /**
+     * Modulus and exponent sizes to time, in decimal digits.
+     */
+    private static final int[] DIGITS = { 50, 150, 300, 600, 1_200 };
+
+    /**
+     * Minimum time spent on each measurement, in nanoseconds.
+     */
+    private static final long MIN_NANOS = 500_000_000L;
+
+    /**
+     * Nanoseconds per microsecond.
+     */
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private NaturalNumberModPowBenchmark() {
+    }
+
+    /**
+     * Returns a pseudo-random decimal depiction with exactly {@code digits}
+     * digits whose last digit is {@code last}.
+     *
+     * @param random
+     *            the source of randomness
+     * @param digits
+     *            the number of digits
+     * @param last
+     *            the last digit
+     * @return the depiction
+     * @requires digits > 1 and 0 <= last <= 9
+     */
+    private static String randomDigits(Random random, int digits, int last) {
+        final int nonZeroDigits = 9;
+        final int radix = 10;
+        StringBuilder depiction = new StringBuilder();
+        depiction.append((char) ('1' + random.nextInt(nonZeroDigits)));
+        for (int i = 2; i < digits; i++) {
+            depiction.append((char) ('0' + random.nextInt(radix)));
+        }
+        depiction.append((char) ('0' + last));
+        return depiction.toString();
+    }
+
+    /**
+     * Returns the mean time of {@code NaturalNumber4.modPow}, in nanoseconds.
+     *
+     * @param x
+     *            depiction of the base
+     * @param p
+     *            depiction of the exponent
+     * @param m
+     *            depiction of the modulus
+     * @return the mean time per call
+     */
+    private static double timeNaturalNumber4(String x, String p, String m) {
+        NaturalNumber4 base = new NaturalNumber4(x);
+        NaturalNumber4 exponent = new NaturalNumber4(p);
+        NaturalNumber4 modulus = new NaturalNumber4(m);
+        NaturalNumber4 n = new NaturalNumber4();
+        long runs = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            n.copyFrom(base);
+            n.modPow(exponent, modulus);
+            runs++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MIN_NANOS);
+        return (double) elapsed / runs;
+    }
+
+    /**
+     * Returns the mean time of {@code BigInteger.modPow}, in nanoseconds.
+     *
+     * @param x
+     *            depiction of the base
+     * @param p
+     *            depiction of the exponent
+     * @param m
+     *            depiction of the modulus
+     * @return the mean time per call
+     */
+    private static double timeBigInteger(String x, String p, String m) {
+        BigInteger base = new BigInteger(x);
+        BigInteger exponent = new BigInteger(p);
+        BigInteger modulus = new BigInteger(m);
+        long checksum = 0;
+        long runs = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            checksum += base.modPow(exponent, modulus).bitLength();
+            runs++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MIN_NANOS);
+        /*
+         * The checksum keeps the results from being optimized away
+         */
+        if (checksum < 0) {
+            throw new AssertionError("impossible checksum");
+        }
+        return (double) elapsed / runs;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; ignored
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        Random random = new Random(1L);
+        final int oddLast = 7;
+        final int evenLast = 4;
+
+        out.println("digits,modulus,naturalnumber4_us,biginteger_us");
+        for (int digits : DIGITS) {
+            String x = randomDigits(random, digits, oddLast);
+            String p = randomDigits(random, digits, oddLast);
+            String[] moduli = { randomDigits(random, digits, oddLast),
+                randomDigits(random, digits, evenLast) };
+            String[] kinds = { "odd", "even" };
+            for (int k = 0; k < moduli.length; k++) {
+                /*
+                 * Untimed first pass so both sides are JIT-compiled
+                 */
+                timeNaturalNumber4(x, p, moduli[k]);
+                timeBigInteger(x, p, moduli[k]);
+                double fast = timeNaturalNumber4(x, p, moduli[k])
+                        / NANOS_PER_MICRO;
+                double reference = timeBigInteger(x, p, moduli[k])
+                        / NANOS_PER_MICRO;
+                out.println(digits + "," + kinds[k] + "," + fast + ","
+                        + reference);
+            }
+        }
+        out.close();
+    }
+
+}
@@ -0,0 +1,199 @@
+import java.util.Random;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Times the schoolbook, Karatsuba and Toom-3 multiplication methods of
+ * {@code LimbArithmetic} on balanced operands of growing size, and reports the
+ * sizes at which each method starts beating the previous one. The reported
+ * crossovers are what {@code LimbArithmetic.KARATSUBA_THRESHOLD} and
+ * {@code LimbArithmetic.TOOM3_THRESHOLD} should be set to.
+ *
+ * <p>
+ * The Karatsuba and Toom-3 timings split only the top level and then recurse
+ * through {@code LimbArithmetic.multiply}, so they measure exactly the choice
+ * the dispatcher makes at that size.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public final class NaturalNumberMultiplyBenchmark {
+
+    /**
+     * Operand sizes to time, in limbs.
+     */
+    private static final int[] SIZES = { 8, 16, 24, 32, 40, 48, 64, 80, 96,
+        128, 160, 192, 256, 320, 384, 512, 768, 1024 };
+
+    /**
+     * Minimum time spent on each measurement, in nanoseconds.
+     */
+    private static final long MIN_NANOS = 200_000_000L;
+
+    /**
+     * Number of untimed warm-up passes over all sizes.
+     */
+    private static final int WARM_UP_PASSES = 2;
+
+    /**
+     * Nanoseconds per microsecond.
+     */
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    /**
+     * Multiplication method being timed.
+     */
+    private enum Method {
+        /**
+         * {@code LimbArithmetic.schoolbookMultiply}.
+         */
+        SCHOOLBOOK,
+        /**
+         * {@code LimbArithmetic.karatsubaMultiply}.
+         */
+        KARATSUBA,
+        /**
+         * {@code LimbArithmetic.toom3Multiply}.
+         */
+        TOOM3
+    }
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private NaturalNumberMultiplyBenchmark() {
+    }
+
+    /**
+     * Returns a pseudo-random normalized magnitude with {@code size} limbs.
+     *
+     * @param random
+     *            the source of randomness
+     * @param size
+     *            the number of limbs
+     * @return the magnitude
+     * @requires size > 0
+     */
+    private static int[] randomMagnitude(Random random, int size) {
+        int[] magnitude = new int[size];
+        for (int i = 0; i < size; i++) {
+            magnitude[i] = random.nextInt(LimbArithmetic.BASE);
+        }
+        magnitude[size - 1] = 1 + random.nextInt(LimbArithmetic.BASE - 1);
+        return magnitude;
+    }
+
+    /**
+     * Multiplies {@code a} by {@code b} once with the given method.
+     *
+     * @param method
+     *            the method to use
+     * @param a
+     *            the first factor
+     * @param b
+     *            the second factor
+     * @return the product
+     */
+    private static int[] multiplyWith(Method method, int[] a, int[] b) {
+        int[] product;
+        switch (method) {
+            case SCHOOLBOOK:
+                product = LimbArithmetic.schoolbookMultiply(a, b);
+                break;
+            case KARATSUBA:
+                product = LimbArithmetic.karatsubaMultiply(a, b);
+                break;
+            default:
+                product = LimbArithmetic.toom3Multiply(a, b);
+                break;
+        }
+        return product;
+    }
+
+    /**
+     * Returns the mean time of one multiplication with the given method, in
+     * nanoseconds.
+     *
+     * @param method
+     *            the method to time
+     * @param a
+     *            the first factor
+     * @param b
+     *            the second factor
+     * @return the mean time per multiplication
+     */
+    private static double time(Method method, int[] a, int[] b) {
+        long checksum = 0;
+        long runs = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            checksum += multiplyWith(method, a, b).length;
+            runs++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MIN_NANOS);
+        /*
+         * The checksum keeps the products from being optimized away
+         */
+        if (checksum < 0) {
+            throw new AssertionError("impossible checksum");
+        }
+        return (double) elapsed / runs;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; ignored
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        Random random = new Random(1L);
+        Method[] methods = Method.values();
+
+        out.print("Warming up...");
+        for (int pass = 0; pass < WARM_UP_PASSES; pass++) {
+            for (int size : SIZES) {
+                int[] a = randomMagnitude(random, size);
+                int[] b = randomMagnitude(random, size);
+                for (Method method : methods) {
+                    multiplyWith(method, a, b);
+                }
+            }
+        }
+        out.println("done!");
+
+        out.println("limbs,schoolbook_us,karatsuba_us,toom3_us");
+        int karatsubaFrom = -1;
+        int toom3From = -1;
+        for (int size : SIZES) {
+            int[] a = randomMagnitude(random, size);
+            int[] b = randomMagnitude(random, size);
+            double[] micros = new double[methods.length];
+            for (int m = 0; m < methods.length; m++) {
+                micros[m] = time(methods[m], a, b) / NANOS_PER_MICRO;
+            }
+            out.println(size + "," + micros[Method.SCHOOLBOOK.ordinal()] + ","
+                    + micros[Method.KARATSUBA.ordinal()] + ","
+                    + micros[Method.TOOM3.ordinal()]);
+            if (karatsubaFrom < 0 && micros[Method.KARATSUBA
+                    .ordinal()] < micros[Method.SCHOOLBOOK.ordinal()]) {
+                karatsubaFrom = size;
+            }
+            if (toom3From < 0 && micros[Method.TOOM3
+                    .ordinal()] < micros[Method.KARATSUBA.ordinal()]) {
+                toom3From = size;
+            }
+        }
+        out.println("Karatsuba first beats schoolbook at " + karatsubaFrom
+                + " limbs (KARATSUBA_THRESHOLD = "
+                + LimbArithmetic.KARATSUBA_THRESHOLD + ")");
+        out.println("Toom-3 first beats Karatsuba at " + toom3From
+                + " limbs (TOOM3_THRESHOLD = "
+                + LimbArithmetic.TOOM3_THRESHOLD + ")");
+        out.close();
+    }
+
+}
@@ -0,0 +1,1688 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Arithmetic on magnitudes stored as little-endian arrays of base-10^9 limbs,
+ * used by {@code NaturalNumber4} for the operations that the kernel methods
+ * alone would make quadratic or worse.
+ *
+ * <p>
+ * Unless stated otherwise, every magnitude passed to or returned from a method
+ * in this class is <em>normalized</em>: {@code a[0]} is the least significant
+ * limb, every limb is in [0, {@code BASE}), and the last limb is not 0 (so 0
+ * is the empty array). Arguments are never modified.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+final class LimbArithmetic {
+
+    /**
+     * Radix of a limb.
+     */
+    static final int BASE = 1_000_000_000;
+
+    /**
+     * Number of decimal digits in a limb.
+     */
+    private static final int LIMB_DIGITS = 9;
+
+    /**
+     * Radix of a decimal digit.
+     */
+    private static final int RADIX = 10;
+
+    /**
+     * The magnitude 0.
+     */
+    static final int[] ZERO = new int[0];
+
+    /**
+     * Operand size (in limbs) from which Karatsuba multiplication replaces the
+     * schoolbook method; tuned with {@code NaturalNumberMultiplyBenchmark}.
+     */
+    static final int KARATSUBA_THRESHOLD = 32;
+
+    /**
+     * Operand size (in limbs) from which Toom-3 multiplication replaces
+     * Karatsuba; tuned with {@code NaturalNumberMultiplyBenchmark}.
+     */
+    static final int TOOM3_THRESHOLD = 160;
+
+    /**
+     * Operand size (in limbs) from which {@code parallelMultiply} runs
+     * sub-products as separate fork/join tasks; below it a task multiplies
+     * sequentially.
+     */
+    static final int PARALLEL_THRESHOLD = 1_024;
+
+    /**
+     * Number of leaves from which {@code productTree} splits a range into
+     * parallel sub-tasks.
+     */
+    private static final int TREE_PARALLEL_LEAVES = 512;
+
+    /**
+     * Divisor size (in limbs) from which Burnikel-Ziegler division replaces
+     * Knuth's schoolbook method.
+     */
+    static final int BURNIKEL_ZIEGLER_THRESHOLD = 80;
+
+    /**
+     * Minimum excess of dividend size over divisor size (in limbs) for
+     * Burnikel-Ziegler division to pay off.
+     */
+    static final int BURNIKEL_ZIEGLER_OFFSET = 40;
+
+    /**
+     * Number of exponent bits extracted per short division in
+     * {@code modPow}; 2^29 is the largest power of two below {@code BASE}.
+     */
+    private static final int EXPONENT_CHUNK_BITS = 29;
+
+    /**
+     * Exponent bit lengths up to which each sliding-window size is used:
+     * window size w + 1 is used for exponents longer than entry w.
+     */
+    private static final int[] WINDOW_BIT_LENGTHS = { 7, 25, 81, 241, 673,
+        1793 };
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private LimbArithmetic() {
+    }
+
+    /**
+     * Returns {@code a} without its most significant zero limbs.
+     *
+     * @param a
+     *            the possibly unnormalized magnitude
+     * @return the normalized magnitude, which may be {@code a} itself
+     * @ensures trim = [a with its leading zero limbs removed]
+     */
+    static int[] trim(int[] a) {
+        int len = a.length;
+        while (len > 0 && a[len - 1] == 0) {
+            len--;
+        }
+        int[] result = a;
+        if (len < a.length) {
+            result = new int[len];
+            System.arraycopy(a, 0, result, 0, len);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the normalized magnitude held in {@code a[from, to)}.
+     *
+     * @param a
+     *            the source magnitude
+     * @param from
+     *            the first limb to copy
+     * @param to
+     *            one past the last limb to copy
+     * @return the limbs {@code a[from, to)}, normalized
+     * @requires 0 <= from
+     * @ensures slice = [a[from, min(to, |a|)) with leading zeros removed]
+     */
+    static int[] slice(int[] a, int from, int to) {
+        int end = Math.min(to, a.length);
+        while (end > from && a[end - 1] == 0) {
+            end--;
+        }
+        int[] result = ZERO;
+        if (end > from) {
+            result = new int[end - from];
+            System.arraycopy(a, from, result, 0, end - from);
+        }
+        return result;
+    }
+
+    /**
+     * Compares two magnitudes.
+     *
+     * @param a
+     *            the first magnitude
+     * @param b
+     *            the second magnitude
+     * @return a negative number, zero, or a positive number as {@code a} is
+     *         less than, equal to, or greater than {@code b}
+     */
+    static int compare(int[] a, int[] b) {
+        int result = Integer.compare(a.length, b.length);
+        for (int i = a.length - 1; result == 0 && i >= 0; i--) {
+            result = Integer.compare(a[i], b[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@code a + b}.
+     *
+     * @param a
+     *            the first addend
+     * @param b
+     *            the second addend
+     * @return the sum
+     * @ensures add = a + b
+     */
+    static int[] add(int[] a, int[] b) {
+        int[] longer = a;
+        int[] shorter = b;
+        if (a.length < b.length) {
+            longer = b;
+            shorter = a;
+        }
+        int[] sum = new int[longer.length + 1];
+        int carry = 0;
+        for (int i = 0; i < longer.length; i++) {
+            int limb = longer[i] + carry;
+            if (i < shorter.length) {
+                limb += shorter[i];
+            }
+            carry = 0;
+            if (limb >= BASE) {
+                limb -= BASE;
+                carry = 1;
+            }
+            sum[i] = limb;
+        }
+        sum[longer.length] = carry;
+        return trim(sum);
+    }
+
+    /**
+     * Returns {@code a - b}.
+     *
+     * @param a
+     *            the minuend
+     * @param b
+     *            the subtrahend
+     * @return the difference
+     * @requires a >= b
+     * @ensures subtract = a - b
+     */
+    static int[] subtract(int[] a, int[] b) {
+        assert compare(a, b) >= 0 : "Violation of: a >= b";
+
+        int[] difference = new int[a.length];
+        int borrow = 0;
+        for (int i = 0; i < a.length; i++) {
+            int limb = a[i] - borrow;
+            if (i < b.length) {
+                limb -= b[i];
+            }
+            borrow = 0;
+            if (limb < 0) {
+                limb += BASE;
+                borrow = 1;
+            }
+            difference[i] = limb;
+        }
+        return trim(difference);
+    }
+
+    /**
+     * Adds {@code x * BASE^shift} to the unnormalized accumulator {@code r}.
+     *
+     * @param r
+     *            the accumulator
+     * @param x
+     *            the magnitude to add
+     * @param shift
+     *            the number of limbs to shift {@code x} by
+     * @updates r
+     * @requires r + x * BASE^shift < BASE^|r|
+     * @ensures r = #r + x * BASE^shift
+     */
+    static void addShifted(int[] r, int[] x, int shift) {
+        int carry = 0;
+        int i = 0;
+        while (i < x.length || carry != 0) {
+            int limb = r[shift + i] + carry;
+            if (i < x.length) {
+                limb += x[i];
+            }
+            carry = 0;
+            if (limb >= BASE) {
+                limb -= BASE;
+                carry = 1;
+            }
+            r[shift + i] = limb;
+            i++;
+        }
+    }
+
+    /**
+     * Returns {@code a * m} for a small factor {@code m}.
+     *
+     * @param a
+     *            the magnitude
+     * @param m
+     *            the factor
+     * @return the product
+     * @requires 0 <= m < BASE
+     * @ensures multiplySmall = a * m
+     */
+    static int[] multiplySmall(int[] a, int m) {
+        assert 0 <= m && m < BASE : "Violation of: 0 <= m < BASE";
+
+        int[] product = new int[a.length + 1];
+        long carry = 0;
+        for (int i = 0; i < a.length; i++) {
+            long t = (long) a[i] * m + carry;
+            product[i] = (int) (t % BASE);
+            carry = t / BASE;
+        }
+        product[a.length] = (int) carry;
+        return trim(product);
+    }
+
+    /**
+     * Returns {@code a / d} for a small divisor {@code d} that divides
+     * {@code a} exactly.
+     *
+     * @param a
+     *            the magnitude
+     * @param d
+     *            the divisor
+     * @return the quotient
+     * @requires 0 < d < BASE and [d divides a]
+     * @ensures divideExactSmall * d = a
+     */
+    static int[] divideExactSmall(int[] a, int d) {
+        assert 0 < d && d < BASE : "Violation of: 0 < d < BASE";
+
+        int[] quotient = new int[a.length];
+        long remainder = 0;
+        for (int i = a.length - 1; i >= 0; i--) {
+            long t = remainder * BASE + a[i];
+            quotient[i] = (int) (t / d);
+            remainder = t % d;
+        }
+        assert remainder == 0 : "Violation of: d divides a";
+        return trim(quotient);
+    }
+
+    /**
+     * Returns {@code a * b}, choosing the schoolbook, Karatsuba or Toom-3
+     * method by operand size.
+     *
+     * @param a
+     *            the first factor
+     * @param b
+     *            the second factor
+     * @return the product
+     * @ensures multiply = a * b
+     */
+    static int[] multiply(int[] a, int[] b) {
+        int[] longer = a;
+        int[] shorter = b;
+        if (a.length < b.length) {
+            longer = b;
+            shorter = a;
+        }
+        int[] product;
+        if (shorter.length == 0) {
+            product = ZERO;
+        } else if (shorter.length < KARATSUBA_THRESHOLD) {
+            product = schoolbookMultiply(longer, shorter);
+        } else if (longer.length >= 2 * shorter.length) {
+            product = unbalancedMultiply(longer, shorter);
+        } else if (shorter.length < TOOM3_THRESHOLD) {
+            product = karatsubaMultiply(longer, shorter);
+        } else {
+            product = toom3Multiply(longer, shorter);
+        }
+        return product;
+    }
+
+    /**
+     * Returns {@code a * b}, running sub-products of large operands in
+     * parallel on {@code pool}. The result is identical to
+     * {@code multiply(a, b)}; only the order in which the exact sub-products
+     * are computed differs.
+     *
+     * @param a
+     *            the first factor
+     * @param b
+     *            the second factor
+     * @param pool
+     *            the pool to run sub-products on
+     * @return the product
+     * @ensures parallelMultiply = a * b
+     */
+    static int[] parallelMultiply(int[] a, int[] b, ForkJoinPool pool) {
+        return pool.invoke(new ProductTask(a, b));
+    }
+
+    /**
+     * Fork/join task computing one product. Large balanced operands are split
+     * Karatsuba-style and the three half-size products are run as sub-tasks;
+     * large unbalanced operands are cut into balanced pieces that are
+     * multiplied as sub-tasks.
+     */
+    private static final class ProductTask extends RecursiveTask<int[]> {
+
+        /**
+         * Serialization version, required of {@code RecursiveTask}s.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The first factor.
+         */
+        private final int[] a;
+
+        /**
+         * The second factor.
+         */
+        private final int[] b;
+
+        /**
+         * Constructor.
+         *
+         * @param a
+         *            the first factor
+         * @param b
+         *            the second factor
+         */
+        ProductTask(int[] a, int[] b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        protected int[] compute() {
+            int[] longer = this.a;
+            int[] shorter = this.b;
+            if (longer.length < shorter.length) {
+                longer = this.b;
+                shorter = this.a;
+            }
+            int[] product;
+            if (shorter.length < PARALLEL_THRESHOLD) {
+                product = multiply(longer, shorter);
+            } else if (longer.length >= 2 * shorter.length) {
+                int pieces = (longer.length + shorter.length - 1)
+                        / shorter.length;
+                ProductTask[] tasks = new ProductTask[pieces];
+                for (int i = 0; i < pieces; i++) {
+                    tasks[i] = new ProductTask(slice(longer,
+                            i * shorter.length, (i + 1) * shorter.length),
+                            shorter);
+                }
+                invokeAll(tasks);
+                product = new int[longer.length + shorter.length];
+                for (int i = 0; i < pieces; i++) {
+                    addShifted(product, tasks[i].join(), i * shorter.length);
+                }
+                product = trim(product);
+            } else {
+                int half = (longer.length + 1) / 2;
+                int[] a0 = slice(longer, 0, half);
+                int[] a1 = slice(longer, half, longer.length);
+                int[] b0 = slice(shorter, 0, half);
+                int[] b1 = slice(shorter, half, shorter.length);
+                ProductTask low = new ProductTask(a0, b0);
+                ProductTask high = new ProductTask(a1, b1);
+                ProductTask middle = new ProductTask(add(a0, a1), add(b0, b1));
+                invokeAll(low, high, middle);
+                int[] z0 = low.join();
+                int[] z2 = high.join();
+                int[] z1 = subtract(subtract(middle.join(), z0), z2);
+                product = new int[longer.length + shorter.length + 1];
+                addShifted(product, z0, 0);
+                addShifted(product, z1, half);
+                addShifted(product, z2, 2 * half);
+                product = trim(product);
+            }
+            return product;
+        }
+
+    }
+
+    /**
+     * Returns the product of {@code factors[0, count)} by a balanced product
+     * tree: the factors are first packed into single limbs, and the limbs are
+     * then multiplied pairwise up the tree, so that every multiplication is
+     * between operands of similar size. With a non-null {@code pool},
+     * sub-trees and large sub-products run in parallel on it.
+     *
+     * @param factors
+     *            the factors
+     * @param count
+     *            the number of factors to multiply
+     * @param pool
+     *            the pool to run sub-trees on, or null
+     * @return the product, 1 if {@code count} is 0
+     * @requires 0 <= count <= |factors| and [every factor is in [1, BASE)]
+     * @ensures productTree = [product of factors[0, count)]
+     */
+    static int[] productTree(int[] factors, int count, ForkJoinPool pool) {
+        int[][] leaves = new int[Math.max(count, 1)][];
+        int leafCount = 0;
+        long leaf = 1;
+        for (int i = 0; i < count; i++) {
+            if (leaf * factors[i] >= BASE) {
+                leaves[leafCount] = new int[] { (int) leaf };
+                leafCount++;
+                leaf = 1;
+            }
+            leaf *= factors[i];
+        }
+        leaves[leafCount] = new int[] { (int) leaf };
+        leafCount++;
+        int[] product;
+        if (pool == null) {
+            product = treeProduct(leaves, 0, leafCount);
+        } else {
+            product = pool.invoke(new TreeTask(leaves, 0, leafCount));
+        }
+        return product;
+    }
+
+    /**
+     * Returns the product of {@code leaves[from, to)}, splitting the range in
+     * half.
+     *
+     * @param leaves
+     *            the magnitudes to multiply
+     * @param from
+     *            the first index
+     * @param to
+     *            one past the last index
+     * @return the product
+     * @requires 0 <= from < to <= |leaves|
+     * @ensures treeProduct = [product of leaves[from, to)]
+     */
+    private static int[] treeProduct(int[][] leaves, int from, int to) {
+        int[] product;
+        if (to - from == 1) {
+            product = leaves[from];
+        } else {
+            int middle = (from + to) >>> 1;
+            product = multiply(treeProduct(leaves, from, middle),
+                    treeProduct(leaves, middle, to));
+        }
+        return product;
+    }
+
+    /**
+     * Fork/join task computing the product of a range of leaves. Ranges of at
+     * least {@code TREE_PARALLEL_LEAVES} leaves run their two halves as
+     * sub-tasks and combine them with a {@code ProductTask}.
+     */
+    private static final class TreeTask extends RecursiveTask<int[]> {
+
+        /**
+         * Serialization version, required of {@code RecursiveTask}s.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The magnitudes to multiply.
+         */
+        private final int[][] leaves;
+
+        /**
+         * The first index of the range.
+         */
+        private final int from;
+
+        /**
+         * One past the last index of the range.
+         */
+        private final int to;
+
+        /**
+         * Constructor.
+         *
+         * @param leaves
+         *            the magnitudes to multiply
+         * @param from
+         *            the first index of the range
+         * @param to
+         *            one past the last index of the range
+         */
+        TreeTask(int[][] leaves, int from, int to) {
+            this.leaves = leaves;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            int[] product;
+            if (this.to - this.from < TREE_PARALLEL_LEAVES) {
+                product = treeProduct(this.leaves, this.from, this.to);
+            } else {
+                int middle = (this.from + this.to) >>> 1;
+                TreeTask low = new TreeTask(this.leaves, this.from, middle);
+                TreeTask high = new TreeTask(this.leaves, middle, this.to);
+                invokeAll(low, high);
+                product = new ProductTask(low.join(), high.join()).invoke();
+            }
+            return product;
+        }
+
+    }
+
+    /**
+     * Returns {@code a * b} by the schoolbook method in O(|a| * |b|) time.
+     *
+     * @param a
+     *            the first factor
+     * @param b
+     *            the second factor
+     * @return the product
+     * @ensures schoolbookMultiply = a * b
+     */
+    static int[] schoolbookMultiply(int[] a, int[] b) {
+        int[] product = new int[a.length + b.length];
+        for (int i = 0; i < a.length; i++) {
+            long ai = a[i];
+            long carry = 0;
+            for (int j = 0; j < b.length; j++) {
+                long t = ai * b[j] + product[i + j] + carry;
+                product[i + j] = (int) (t % BASE);
+                carry = t / BASE;
+            }
+            product[i + b.length] = (int) carry;
+        }
+        return trim(product);
+    }
+
+    /**
+     * Returns {@code a * b} for a much longer {@code a} by cutting it into
+     * pieces of the size of {@code b} and multiplying each piece by {@code b}.
+     *
+     * @param a
+     *            the longer factor
+     * @param b
+     *            the shorter factor
+     * @return the product
+     * @requires |b| > 0
+     * @ensures unbalancedMultiply = a * b
+     */
+    private static int[] unbalancedMultiply(int[] a, int[] b) {
+        int[] product = new int[a.length + b.length];
+        for (int from = 0; from < a.length; from += b.length) {
+            int[] piece = slice(a, from, from + b.length);
+            addShifted(product, multiply(piece, b), from);
+        }
+        return trim(product);
+    }
+
+    /**
+     * Returns {@code a * b} by one level of Karatsuba splitting, recursing
+     * through {@code multiply} for the three half-size products.
+     *
+     * @param a
+     *            the first factor
+     * @param b
+     *            the second factor
+     * @return the product
+     * @ensures karatsubaMultiply = a * b
+     */
+    static int[] karatsubaMultiply(int[] a, int[] b) {
+        int half = (Math.max(a.length, b.length) + 1) / 2;
+        int[] a0 = slice(a, 0, half);
+        int[] a1 = slice(a, half, a.length);
+        int[] b0 = slice(b, 0, half);
+        int[] b1 = slice(b, half, b.length);
+
+        int[] z0 = multiply(a0, b0);
+        int[] z2 = multiply(a1, b1);
+        int[] z1 = multiply(add(a0, a1), add(b0, b1));
+        z1 = subtract(subtract(z1, z0), z2);
+
+        int[] product = new int[a.length + b.length + 1];
+        addShifted(product, z0, 0);
+        addShifted(product, z1, half);
+        addShifted(product, z2, 2 * half);
+        return trim(product);
+    }
+
+    /**
+     * Returns {@code a * b} by one level of Toom-3 splitting, recursing
+     * through {@code multiply} for the five third-size products.
+     *
+     * <p>
+     * The pieces are evaluated at 0, 1, 2, 3 and infinity. With only
+     * non-negative evaluation points every intermediate value (including the
+     * forward differences used to interpolate) is non-negative, so no signed
+     * arithmetic is needed.
+     *
+     * @param a
+     *            the first factor
+     * @param b
+     *            the second factor
+     * @return the product
+     * @ensures toom3Multiply = a * b
+     */
+    static int[] toom3Multiply(int[] a, int[] b) {
+        final int two = 2;
+        final int three = 3;
+        final int four = 4;
+        final int six = 6;
+        final int sixteen = 16;
+        final int eightyOne = 81;
+
+        int k = (Math.max(a.length, b.length) + 2) / three;
+        int[] a0 = slice(a, 0, k);
+        int[] a1 = slice(a, k, two * k);
+        int[] a2 = slice(a, two * k, a.length);
+        int[] b0 = slice(b, 0, k);
+        int[] b1 = slice(b, k, two * k);
+        int[] b2 = slice(b, two * k, b.length);
+
+        /*
+         * Evaluate both polynomials at 1, 2 and 3
+         */
+        int[] a02 = add(a0, a2);
+        int[] b02 = add(b0, b2);
+        int[] aAt1 = add(a02, a1);
+        int[] bAt1 = add(b02, b1);
+        int[] aAt2 = add(add(a0, multiplySmall(a1, two)),
+                multiplySmall(a2, four));
+        int[] bAt2 = add(add(b0, multiplySmall(b1, two)),
+                multiplySmall(b2, four));
+        int[] aAt3 = add(add(a0, multiplySmall(a1, three)),
+                multiplySmall(a2, three * three));
+        int[] bAt3 = add(add(b0, multiplySmall(b1, three)),
+                multiplySmall(b2, three * three));
+
+        /*
+         * Pointwise products; c4 is the leading coefficient of the product
+         */
+        int[] c0 = multiply(a0, b0);
+        int[] c4 = multiply(a2, b2);
+        int[] q1 = subtract(multiply(aAt1, bAt1), c4);
+        int[] q2 = subtract(multiply(aAt2, bAt2), multiplySmall(c4, sixteen));
+        int[] q3 = subtract(multiply(aAt3, bAt3),
+                multiplySmall(c4, eightyOne));
+
+        /*
+         * Forward differences of the remaining cubic at 0, 1, 2, 3
+         */
+        int[] d10 = subtract(q1, c0);
+        int[] d21 = subtract(q2, q1);
+        int[] d32 = subtract(q3, q2);
+        int[] dd0 = subtract(d21, d10);
+        int[] dd1 = subtract(d32, d21);
+        int[] ddd0 = subtract(dd1, dd0);
+
+        /*
+         * Newton form to coefficients: with x(x-1)(x-2) = x^3 - 3x^2 + 2x,
+         * c3 = ddd0/6, c2 = dd0/2 - 3*c3 and c1 = d10 - dd0/2 + 2*c3
+         */
+        int[] c3 = divideExactSmall(ddd0, six);
+        int[] halfDd0 = divideExactSmall(dd0, two);
+        int[] c2 = subtract(halfDd0, multiplySmall(c3, three));
+        int[] c1 = subtract(add(d10, multiplySmall(c3, two)), halfDd0);
+
+        int[] product = new int[a.length + b.length + 1];
+        addShifted(product, c0, 0);
+        addShifted(product, c1, k);
+        addShifted(product, c2, two * k);
+        addShifted(product, c3, three * k);
+        addShifted(product, c4, four * k);
+        return trim(product);
+    }
+
+    /**
+     * Returns {@code a * BASE^shift}.
+     *
+     * @param a
+     *            the magnitude
+     * @param shift
+     *            the number of limbs to shift by
+     * @return the shifted magnitude
+     * @requires shift >= 0
+     * @ensures shiftLeft = a * BASE^shift
+     */
+    static int[] shiftLeft(int[] a, int shift) {
+        int[] result = ZERO;
+        if (a.length > 0) {
+            result = new int[a.length + shift];
+            System.arraycopy(a, 0, result, shift, a.length);
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@code high * BASE^shift + low}.
+     *
+     * @param high
+     *            the high part
+     * @param low
+     *            the low part
+     * @param shift
+     *            the number of limbs taken by the low part
+     * @return the joined magnitude
+     * @requires |low| <= shift
+     * @ensures join = high * BASE^shift + low
+     */
+    private static int[] join(int[] high, int[] low, int shift) {
+        assert low.length <= shift : "Violation of: |low| <= shift";
+
+        int[] result = low;
+        if (high.length > 0) {
+            result = new int[shift + high.length];
+            System.arraycopy(low, 0, result, 0, low.length);
+            System.arraycopy(high, 0, result, shift, high.length);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the quotient and remainder of {@code a / b}, choosing Knuth's
+     * schoolbook method or Burnikel-Ziegler recursive division by operand
+     * size.
+     *
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @return the array {quotient, remainder}
+     * @requires b > 0
+     * @ensures <pre>
+     * a = divideAndRemainder[0] * b + divideAndRemainder[1]  and
+     * divideAndRemainder[1] < b
+     * </pre>
+     */
+    static int[][] divideAndRemainder(int[] a, int[] b) {
+        assert b.length > 0 : "Violation of: b > 0";
+
+        int[][] result;
+        if (compare(a, b) < 0) {
+            result = new int[][] { ZERO, a };
+        } else if (b.length == 1) {
+            result = divideBySmall(a, b[0]);
+        } else if (b.length < BURNIKEL_ZIEGLER_THRESHOLD
+                || a.length - b.length < BURNIKEL_ZIEGLER_OFFSET) {
+            result = knuthDivide(a, b);
+        } else {
+            result = burnikelZieglerDivide(a, b);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the quotient and remainder of {@code a / d} for a single-limb
+     * divisor {@code d}.
+     *
+     * @param a
+     *            the dividend
+     * @param d
+     *            the divisor
+     * @return the array {quotient, remainder}
+     * @requires 0 < d < BASE
+     * @ensures <pre>
+     * a = divideBySmall[0] * d + divideBySmall[1]  and
+     * divideBySmall[1] < d
+     * </pre>
+     */
+    private static int[][] divideBySmall(int[] a, int d) {
+        int[] quotient = new int[a.length];
+        long remainder = 0;
+        for (int i = a.length - 1; i >= 0; i--) {
+            long t = remainder * BASE + a[i];
+            quotient[i] = (int) (t / d);
+            remainder = t % d;
+        }
+        int[] remainderMagnitude = ZERO;
+        if (remainder > 0) {
+            remainderMagnitude = new int[] { (int) remainder };
+        }
+        return new int[][] { trim(quotient), remainderMagnitude };
+    }
+
+    /**
+     * Returns the quotient and remainder of {@code a / b} by Knuth's
+     * Algorithm D in O((|a| - |b| + 1) * |b|) time.
+     *
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @return the array {quotient, remainder}
+     * @requires |b| >= 2
+     * @ensures <pre>
+     * a = knuthDivide[0] * b + knuthDivide[1]  and
+     * knuthDivide[1] < b
+     * </pre>
+     */
+    static int[][] knuthDivide(int[] a, int[] b) {
+        assert b.length >= 2 : "Violation of: |b| >= 2";
+
+        int n = b.length;
+        int[][] result;
+        if (a.length < n) {
+            result = new int[][] { ZERO, a };
+        } else {
+            int m = a.length - n;
+            /*
+             * Scale both operands so the top limb of the divisor is at least
+             * BASE / 2, which keeps each quotient-limb estimate within 2 of
+             * the true value
+             */
+            int scale = BASE / (b[n - 1] + 1);
+            int[] v = multiplySmall(b, scale);
+            int[] u = new int[a.length + 1];
+            int[] scaledA = multiplySmall(a, scale);
+            System.arraycopy(scaledA, 0, u, 0, scaledA.length);
+            long vTop = v[n - 1];
+            long vNext = v[n - 2];
+            int[] quotient = new int[m + 1];
+            for (int j = m; j >= 0; j--) {
+                long numerator = (long) u[j + n] * BASE + u[j + n - 1];
+                long qHat = numerator / vTop;
+                long rHat = numerator % vTop;
+                while (rHat < BASE && (qHat >= BASE
+                        || qHat * vNext > rHat * BASE + u[j + n - 2])) {
+                    qHat--;
+                    rHat += vTop;
+                }
+                /*
+                 * Multiply and subtract qHat * v from u[j, j + n]
+                 */
+                long carry = 0;
+                long borrow = 0;
+                for (int i = 0; i < n; i++) {
+                    long p = qHat * v[i] + carry;
+                    carry = p / BASE;
+                    long t = u[i + j] - p % BASE - borrow;
+                    borrow = 0;
+                    if (t < 0) {
+                        t += BASE;
+                        borrow = 1;
+                    }
+                    u[i + j] = (int) t;
+                }
+                long top = u[j + n] - carry - borrow;
+                if (top < 0) {
+                    /*
+                     * qHat was one too large: add v back
+                     */
+                    qHat--;
+                    long addCarry = 0;
+                    for (int i = 0; i < n; i++) {
+                        long t = (long) u[i + j] + v[i] + addCarry;
+                        addCarry = t / BASE;
+                        u[i + j] = (int) (t % BASE);
+                    }
+                    top += addCarry;
+                }
+                u[j + n] = (int) top;
+                quotient[j] = (int) qHat;
+            }
+            int[] remainder = divideExactSmall(slice(u, 0, n), scale);
+            result = new int[][] { trim(quotient), remainder };
+        }
+        return result;
+    }
+
+    /**
+     * Returns the quotient and remainder of {@code a / b} by Burnikel-Ziegler
+     * recursive division, in O(M(|b|) log |b|) time per divisor-sized block of
+     * {@code a}, where M is the cost of {@code multiply}.
+     *
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @return the array {quotient, remainder}
+     * @requires b > 0
+     * @ensures <pre>
+     * a = burnikelZieglerDivide[0] * b + burnikelZieglerDivide[1]  and
+     * burnikelZieglerDivide[1] < b
+     * </pre>
+     */
+    static int[][] burnikelZieglerDivide(int[] a, int[] b) {
+        int s = b.length;
+        /*
+         * Block size n = j * 2^k limbs, with j below the threshold, so the
+         * recursion halves cleanly down to Knuth-sized blocks
+         */
+        int blocks = 1 << (Integer.SIZE
+                - Integer.numberOfLeadingZeros(s / BURNIKEL_ZIEGLER_THRESHOLD));
+        int j = (s + blocks - 1) / blocks;
+        int n = j * blocks;
+        /*
+         * Scale and shift so the divisor has exactly n limbs and a top limb of
+         * at least BASE / 2
+         */
+        int scale = BASE / (b[s - 1] + 1);
+        int shift = n - s;
+        int[] bNorm = shiftLeft(multiplySmall(b, scale), shift);
+        int[] aNorm = shiftLeft(multiplySmall(a, scale), shift);
+        /*
+         * Number of n-limb blocks of aNorm, keeping a zero limb on top so the
+         * first block is below bNorm
+         */
+        int t = Math.max(2, (aNorm.length + n) / n);
+
+        int[] z = slice(aNorm, (t - 2) * n, t * n);
+        int[] quotient = new int[(t - 1) * n + 1];
+        for (int i = t - 2; i > 0; i--) {
+            int[][] qr = divide2n1n(z, bNorm, n);
+            addShifted(quotient, qr[0], i * n);
+            z = join(qr[1], slice(aNorm, (i - 1) * n, i * n), n);
+        }
+        int[][] qr = divide2n1n(z, bNorm, n);
+        addShifted(quotient, qr[0], 0);
+
+        int[] remainder = divideExactSmall(slice(qr[1], shift, qr[1].length),
+                scale);
+        return new int[][] { trim(quotient), remainder };
+    }
+
+    /**
+     * Divides a number of at most 2n limbs by a normalized n-limb divisor
+     * (Burnikel-Ziegler algorithm 1).
+     *
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @param n
+     *            the block size
+     * @return the array {quotient, remainder}
+     * @requires <pre>
+     * |b| = n  and  b[n - 1] >= BASE / 2  and  a < b * BASE^n
+     * </pre>
+     * @ensures <pre>
+     * a = divide2n1n[0] * b + divide2n1n[1]  and  divide2n1n[1] < b
+     * </pre>
+     */
+    private static int[][] divide2n1n(int[] a, int[] b, int n) {
+        int[][] result;
+        if (n % 2 != 0 || n < BURNIKEL_ZIEGLER_THRESHOLD) {
+            result = knuthDivide(a, b);
+        } else {
+            int half = n / 2;
+            int[][] first = divide3n2n(slice(a, half, a.length), b, half);
+            int[] a4 = slice(a, 0, half);
+            int[][] second = divide3n2n(join(first[1], a4, half), b, half);
+            result = new int[][] { join(first[0], second[0], half),
+                    second[1] };
+        }
+        return result;
+    }
+
+    /**
+     * Divides a number of at most 3 half-blocks by a normalized 2-half-block
+     * divisor (Burnikel-Ziegler algorithm 2).
+     *
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @param half
+     *            the half-block size
+     * @return the array {quotient, remainder}
+     * @requires <pre>
+     * |b| = 2 * half  and  b[2 * half - 1] >= BASE / 2  and
+     * a < b * BASE^half
+     * </pre>
+     * @ensures <pre>
+     * a = divide3n2n[0] * b + divide3n2n[1]  and  divide3n2n[1] < b
+     * </pre>
+     */
+    private static int[][] divide3n2n(int[] a, int[] b, int half) {
+        int[] a12 = slice(a, half, a.length);
+        int[] a1 = slice(a, 2 * half, a.length);
+        int[] a3 = slice(a, 0, half);
+        int[] b1 = slice(b, half, b.length);
+        int[] b2 = slice(b, 0, half);
+
+        int[] qHat;
+        int[] r1;
+        if (compare(a1, b1) < 0) {
+            int[][] qr = divide2n1n(a12, b1, half);
+            qHat = qr[0];
+            r1 = qr[1];
+        } else {
+            /*
+             * The quotient limb block saturates at BASE^half - 1, and then
+             * r1 = a12 - qHat * b1 = a12 - b1 * BASE^half + b1
+             */
+            qHat = new int[half];
+            Arrays.fill(qHat, BASE - 1);
+            r1 = subtract(add(a12, b1), shiftLeft(b1, half));
+        }
+        int[] d = multiply(qHat, b2);
+        int[] rHat = join(r1, a3, half);
+        /*
+         * rHat - d may be negative; add b back (at most twice) until it is not
+         */
+        while (compare(rHat, d) < 0) {
+            rHat = add(rHat, b);
+            qHat = subtract(qHat, new int[] { 1 });
+        }
+        return new int[][] { qHat, subtract(rHat, d) };
+    }
+
+    /**
+     * Multiplication modulo a fixed modulus, in Montgomery form when the
+     * modulus is coprime to {@code BASE} and in ordinary form (full product
+     * followed by division) otherwise. Values handed to and returned by
+     * {@code multiply} are always below the modulus, so no intermediate
+     * result is longer than twice the modulus.
+     */
+    private static final class ModularMultiplier {
+
+        /**
+         * The modulus.
+         */
+        private final int[] modulus;
+
+        /**
+         * Whether Montgomery multiplication is used.
+         */
+        private final boolean montgomery;
+
+        /**
+         * -modulus^(-1) mod BASE, when {@code montgomery} holds.
+         */
+        private final long negatedInverse;
+
+        /**
+         * Constructor.
+         *
+         * @param modulus
+         *            the modulus
+         * @requires modulus > 1
+         */
+        ModularMultiplier(int[] modulus) {
+            this.modulus = modulus;
+            final int two = 2;
+            final int five = 5;
+            this.montgomery = modulus[0] % two != 0 && modulus[0] % five != 0;
+            long inverse = 0;
+            if (this.montgomery) {
+                inverse = (BASE - inverseModBase(modulus[0])) % BASE;
+            }
+            this.negatedInverse = inverse;
+        }
+
+        /**
+         * Returns the inverse of {@code a} modulo {@code BASE}.
+         *
+         * @param a
+         *            the value to invert
+         * @return the inverse
+         * @requires gcd(a, BASE) = 1
+         * @ensures (a * inverseModBase) mod BASE = 1
+         */
+        private static long inverseModBase(long a) {
+            long oldR = a;
+            long r = BASE;
+            long oldS = 1;
+            long s = 0;
+            while (r != 0) {
+                long q = oldR / r;
+                long t = oldR - q * r;
+                oldR = r;
+                r = t;
+                t = oldS - q * s;
+                oldS = s;
+                s = t;
+            }
+            return Math.floorMod(oldS, (long) BASE);
+        }
+
+        /**
+         * Returns {@code x} converted to the working form.
+         *
+         * @param x
+         *            the value
+         * @return x * BASE^|modulus| mod modulus in Montgomery form, or x mod
+         *         modulus otherwise
+         */
+        int[] enter(int[] x) {
+            int[] shifted = x;
+            if (this.montgomery) {
+                shifted = shiftLeft(x, this.modulus.length);
+            }
+            return divideAndRemainder(shifted, this.modulus)[1];
+        }
+
+        /**
+         * Returns {@code x} converted back from the working form.
+         *
+         * @param x
+         *            the value in working form
+         * @return the ordinary residue
+         */
+        int[] leave(int[] x) {
+            int[] result = x;
+            if (this.montgomery) {
+                result = this.multiply(x, new int[] { 1 });
+            }
+            return result;
+        }
+
+        /**
+         * Returns the product of two values in working form.
+         *
+         * @param a
+         *            the first factor
+         * @param b
+         *            the second factor
+         * @return the product in working form
+         * @requires a < modulus and b < modulus
+         */
+        int[] multiply(int[] a, int[] b) {
+            int[] result;
+            if (this.montgomery) {
+                result = this.montgomeryMultiply(a, b);
+            } else {
+                result = divideAndRemainder(LimbArithmetic.multiply(a, b),
+                        this.modulus)[1];
+            }
+            return result;
+        }
+
+        /**
+         * Returns a * b * BASE^(-|modulus|) mod modulus by interleaved
+         * (CIOS) Montgomery multiplication.
+         *
+         * @param a
+         *            the first factor
+         * @param b
+         *            the second factor
+         * @return the Montgomery product
+         * @requires a < modulus and b < modulus
+         */
+        private int[] montgomeryMultiply(int[] a, int[] b) {
+            int[] m = this.modulus;
+            int k = m.length;
+            long[] t = new long[k + 2];
+            for (int i = 0; i < k; i++) {
+                /*
+                 * t += a[i] * b
+                 */
+                long ai = 0;
+                if (i < a.length) {
+                    ai = a[i];
+                }
+                long carry = 0;
+                for (int j = 0; j < k; j++) {
+                    long bj = 0;
+                    if (j < b.length) {
+                        bj = b[j];
+                    }
+                    long sum = t[j] + ai * bj + carry;
+                    t[j] = sum % BASE;
+                    carry = sum / BASE;
+                }
+                long sum = t[k] + carry;
+                t[k] = sum % BASE;
+                t[k + 1] += sum / BASE;
+                /*
+                 * t = (t + u * m) / BASE, with u chosen to clear the low limb
+                 */
+                long u = t[0] * this.negatedInverse % BASE;
+                carry = (t[0] + u * m[0]) / BASE;
+                for (int j = 1; j < k; j++) {
+                    sum = t[j] + u * m[j] + carry;
+                    t[j - 1] = sum % BASE;
+                    carry = sum / BASE;
+                }
+                sum = t[k] + carry;
+                t[k - 1] = sum % BASE;
+                t[k] = t[k + 1] + sum / BASE;
+                t[k + 1] = 0;
+            }
+            int[] result = new int[k + 1];
+            for (int j = 0; j <= k; j++) {
+                result[j] = (int) t[j];
+            }
+            result = trim(result);
+            if (compare(result, m) >= 0) {
+                result = subtract(result, m);
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Returns the bits of {@code p} as little-endian chunks of
+     * {@code EXPONENT_CHUNK_BITS} bits.
+     *
+     * @param p
+     *            the exponent
+     * @return the binary chunks of p
+     * @ensures p = sum i (toBinaryChunks[i] * 2^(i * EXPONENT_CHUNK_BITS))
+     */
+    private static int[] toBinaryChunks(int[] p) {
+        final int chunk = 1 << EXPONENT_CHUNK_BITS;
+        int[] rest = p;
+        /*
+         * A limb holds fewer than 30 bits, so p has fewer than
+         * |p| + |p| / EXPONENT_CHUNK_BITS + 1 chunks
+         */
+        int[] chunks = new int[p.length + p.length / EXPONENT_CHUNK_BITS + 1];
+        int count = 0;
+        while (rest.length > 0) {
+            int[][] qr = divideBySmall(rest, chunk);
+            rest = qr[0];
+            if (qr[1].length > 0) {
+                chunks[count] = qr[1][0];
+            }
+            count++;
+        }
+        return Arrays.copyOf(chunks, count);
+    }
+
+    /**
+     * Reports bit {@code i} of the number whose binary chunks are
+     * {@code chunks}.
+     *
+     * @param chunks
+     *            the binary chunks
+     * @param i
+     *            the bit position
+     * @return whether bit i is 1
+     */
+    private static boolean testBit(int[] chunks, int i) {
+        return (chunks[i / EXPONENT_CHUNK_BITS] >>> (i
+                % EXPONENT_CHUNK_BITS) & 1) != 0;
+    }
+
+    /**
+     * Returns {@code x^p mod m}, using Montgomery multiplication when {@code m}
+     * is coprime to 10 and ordinary reduction otherwise, with left-to-right
+     * sliding-window exponentiation in either case.
+     *
+     * @param x
+     *            the base
+     * @param p
+     *            the exponent
+     * @param m
+     *            the modulus
+     * @return the residue
+     * @requires m > 0
+     * @ensures modPow = x^p mod m
+     */
+    static int[] modPow(int[] x, int[] p, int[] m) {
+        assert m.length > 0 : "Violation of: m > 0";
+
+        int[] result = ZERO;
+        if (m.length > 1 || m[0] > 1) {
+            ModularMultiplier multiplier = new ModularMultiplier(m);
+            int[] chunks = toBinaryChunks(p);
+            int bitLength = 0;
+            if (chunks.length > 0) {
+                bitLength = (chunks.length - 1) * EXPONENT_CHUNK_BITS
+                        + Integer.SIZE - Integer.numberOfLeadingZeros(
+                                chunks[chunks.length - 1]);
+            }
+            int window = 1;
+            while (window <= WINDOW_BIT_LENGTHS.length
+                    && bitLength > WINDOW_BIT_LENGTHS[window - 1]) {
+                window++;
+            }
+            /*
+             * Odd powers x^1, x^3, ..., x^(2^window - 1) in working form
+             */
+            int[][] oddPowers = new int[1 << (window - 1)][];
+            oddPowers[0] = multiplier.enter(x);
+            int[] square = multiplier.multiply(oddPowers[0], oddPowers[0]);
+            for (int i = 1; i < oddPowers.length; i++) {
+                oddPowers[i] = multiplier.multiply(oddPowers[i - 1], square);
+            }
+
+            int[] power = multiplier.enter(new int[] { 1 });
+            boolean powerIsOne = true;
+            int i = bitLength - 1;
+            while (i >= 0) {
+                if (!testBit(chunks, i)) {
+                    if (!powerIsOne) {
+                        power = multiplier.multiply(power, power);
+                    }
+                    i--;
+                } else {
+                    /*
+                     * Longest window i..j of at most `window` bits ending in a
+                     * 1 bit
+                     */
+                    int j = Math.max(i - window + 1, 0);
+                    while (!testBit(chunks, j)) {
+                        j++;
+                    }
+                    int value = 0;
+                    for (int b = i; b >= j; b--) {
+                        value = 2 * value;
+                        if (testBit(chunks, b)) {
+                            value++;
+                        }
+                        if (!powerIsOne) {
+                            power = multiplier.multiply(power, power);
+                        }
+                    }
+                    power = multiplier.multiply(power, oddPowers[value / 2]);
+                    powerIsOne = false;
+                    i = j - 1;
+                }
+            }
+            result = multiplier.leave(power);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the normalized magnitude equal to {@code v}.
+     *
+     * @param v
+     *            the value
+     * @return the magnitude
+     * @requires v >= 0
+     * @ensures fromLong = v
+     */
+    static int[] fromLong(long v) {
+        assert v >= 0 : "Violation of: v >= 0";
+
+        int[] magnitude = { (int) (v % BASE), (int) (v / BASE % BASE),
+            (int) (v / BASE / BASE) };
+        return trim(magnitude);
+    }
+
+    /**
+     * Returns the value of a magnitude of at most two limbs.
+     *
+     * @param a
+     *            the magnitude
+     * @return the value
+     * @requires |a| <= 2
+     * @ensures toLong = a
+     */
+    private static long toLong(int[] a) {
+        assert a.length <= 2 : "Violation of: |a| <= 2";
+
+        long v = 0;
+        for (int i = a.length - 1; i >= 0; i--) {
+            v = v * BASE + a[i];
+        }
+        return v;
+    }
+
+    /**
+     * Returns {@code x * a + y * b} for signed cofactors whose combination is
+     * known to be non-negative.
+     *
+     * @param x
+     *            the cofactor of {@code a}
+     * @param a
+     *            the first magnitude
+     * @param y
+     *            the cofactor of {@code b}
+     * @param b
+     *            the second magnitude
+     * @return the combination
+     * @requires |x| < BASE and |y| < BASE and x * a + y * b >= 0
+     * @ensures combine = x * a + y * b
+     */
+    private static int[] combine(long x, int[] a, long y, int[] b) {
+        int n = Math.max(a.length, b.length);
+        int[] r = new int[n + 2];
+        long carry = 0;
+        for (int i = 0; i < n; i++) {
+            long t = carry;
+            if (i < a.length) {
+                t += x * a[i];
+            }
+            if (i < b.length) {
+                t += y * b[i];
+            }
+            r[i] = Math.floorMod(t, BASE);
+            carry = Math.floorDiv(t, BASE);
+        }
+        assert carry >= 0 : "Violation of: x * a + y * b >= 0";
+        r[n] = (int) (carry % BASE);
+        r[n + 1] = (int) (carry / BASE);
+        return trim(r);
+    }
+
+    /**
+     * Returns the leading digits of {@code a} taken at the same scale as
+     * {@code scale}: {@code a} and {@code scale} are both read as the two
+     * limbs at positions {@code |scale| - 2} and {@code |scale| - 1}, and
+     * divided by the power of 10 that leaves {@code scale} with at most nine
+     * digits.
+     *
+     * @param a
+     *            the magnitude to approximate
+     * @param scale
+     *            the magnitude that fixes the scale
+     * @return the leading digits of {@code a}
+     * @requires |scale| >= 2 and |a| <= |scale|
+     */
+    private static long leadingDigits(int[] a, int[] scale) {
+        int top = scale.length - 1;
+        long high = (long) scale[top] * BASE + scale[top - 1];
+        long v = 0;
+        if (top < a.length) {
+            v = a[top];
+        }
+        v *= BASE;
+        if (top - 1 < a.length) {
+            v += a[top - 1];
+        }
+        while (high >= BASE) {
+            high /= RADIX;
+            v /= RADIX;
+        }
+        return v;
+    }
+
+    /**
+     * Returns the greatest common divisor of {@code a} and {@code b} by
+     * Lehmer's algorithm: while both operands are long, their leading nine
+     * digits simulate several Euclidean steps at once, and the real operands
+     * are then advanced by one linear combination with the accumulated
+     * single-limb cofactors. Once the smaller operand fits in a
+     * {@code long}, the rest of the Euclidean algorithm runs on
+     * {@code long}s.
+     *
+     * @param a
+     *            the first magnitude
+     * @param b
+     *            the second magnitude
+     * @return the greatest common divisor, 0 if both are 0
+     * @ensures gcd = [greatest common divisor of a and b]
+     */
+    static int[] gcd(int[] a, int[] b) {
+        int[] x = a;
+        int[] y = b;
+        if (compare(x, y) < 0) {
+            x = b;
+            y = a;
+        }
+        /*
+         * Invariant: x >= y and gcd(x, y) = gcd(a, b)
+         */
+        while (y.length > 2) {
+            long xHat = leadingDigits(x, x);
+            long yHat = leadingDigits(y, x);
+            long p = 1;
+            long q = 0;
+            long r = 0;
+            long s = 1;
+            /*
+             * Knuth's Algorithm L: (p, q, r, s) are the cofactors taking
+             * (x, y) to the current pair; a quotient is accepted only while
+             * both bounds on the true quotient agree
+             */
+            while (yHat + r != 0 && yHat + s != 0) {
+                long quotient = (xHat + p) / (yHat + r);
+                if (quotient != (xHat + q) / (yHat + s)) {
+                    break;
+                }
+                long t = p - quotient * r;
+                p = r;
+                r = t;
+                t = q - quotient * s;
+                q = s;
+                s = t;
+                t = xHat - quotient * yHat;
+                xHat = yHat;
+                yHat = t;
+            }
+            if (q == 0) {
+                int[] remainder = divideAndRemainder(x, y)[1];
+                x = y;
+                y = remainder;
+            } else {
+                int[] nextX = combine(p, x, q, y);
+                y = combine(r, x, s, y);
+                x = nextX;
+            }
+        }
+        long u;
+        long v = toLong(y);
+        if (v == 0) {
+            u = 0;
+            v = 0;
+            y = x;
+        } else {
+            u = toLong(divideAndRemainder(x, y)[1]);
+        }
+        while (u != 0) {
+            long t = v % u;
+            v = u;
+            u = t;
+        }
+        int[] result = y;
+        if (v != 0) {
+            result = fromLong(v);
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@code x^e}.
+     *
+     * @param x
+     *            the base
+     * @param e
+     *            the exponent
+     * @return the power
+     * @requires e >= 0
+     * @ensures power = x^e
+     */
+    private static int[] power(int[] x, int e) {
+        int[] result = { 1 };
+        int[] square = x;
+        int k = e;
+        while (k > 0) {
+            if ((k & 1) != 0) {
+                result = multiply(result, square);
+            }
+            k >>= 1;
+            if (k > 0) {
+                square = multiply(square, square);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns an estimate of the {@code r}-th root of {@code a} from its
+     * leading digits, accurate to about fifteen significant digits.
+     *
+     * @param a
+     *            the magnitude
+     * @param r
+     *            the index of the root
+     * @return the estimate
+     * @requires a > 0 and r >= 2
+     * @ensures rootEstimate > 0
+     */
+    private static int[] rootEstimate(int[] a, int r) {
+        final int significant = 15;
+        final double ten = 10.0;
+        int top = a.length - 1;
+        double lead = a[top];
+        int scale = top * LIMB_DIGITS;
+        if (top > 0) {
+            lead = lead * BASE + a[top - 1];
+            scale -= LIMB_DIGITS;
+        }
+        double exponent = (Math.log10(lead) + scale) / r;
+        int whole = (int) Math.floor(exponent);
+        int[] estimate;
+        if (whole <= significant) {
+            estimate = fromLong((long) Math.pow(ten, exponent) + 1);
+        } else {
+            estimate = fromLong((long) Math.pow(ten,
+                    exponent - whole + significant) + 1);
+            int shift = whole - significant;
+            estimate = shiftLeft(estimate, shift / LIMB_DIGITS);
+            for (int i = 0; i < shift % LIMB_DIGITS; i++) {
+                estimate = multiplySmall(estimate, RADIX);
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the integer {@code r}-th root of {@code a} by Newton's
+     * iteration. The first step from the estimate lands at or above the root,
+     * and from there the iterates decrease until they stop at it.
+     *
+     * @param a
+     *            the magnitude
+     * @param r
+     *            the index of the root
+     * @return the root
+     * @requires r >= 2
+     * @ensures root^(r) <= a < (root + 1)^(r)
+     */
+    static int[] root(int[] a, int r) {
+        assert r >= 2 : "Violation of: r >= 2";
+
+        int[] result = a;
+        if (a.length > 0) {
+            int[] index = fromLong(r);
+            int[] x = newtonStep(a, r, index, rootEstimate(a, r));
+            int[] next = newtonStep(a, r, index, x);
+            while (compare(next, x) < 0) {
+                x = next;
+                next = newtonStep(a, r, index, x);
+            }
+            result = x;
+        }
+        return result;
+    }
+
+    /**
+     * Returns one step of the integer Newton iteration for the {@code r}-th
+     * root of {@code a}, floor(((r - 1) * x + floor(a / x^(r-1))) / r).
+     *
+     * @param a
+     *            the magnitude
+     * @param r
+     *            the index of the root
+     * @param index
+     *            the magnitude equal to {@code r}
+     * @param x
+     *            the current iterate
+     * @return the next iterate
+     * @requires r >= 2 and x > 0
+     * @ensures newtonStep >= [integer r-th root of a]
+     */
+    private static int[] newtonStep(int[] a, int r, int[] index, int[] x) {
+        int[] quotient = divideAndRemainder(a, power(x, r - 1))[0];
+        int[] sum = add(multiply(x, fromLong(r - 1L)), quotient);
+        return divideAndRemainder(sum, index)[0];
+    }
+
+}
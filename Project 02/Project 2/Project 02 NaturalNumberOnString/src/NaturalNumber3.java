@@ -3,14 +3,19 @@ import components.naturalnumber.NaturalNumberSecondary;
 
 /**
  * {@code NaturalNumber} represented as a {@code String} with implementations of
- * primary methods.
+ * primary methods. Values below {@code SMALL_LIMIT} are held inline in an
+ * {@code int} instead, so that the small numbers most clients create never
+ * allocate a {@code String}; a value moves to the {@code String} form only
+ * when it outgrows the {@code int}, and back when it shrinks again.
  *
  * @convention <pre>
- * [all characters of $this.rep are '0' through '9']  and
- * [$this.rep does not start with '0']
+ * [if $this.rep = null then 0 <= $this.small < SMALL_LIMIT
+ *  else [all characters of $this.rep are '0' through '9']  and
+ *       [$this.rep does not start with '0']  and
+ *       |$this.rep| > SMALL_DIGITS]
  * </pre>
  * @correspondence <pre>
- * this = [if $this.rep = "" then 0
+ * this = [if $this.rep = null then $this.small
  *         else the decimal number whose ordinary depiction is $this.rep]
  * </pre>
  *
@@ -24,15 +29,106 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
      */
 
     /**
-     * Representation of {@code this}.
+     * Most digits a value held inline in {@code small} can have.
+     */
+    private static final int SMALL_DIGITS = 9;
+
+    /**
+     * Values below this bound are held inline in {@code small}.
+     */
+    private static final int SMALL_LIMIT = 1_000_000_000;
+
+    /**
+     * Number of values whose depictions are shared by {@code toString}.
+     */
+    private static final int CACHED_DEPICTIONS = 1_024;
+
+    /**
+     * Shared depictions of the values below {@code CACHED_DEPICTIONS}; a
+     * {@code NaturalNumber} is mutable, so common values cannot be shared as
+     * constant objects, but their {@code String}s can.
+     */
+    private static final String[] DEPICTIONS = new String[CACHED_DEPICTIONS];
+
+    static {
+        for (int i = 0; i < CACHED_DEPICTIONS; i++) {
+            DEPICTIONS[i] = Integer.toString(i);
+        }
+    }
+
+    /**
+     * Representation of {@code this} when it is at least {@code SMALL_LIMIT},
+     * null otherwise.
      */
     private String rep;
 
+    /**
+     * Representation of {@code this} when it is below {@code SMALL_LIMIT}.
+     */
+    private int small;
+
+    /**
+     * Hash code of {@code this}, if {@code hashKnown}.
+     */
+    private int hash;
+
+    /**
+     * Whether {@code hash} is the hash code of the current value; every
+     * change of value clears it.
+     */
+    private boolean hashKnown;
+
     /**
      * Creator of initial representation.
      */
     private void createNewRep() {
-        this.rep = "";
+        this.rep = null;
+        this.small = 0;
+        this.hashKnown = false;
+    }
+
+    /**
+     * Sets {@code this} from the decimal depiction {@code s}, keeping it
+     * inline without parsing into a new object when it is short enough.
+     *
+     * @param s
+     *            the depiction
+     * @replaces this
+     * @requires [s is the ordinary depiction of a natural number]
+     * @ensures this = [the value of s]
+     */
+    private void setRepFromString(String s) {
+        this.hashKnown = false;
+        if (s.length() <= SMALL_DIGITS) {
+            int value = 0;
+            for (int i = 0; i < s.length(); i++) {
+                value = value * RADIX + (s.charAt(i) - '0');
+            }
+            this.rep = null;
+            this.small = value;
+        } else {
+            this.rep = s;
+            this.small = 0;
+        }
+    }
+
+    /**
+     * Reports the number of digits in the ordinary depiction of {@code v}.
+     *
+     * @param v
+     *            the value
+     * @return the number of digits
+     * @requires v >= 0
+     * @ensures smallDigitCount = |TO_STRING(v)|
+     */
+    private static int smallDigitCount(int v) {
+        int count = 1;
+        int rest = v / RADIX;
+        while (rest > 0) {
+            count++;
+            rest /= RADIX;
+        }
+        return count;
     }
 
     /*
@@ -56,8 +152,10 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
         assert i >= 0 : "Violation of: i >= 0";
 
         this.createNewRep();
-        //checks if i is 0
-        if (i != 0) {
+        //checks if i fits inline
+        if (i < SMALL_LIMIT) {
+            this.small = i;
+        } else {
             this.rep = Integer.toString(i);
         }
     }
@@ -73,11 +171,7 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
         assert s.matches("0|[1-9]\\d*") : ""
                 + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
 
-        this.createNewRep();
-        //checks if s is "0"
-        if (!s.equals("0")) {
-            this.rep = s;
-        }
+        this.setRepFromString(s);
     }
 
     /**
@@ -89,17 +183,32 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
     public NaturalNumber3(NaturalNumber n) {
         assert n != null : "Violation of: n is not null";
 
-        this.createNewRep();
-        /*
-         * The following call to the NaturalNumber method toString is not a
-         * violation of the kernel purity rule because the parameter n is viewed
-         * only through its declared type (the interface NaturalNumber) and
-         * therefore can be safely handled from the client's point of view.
-         */
-        String str = n.toString();
-        //checks if n is 0
-        if (!str.equals("0")) {
-            this.rep = str;
+        if (n instanceof NaturalNumber3) {
+            NaturalNumber3 localN = (NaturalNumber3) n;
+            this.rep = localN.rep;
+            this.small = localN.small;
+            this.hash = localN.hash;
+            this.hashKnown = localN.hashKnown;
+        } else if (n.canConvertToInt() && n.toInt() < SMALL_LIMIT) {
+            /*
+             * The following calls to the NaturalNumber methods canConvertToInt
+             * and toInt, like that to toString below, are not violations of
+             * the kernel purity rule because the parameter n is viewed only
+             * through its declared type (the interface NaturalNumber) and
+             * therefore can be safely handled from the client's point of
+             * view; a small value is read without building its depiction.
+             */
+            this.rep = null;
+            this.small = n.toInt();
+        } else {
+            /*
+             * The following call to the NaturalNumber method toString is not
+             * a violation of the kernel purity rule because the parameter n is
+             * viewed only through its declared type (the interface
+             * NaturalNumber) and therefore can be safely handled from the
+             * client's point of view.
+             */
+            this.setRepFromString(n.toString());
         }
     }
 
@@ -134,6 +243,9 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
          */
         NaturalNumber3 localSource = (NaturalNumber3) source;
         this.rep = localSource.rep;
+        this.small = localSource.small;
+        this.hash = localSource.hash;
+        this.hashKnown = localSource.hashKnown;
         localSource.createNewRep();
     }
 
@@ -146,22 +258,44 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
         assert 0 <= k : "Violation of: 0 <= k";
         assert k < RADIX : "Violation of: k < 10";
 
-        if (this.rep.length() > 0 || k > 0) {
+        this.hashKnown = false;
+        if (this.rep != null) {
             this.rep += k;
+        } else {
+            long value = (long) this.small * RADIX + k;
+            //checks if the value still fits inline
+            if (value < SMALL_LIMIT) {
+                this.small = (int) value;
+            } else {
+                this.rep = Long.toString(value);
+                this.small = 0;
+            }
         }
     }
 
     @Override
     public final int divideBy10() {
 
-        int lastDigit = 0;
-        int len = this.rep.length();
-        //checks if length is more than 0
-        if (len > 0) {
-            //parseint of the last char in this.rep
-            lastDigit = Integer.parseInt(this.rep.substring(len - 1));
-            //substring this.rep without the last char
-            this.rep = this.rep.substring(0, len - 1);
+        this.hashKnown = false;
+        int lastDigit;
+        if (this.rep == null) {
+            lastDigit = this.small % RADIX;
+            this.small /= RADIX;
+        } else {
+            int len = this.rep.length();
+            lastDigit = this.rep.charAt(len - 1) - '0';
+            //checks if the rest fits inline
+            if (len - 1 <= SMALL_DIGITS) {
+                int value = 0;
+                for (int i = 0; i < len - 1; i++) {
+                    value = value * RADIX + (this.rep.charAt(i) - '0');
+                }
+                this.rep = null;
+                this.small = value;
+            } else {
+                //substring this.rep without the last char
+                this.rep = this.rep.substring(0, len - 1);
+            }
         }
         return lastDigit;
 
@@ -169,6 +303,104 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
 
     @Override
     public final boolean isZero() {
-        return this.rep.equals("");
+        return this.rep == null && this.small == 0;
+    }
+
+    /*
+     * Secondary methods overridden for efficiency -----------------------------
+     */
+
+    @Override
+    public final int compareTo(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        int result;
+        if (n instanceof NaturalNumber3) {
+            NaturalNumber3 other = (NaturalNumber3) n;
+            /*
+             * Every inline value is smaller than every String one; with no
+             * leading zeros, the longer depiction is the larger number, and
+             * equal lengths compare digit by digit from the left
+             */
+            if (this.rep == null && other.rep == null) {
+                result = Integer.compare(this.small, other.small);
+            } else if (this.rep == null) {
+                result = -1;
+            } else if (other.rep == null) {
+                result = 1;
+            } else {
+                result = Integer.compare(this.rep.length(), other.rep.length());
+                if (result == 0) {
+                    result = Integer.signum(this.rep.compareTo(other.rep));
+                }
+            }
+        } else {
+            result = super.compareTo(n);
+        }
+        return result;
+    }
+
+    @Override
+    public final boolean equals(Object obj) {
+        boolean result;
+        if (obj instanceof NaturalNumber3) {
+            NaturalNumber3 other = (NaturalNumber3) obj;
+            if (this.rep == null) {
+                result = other.rep == null && this.small == other.small;
+            } else {
+                result = this.rep.equals(other.rep);
+            }
+        } else {
+            result = super.equals(obj);
+        }
+        return result;
+    }
+
+    /*
+     * The hash code NaturalNumberSecondary gives this value, so that equal
+     * values of every kernel hash alike, remembered until the value changes
+     * so that a NaturalNumber3 kept as a key pays for it only once.
+     */
+    @Override
+    public final int hashCode() {
+        if (!this.hashKnown) {
+            this.hash = super.hashCode();
+            this.hashKnown = true;
+        }
+        return this.hash;
     }
+
+    @Override
+    public final String toString() {
+        String result;
+        if (this.rep != null) {
+            result = this.rep;
+        } else if (this.small < CACHED_DEPICTIONS) {
+            result = DEPICTIONS[this.small];
+        } else {
+            result = Integer.toString(this.small);
+        }
+        return result;
+    }
+
+    /*
+     * Other methods -----------------------------------------------------------
+     */
+
+    /**
+     * Reports the number of digits in the ordinary depiction of {@code this}.
+     *
+     * @return the number of digits
+     * @ensures digitCount = |TO_STRING(this)|
+     */
+    public final int digitCount() {
+        int count;
+        if (this.rep != null) {
+            count = this.rep.length();
+        } else {
+            count = smallDigitCount(this.small);
+        }
+        return count;
+    }
+
 }
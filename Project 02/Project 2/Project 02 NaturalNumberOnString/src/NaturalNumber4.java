@@ -0,0 +1,736 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumberSecondary;
+
+/**
+ * {@code NaturalNumber} represented as a growable array of base-10^9 limbs
+ * with implementations of primary methods.
+ *
+ * <p>
+ * The decimal depiction of {@code this} is cut into groups of
+ * {@code LIMB_DIGITS} digits starting from the most significant end, so only
+ * the last limb may be partially filled. Appending or removing the least
+ * significant digit then touches only that last limb, which makes
+ * {@code multiplyBy10}, {@code divideBy10} and {@code isZero} amortized O(1)
+ * and allocation-free (except for the occasional array doubling).
+ *
+ * @convention <pre>
+ * 0 <= $this.length <= |$this.limbs|  and
+ * [if $this.length = 0 then $this.tailDigits = 0
+ *  else 1 <= $this.tailDigits <= LIMB_DIGITS]  and
+ * for all i: integer where (0 <= i < $this.length - 1)
+ *   (0 <= $this.limbs[i] < 10^LIMB_DIGITS)  and
+ * [if $this.length > 0 then
+ *   0 <= $this.limbs[$this.length - 1] < 10^$this.tailDigits]  and
+ * [the first digit of the depiction of $this.limbs[0, $this.length) is
+ *  not '0']
+ * </pre>
+ * @correspondence <pre>
+ * this = [the decimal number whose ordinary depiction is the concatenation of
+ *         $this.limbs[0, $this.length - 1) each written with exactly
+ *         LIMB_DIGITS digits, followed by $this.limbs[$this.length - 1]
+ *         written with exactly $this.tailDigits digits, or 0 if
+ *         $this.length = 0]
+ * </pre>
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public class NaturalNumber4 extends NaturalNumberSecondary {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Number of decimal digits held by a full limb.
+     */
+    private static final int LIMB_DIGITS = 9;
+
+    /**
+     * Powers of ten from 10^0 through 10^LIMB_DIGITS.
+     */
+    private static final int[] POWERS_OF_TEN = { 1, 10, 100, 1_000, 10_000,
+        100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000 };
+
+    /**
+     * Initial capacity of the limb array.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Pool that runs the sub-products of large multiplications, or null while
+     * {@code multiply} is sequential; shared by all instances.
+     */
+    private static volatile ForkJoinPool multiplyPool = null;
+
+    /**
+     * Limbs of {@code this}, most significant first.
+     */
+    private int[] limbs;
+
+    /**
+     * Number of limbs in use.
+     */
+    private int length;
+
+    /**
+     * Number of decimal digits held by the last limb in use.
+     */
+    private int tailDigits;
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.limbs = new int[INITIAL_CAPACITY];
+        this.length = 0;
+        this.tailDigits = 0;
+    }
+
+    /**
+     * Makes room for at least one more limb, doubling the limb array if it is
+     * full.
+     *
+     * @updates this.limbs
+     * @ensures $this.length < |$this.limbs|
+     */
+    private void ensureRoomForLimb() {
+        if (this.length == this.limbs.length) {
+            int[] larger = new int[2 * this.limbs.length];
+            System.arraycopy(this.limbs, 0, larger, 0, this.length);
+            this.limbs = larger;
+        }
+    }
+
+    /**
+     * Sets {@code this} from the decimal depiction {@code s}, cutting it into
+     * limbs directly.
+     *
+     * @param s
+     *            the decimal depiction to read
+     * @replaces this
+     * @requires there exists n: NATURAL (s = TO_STRING(n))
+     * @ensures s = TO_STRING(this)
+     */
+    private void setRepFromString(String s) {
+        this.createNewRep();
+        if (!s.equals("0")) {
+            int digits = s.length();
+            int count = (digits + LIMB_DIGITS - 1) / LIMB_DIGITS;
+            if (count > this.limbs.length) {
+                this.limbs = new int[count];
+            }
+            int pos = 0;
+            for (int i = 0; i < count; i++) {
+                int end = Math.min(pos + LIMB_DIGITS, digits);
+                int limb = 0;
+                for (int j = pos; j < end; j++) {
+                    limb = limb * RADIX + (s.charAt(j) - '0');
+                }
+                this.limbs[i] = limb;
+                this.tailDigits = end - pos;
+                pos = end;
+            }
+            this.length = count;
+        }
+    }
+
+    /**
+     * Sets {@code this} to {@code i}, splitting its digits into limbs with
+     * arithmetic rather than through {@code Integer.toString}.
+     *
+     * @param i
+     *            the value to take
+     * @replaces this
+     * @requires i >= 0
+     * @ensures this = i
+     */
+    private void setRepFromInt(int i) {
+        this.createNewRep();
+        if (i > 0) {
+            int digits = 1;
+            while (digits < LIMB_DIGITS && i >= POWERS_OF_TEN[digits]) {
+                digits++;
+            }
+            if (digits == LIMB_DIGITS && i >= POWERS_OF_TEN[LIMB_DIGITS]) {
+                //an int has at most LIMB_DIGITS + 1 digits
+                this.limbs[0] = i / RADIX;
+                this.limbs[1] = i % RADIX;
+                this.length = 2;
+                this.tailDigits = 1;
+            } else {
+                this.limbs[0] = i;
+                this.length = 1;
+                this.tailDigits = digits;
+            }
+        }
+    }
+
+    /**
+     * Sets {@code this} to the number with {@code digits} digits whose first
+     * digit is {@code first} and whose other digits are all {@code rest}.
+     * This is how {@code increment} and {@code decrement} re-cut the limbs
+     * when the number of digits changes (at 10^k and 10^k - 1), the only
+     * cases in which the first limb moves.
+     *
+     * @param digits
+     *            the number of digits
+     * @param first
+     *            the first digit
+     * @param rest
+     *            every other digit
+     * @replaces this
+     * @requires digits > 0 and 0 < first <= 9 and 0 <= rest <= 9
+     * @ensures this = [the number depicted by first followed by digits - 1
+     *          copies of rest]
+     */
+    private void setRepToDigitRun(int digits, int first, int rest) {
+        final int nines = 9;
+        int count = (digits + LIMB_DIGITS - 1) / LIMB_DIGITS;
+        int tail = digits - (count - 1) * LIMB_DIGITS;
+        if (count > this.limbs.length) {
+            this.limbs = new int[2 * count];
+        }
+        //a limb of w copies of rest is rest * (10^w - 1) / 9
+        int fullLimb = rest * ((POWERS_OF_TEN[LIMB_DIGITS] - 1) / nines);
+        for (int i = 1; i < count - 1; i++) {
+            this.limbs[i] = fullLimb;
+        }
+        if (count > 1) {
+            this.limbs[count - 1] = rest * ((POWERS_OF_TEN[tail] - 1) / nines);
+        }
+        int firstWidth = LIMB_DIGITS;
+        if (count == 1) {
+            firstWidth = tail;
+        }
+        this.limbs[0] = first * POWERS_OF_TEN[firstWidth - 1]
+                + rest * ((POWERS_OF_TEN[firstWidth - 1] - 1) / nines);
+        this.length = count;
+        this.tailDigits = tail;
+    }
+
+    /**
+     * Sets {@code this} to {@code n}, copying the limbs directly when
+     * {@code n} is also a {@code NaturalNumber4}.
+     *
+     * @param n
+     *            the value to take
+     * @replaces this
+     * @ensures this = n
+     */
+    private void setRepFromNaturalNumber(NaturalNumber n) {
+        if (n instanceof NaturalNumber4) {
+            NaturalNumber4 local = (NaturalNumber4) n;
+            this.limbs = Arrays.copyOf(local.limbs,
+                    Math.max(local.length, INITIAL_CAPACITY));
+            this.length = local.length;
+            this.tailDigits = local.tailDigits;
+        } else {
+            /*
+             * The following call to the NaturalNumber method toString is not a
+             * violation of the kernel purity rule because the parameter n is
+             * viewed only through its declared type (the interface
+             * NaturalNumber) and therefore can be safely handled from the
+             * client's point of view.
+             */
+            this.setRepFromString(n.toString());
+        }
+    }
+
+    /**
+     * Returns {@code this} as a normalized little-endian magnitude for
+     * {@code LimbArithmetic}, realigning the limbs so that the least
+     * significant one is full.
+     *
+     * @return the magnitude of {@code this}
+     * @ensures [toMagnitude is the normalized magnitude equal to this]
+     */
+    private int[] toMagnitude() {
+        int[] magnitude = new int[this.length];
+        if (this.length > 0) {
+            int last = this.length - 1;
+            int low = POWERS_OF_TEN[LIMB_DIGITS - this.tailDigits];
+            int high = POWERS_OF_TEN[this.tailDigits];
+            /*
+             * Aligned limb j takes the high digits of ragged limb last - j and
+             * the low digits of ragged limb last - j - 1
+             */
+            for (int j = 0; j < this.length; j++) {
+                int limb;
+                if (j == 0) {
+                    limb = this.limbs[last];
+                } else {
+                    limb = this.limbs[last - j] / low;
+                }
+                if (j < last) {
+                    limb += (this.limbs[last - j - 1] % low) * high;
+                }
+                magnitude[j] = limb;
+            }
+        }
+        return LimbArithmetic.trim(magnitude);
+    }
+
+    /**
+     * Sets {@code this} to the value of a normalized little-endian magnitude,
+     * cutting its digits back into limbs from the most significant end.
+     *
+     * @param magnitude
+     *            the magnitude to take the value from
+     * @replaces this
+     * @ensures this = [the value of magnitude]
+     */
+    private void setFromMagnitude(int[] magnitude) {
+        int top = magnitude.length - 1;
+        if (top < 0) {
+            this.createNewRep();
+        } else {
+            int topDigits = 1;
+            while (topDigits < LIMB_DIGITS
+                    && magnitude[top] >= POWERS_OF_TEN[topDigits]) {
+                topDigits++;
+            }
+            int digits = top * LIMB_DIGITS + topDigits;
+            int count = (digits + LIMB_DIGITS - 1) / LIMB_DIGITS;
+            int tail = digits - (count - 1) * LIMB_DIGITS;
+            int low = POWERS_OF_TEN[tail];
+            int high = POWERS_OF_TEN[LIMB_DIGITS - tail];
+            int[] newLimbs = new int[Math.max(count, INITIAL_CAPACITY)];
+            /*
+             * Ragged limb count - 1 - j takes the high digits of aligned limb
+             * j - 1 and the low digits of aligned limb j
+             */
+            for (int j = 0; j < count; j++) {
+                int limb;
+                if (j == 0) {
+                    limb = magnitude[0] % low;
+                } else {
+                    limb = magnitude[j - 1] / low;
+                    if (j <= top) {
+                        limb += (magnitude[j] % low) * high;
+                    }
+                }
+                newLimbs[count - 1 - j] = limb;
+            }
+            this.limbs = newLimbs;
+            this.length = count;
+            this.tailDigits = tail;
+        }
+    }
+
+    /**
+     * Returns a new {@code NaturalNumber4} with the value of a normalized
+     * little-endian magnitude computed by {@code LimbArithmetic}.
+     *
+     * @param magnitude
+     *            the magnitude to take the value from
+     * @return the new number
+     * @ensures fromMagnitude = [the value of magnitude]
+     */
+    static NaturalNumber4 fromMagnitude(int[] magnitude) {
+        NaturalNumber4 n = new NaturalNumber4();
+        n.setFromMagnitude(magnitude);
+        return n;
+    }
+
+    /**
+     * Returns the magnitude of {@code n} for {@code LimbArithmetic} and other
+     * limb-based code in this package.
+     *
+     * @param n
+     *            the number to read
+     * @return the magnitude of {@code n}
+     * @ensures [magnitudeOf is the normalized magnitude equal to n]
+     */
+    static int[] magnitudeOf(NaturalNumber n) {
+        NaturalNumber4 local;
+        if (n instanceof NaturalNumber4) {
+            local = (NaturalNumber4) n;
+        } else {
+            local = new NaturalNumber4(n);
+        }
+        return local.toMagnitude();
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public NaturalNumber4() {
+        this.createNewRep();
+    }
+
+    /**
+     * Constructor from {@code int}.
+     *
+     * @param i
+     *            {@code int} to initialize from
+     */
+    public NaturalNumber4(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+
+        this.setRepFromInt(i);
+    }
+
+    /**
+     * Constructor from {@code String}.
+     *
+     * @param s
+     *            {@code String} to initialize from
+     */
+    public NaturalNumber4(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+
+        this.setRepFromString(s);
+    }
+
+    /**
+     * Constructor from {@code NaturalNumber}.
+     *
+     * @param n
+     *            {@code NaturalNumber} to initialize from
+     */
+    public NaturalNumber4(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        this.setRepFromNaturalNumber(n);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final NaturalNumber newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(NaturalNumber source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof NaturalNumber4 : ""
+                + "Violation of: source is of dynamic type NaturalNumber4";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        NaturalNumber4 localSource = (NaturalNumber4) source;
+        this.limbs = localSource.limbs;
+        this.length = localSource.length;
+        this.tailDigits = localSource.tailDigits;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void multiplyBy10(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k < RADIX : "Violation of: k < 10";
+
+        if (this.length == 0) {
+            //a leading 0 is never stored
+            if (k > 0) {
+                this.limbs[0] = k;
+                this.length = 1;
+                this.tailDigits = 1;
+            }
+        } else if (this.tailDigits == LIMB_DIGITS) {
+            //last limb is full, so k starts a new one
+            this.ensureRoomForLimb();
+            this.limbs[this.length] = k;
+            this.length++;
+            this.tailDigits = 1;
+        } else {
+            int last = this.length - 1;
+            this.limbs[last] = this.limbs[last] * RADIX + k;
+            this.tailDigits++;
+        }
+    }
+
+    @Override
+    public final int divideBy10() {
+        int lastDigit = 0;
+        if (this.length > 0) {
+            int last = this.length - 1;
+            lastDigit = this.limbs[last] % RADIX;
+            this.limbs[last] /= RADIX;
+            this.tailDigits--;
+            //drops the last limb once its digits are used up
+            if (this.tailDigits == 0) {
+                this.length--;
+                if (this.length > 0) {
+                    this.tailDigits = LIMB_DIGITS;
+                }
+            }
+        }
+        return lastDigit;
+    }
+
+    @Override
+    public final boolean isZero() {
+        return this.length == 0;
+    }
+
+    /*
+     * Parallelism control ----------------------------------------------------
+     */
+
+    /**
+     * Sets how many threads {@code multiply} may use for the sub-products of
+     * large operands, for all {@code NaturalNumber4}s. With 1 (the initial
+     * setting) {@code multiply} runs entirely on the calling thread. Products
+     * are the same whatever the setting.
+     *
+     * @param parallelism
+     *            the largest number of threads to use
+     * @requires parallelism >= 1
+     * @ensures multiplyParallelism = parallelism
+     */
+    public static void setMultiplyParallelism(int parallelism) {
+        assert parallelism >= 1 : "Violation of: parallelism >= 1";
+
+        /*
+         * A replaced pool is not shut down: multiplications already running on
+         * it finish there, and its idle worker threads then time out
+         */
+        if (parallelism == 1) {
+            multiplyPool = null;
+        } else {
+            multiplyPool = new ForkJoinPool(parallelism);
+        }
+    }
+
+    /**
+     * Reports how many threads {@code multiply} may use.
+     *
+     * @return the parallelism set by {@code setMultiplyParallelism}
+     */
+    public static int multiplyParallelism() {
+        ForkJoinPool pool = multiplyPool;
+        int parallelism = 1;
+        if (pool != null) {
+            parallelism = pool.getParallelism();
+        }
+        return parallelism;
+    }
+
+    /**
+     * Returns the pool set by {@code setMultiplyParallelism}, for other
+     * limb-based code in this package that wants to follow the same setting.
+     *
+     * @return the pool, or null while multiplication is sequential
+     */
+    static ForkJoinPool multiplyPoolOrNull() {
+        return multiplyPool;
+    }
+
+    /*
+     * Secondary methods overridden for efficiency -----------------------------
+     */
+
+    @Override
+    public final String toString() {
+        String result = "0";
+        if (this.length > 0) {
+            int digits = (this.length - 1) * LIMB_DIGITS + this.tailDigits;
+            char[] depiction = new char[digits];
+            int end = digits;
+            //writes each limb right to left into its fixed-width slot
+            for (int i = this.length - 1; i >= 0; i--) {
+                int width = LIMB_DIGITS;
+                if (i == this.length - 1) {
+                    width = this.tailDigits;
+                }
+                int limb = this.limbs[i];
+                for (int j = 0; j < width; j++) {
+                    end--;
+                    depiction[end] = (char) ('0' + limb % RADIX);
+                    limb /= RADIX;
+                }
+            }
+            result = new String(depiction);
+        }
+        return result;
+    }
+
+    @Override
+    public final void increment() {
+        if (this.length == 0) {
+            this.limbs[0] = 1;
+            this.length = 1;
+            this.tailDigits = 1;
+        } else {
+            int i = this.length - 1;
+            int limit = POWERS_OF_TEN[this.tailDigits];
+            //carries through limbs that are all 9s, without allocating
+            while (i >= 0 && this.limbs[i] == limit - 1) {
+                this.limbs[i] = 0;
+                limit = POWERS_OF_TEN[LIMB_DIGITS];
+                i--;
+            }
+            if (i >= 0) {
+                this.limbs[i]++;
+            } else {
+                //every digit was 9, so this is now 10^(old digit count)
+                int digits = (this.length - 1) * LIMB_DIGITS + this.tailDigits;
+                this.setRepToDigitRun(digits + 1, 1, 0);
+            }
+        }
+    }
+
+    @Override
+    public final void decrement() {
+        assert !this.isZero() : "Violation of: this > 0";
+
+        int i = this.length - 1;
+        int limit = POWERS_OF_TEN[this.tailDigits];
+        //borrows through limbs that are all 0s, without allocating
+        while (this.limbs[i] == 0) {
+            this.limbs[i] = limit - 1;
+            limit = POWERS_OF_TEN[LIMB_DIGITS];
+            i--;
+        }
+        this.limbs[i]--;
+        int firstWidth = LIMB_DIGITS;
+        if (this.length == 1) {
+            firstWidth = this.tailDigits;
+        }
+        if (this.limbs[0] < POWERS_OF_TEN[firstWidth - 1]) {
+            //this was 10^k, so it is now k 9s (or 0 if k = 0)
+            final int nine = 9;
+            int digits = (this.length - 1) * LIMB_DIGITS + this.tailDigits;
+            if (digits == 1) {
+                this.length = 0;
+                this.tailDigits = 0;
+            } else {
+                this.setRepToDigitRun(digits - 1, nine, nine);
+            }
+        }
+    }
+
+    @Override
+    public final void setFromInt(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+
+        this.setRepFromInt(i);
+    }
+
+    @Override
+    public final void setFromString(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+
+        this.setRepFromString(s);
+    }
+
+    @Override
+    public final void copyFrom(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        if (n != this) {
+            this.setRepFromNaturalNumber(n);
+        }
+    }
+
+    @Override
+    public final void multiply(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        int[] a = this.toMagnitude();
+        int[] b = magnitudeOf(n);
+        ForkJoinPool pool = multiplyPool;
+        if (pool == null) {
+            this.setFromMagnitude(LimbArithmetic.multiply(a, b));
+        } else {
+            this.setFromMagnitude(LimbArithmetic.parallelMultiply(a, b, pool));
+        }
+    }
+
+    @Override
+    public final NaturalNumber divide(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert !n.isZero() : "Violation of: n > 0";
+
+        int[][] quotientAndRemainder = LimbArithmetic
+                .divideAndRemainder(this.toMagnitude(), magnitudeOf(n));
+        NaturalNumber4 remainder = (NaturalNumber4) this.newInstance();
+        remainder.setFromMagnitude(quotientAndRemainder[1]);
+        this.setFromMagnitude(quotientAndRemainder[0]);
+        return remainder;
+    }
+
+    @Override
+    public final void root(int r) {
+        assert r >= 2 : "Violation of: r >= 2";
+
+        this.setFromMagnitude(LimbArithmetic.root(this.toMagnitude(), r));
+    }
+
+    /*
+     * Other methods -----------------------------------------------------------
+     */
+
+    /**
+     * Raises {@code this} to the power {@code p} modulo {@code m}, without
+     * ever building {@code this^p} itself.
+     *
+     * @param p
+     *            the exponent
+     * @param m
+     *            the modulus
+     * @updates this
+     * @requires m > 0
+     * @ensures this = #this^(p) mod m
+     */
+    public final void modPow(NaturalNumber p, NaturalNumber m) {
+        assert p != null : "Violation of: p is not null";
+        assert m != null : "Violation of: m is not null";
+        assert !m.isZero() : "Violation of: m > 0";
+
+        this.setFromMagnitude(LimbArithmetic.modPow(this.toMagnitude(),
+                magnitudeOf(p), magnitudeOf(m)));
+    }
+
+    /**
+     * Replaces {@code this} with the greatest common divisor of {@code this}
+     * and {@code n}, using Lehmer's algorithm on the limbs.
+     *
+     * @param n
+     *            the other number
+     * @updates this
+     * @ensures <pre>
+     * this = [if #this = 0 and n = 0 then 0
+     *         else the greatest common divisor of #this and n]
+     * </pre>
+     */
+    public final void gcd(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        this.setFromMagnitude(
+                LimbArithmetic.gcd(this.toMagnitude(), magnitudeOf(n)));
+    }
+
+}
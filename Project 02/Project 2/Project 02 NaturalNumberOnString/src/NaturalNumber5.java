@@ -0,0 +1,535 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumberSecondary;
+
+/**
+ * {@code NaturalNumber} whose decimal digits, once there are many of them,
+ * live in a memory-mapped temporary file rather than on the heap, one digit
+ * per byte, with implementations of primary methods.
+ *
+ * <p>
+ * The digits are kept most significant first in a window of the buffer, with
+ * free room on both sides: {@code multiplyBy10} and {@code divideBy10} work at
+ * the end of the window, and a carry out of {@code add} moves its start.
+ * {@code add}, {@code subtract}, {@code compareTo} and {@code copyFrom} are
+ * overridden as single sequential passes over the digits, so the heap
+ * used by them does not grow with the number of digits. When the window runs
+ * out of room, the digits are copied into a new buffer of twice the size.
+ *
+ * <p>
+ * Zero holds no buffer of its own, and a buffer smaller than
+ * {@code MAPPING_THRESHOLD} bytes is an ordinary heap buffer, so that the
+ * many small values a program keeps alive do not each hold a mapping; the
+ * operating system limits how many a process may have. A larger buffer is a
+ * mapping backed by a temporary file that is deleted as soon as it has been
+ * mapped; its pages belong to the operating system's file cache and are
+ * released when the mapping is garbage collected. {@code clear} keeps the
+ * buffer for the digits to come, and {@code transferFrom} hands it over
+ * rather than making a new one. A single buffer holds at most
+ * {@code Integer.MAX_VALUE} bytes, which bounds the number of digits.
+ *
+ * @convention <pre>
+ * 0 <= $this.start <= $this.end <= $this.digits.capacity  and
+ * [all bytes of $this.digits in [$this.start, $this.end) are 0 through 9]  and
+ * [if $this.start < $this.end then the byte at $this.start is not 0]
+ * </pre>
+ * @correspondence <pre>
+ * this = [the decimal number whose digits, most significant first, are the
+ *         bytes of $this.digits in [$this.start, $this.end), or 0 if there are
+ *         none]
+ * </pre>
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public class NaturalNumber5 extends NaturalNumberSecondary {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Smallest size of a new buffer, in bytes.
+     */
+    private static final int MIN_CAPACITY = 32;
+
+    /**
+     * Size from which a new buffer is memory-mapped rather than on the heap,
+     * in bytes.
+     */
+    private static final int MAPPING_THRESHOLD = 4_096;
+
+    /**
+     * Free bytes left in front of the digits of a cleared buffer, for
+     * carries.
+     */
+    private static final int INITIAL_HEADROOM = 64;
+
+    /**
+     * Largest size of a buffer, in bytes.
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE;
+
+    /**
+     * Buffer of no bytes, shared by every zero that has never held digits;
+     * it is never written, since any digit needs a larger buffer.
+     */
+    private static final ByteBuffer NO_DIGITS = ByteBuffer.allocate(0);
+
+    /**
+     * Digits of {@code this}, on the heap or memory-mapped.
+     */
+    private ByteBuffer digits;
+
+    /**
+     * Position of the most significant digit.
+     */
+    private int start;
+
+    /**
+     * Position one past the least significant digit.
+     */
+    private int end;
+
+    /**
+     * Returns a new read-write mapping of {@code capacity} zero bytes, backed
+     * by a temporary file that is deleted right away.
+     *
+     * @param capacity
+     *            the size of the mapping
+     * @return the mapping
+     * @requires capacity > 0
+     */
+    private static MappedByteBuffer map(int capacity) {
+        MappedByteBuffer buffer;
+        try {
+            Path file = Files.createTempFile("naturalnumber", ".digits");
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                        capacity);
+            } finally {
+                /*
+                 * The mapping stays valid after the channel is closed; where
+                 * the file system will not delete a mapped file, it goes when
+                 * the JVM exits
+                 */
+                try {
+                    Files.delete(file);
+                } catch (IOException e) {
+                    file.toFile().deleteOnExit();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(
+                    "Cannot map digits of " + NaturalNumber5.class, e);
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns a new buffer of {@code capacity} zero bytes: a heap buffer if it
+     * is smaller than {@code MAPPING_THRESHOLD}, and a mapping otherwise.
+     *
+     * @param capacity
+     *            the size of the buffer
+     * @return the buffer
+     * @requires capacity > 0
+     */
+    private static ByteBuffer allocate(int capacity) {
+        ByteBuffer buffer;
+        if (capacity < MAPPING_THRESHOLD) {
+            buffer = ByteBuffer.allocate(capacity);
+        } else {
+            buffer = map(capacity);
+        }
+        return buffer;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.digits = NO_DIGITS;
+        this.start = 0;
+        this.end = 0;
+    }
+
+    /**
+     * Sets {@code this} to zero, keeping the current buffer.
+     *
+     * @replaces this
+     * @ensures this = 0
+     */
+    private void emptyRep() {
+        this.start = Math.min(INITIAL_HEADROOM, this.digits.capacity());
+        this.end = this.start;
+    }
+
+    /**
+     * Returns the number of digits of {@code this}.
+     *
+     * @return the number of digits, 0 for zero
+     */
+    private int digitCount() {
+        return this.end - this.start;
+    }
+
+    /**
+     * Makes room for at least {@code front} more digits in front of the
+     * current ones and {@code back} more after them, copying the digits into
+     * a larger buffer if needed.
+     *
+     * @param front
+     *            the room needed in front
+     * @param back
+     *            the room needed after
+     * @updates $this.digits, $this.start, $this.end
+     * @requires front >= 0 and back >= 0
+     * @ensures front <= $this.start and
+     *          $this.end + back <= $this.digits.capacity and this = #this
+     */
+    private void ensureRoom(int front, int back) {
+        if (this.start < front
+                || this.digits.capacity() - this.end < back) {
+            int count = this.digitCount();
+            long needed = (long) count + front + back;
+            long capacity = Math.max(2 * needed, MIN_CAPACITY);
+            capacity = Math.min(capacity, MAX_CAPACITY);
+            assert needed <= capacity : ""
+                    + "Violation of: [number of digits fits in one buffer]";
+            int newStart = front + (int) ((capacity - needed) / 2);
+            ByteBuffer larger = allocate((int) capacity);
+            ByteBuffer source = this.digits.duplicate();
+            source.limit(this.end);
+            source.position(this.start);
+            larger.position(newStart);
+            larger.put(source);
+            this.digits = larger;
+            this.start = newStart;
+            this.end = newStart + count;
+        }
+    }
+
+    /**
+     * Sets {@code this} to the value of the decimal depiction {@code s}.
+     *
+     * @param s
+     *            the depiction
+     * @replaces this
+     * @requires [s is the ordinary depiction of a natural number]
+     * @ensures this = [the value of s]
+     */
+    private void setRepFromString(String s) {
+        this.emptyRep();
+        if (!s.equals("0")) {
+            this.ensureRoom(0, s.length());
+            for (int i = 0; i < s.length(); i++) {
+                this.digits.put(this.end, (byte) (s.charAt(i) - '0'));
+                this.end++;
+            }
+        }
+    }
+
+    /**
+     * Sets {@code this} to the value of {@code n} by copying its digits in
+     * one pass.
+     *
+     * @param n
+     *            the number to copy
+     * @replaces this
+     * @requires n is not this
+     * @ensures this = n
+     */
+    private void setRepFromNaturalNumber5(NaturalNumber5 n) {
+        int count = n.digitCount();
+        this.emptyRep();
+        this.ensureRoom(0, count);
+        ByteBuffer source = n.digits.duplicate();
+        source.limit(n.end);
+        source.position(n.start);
+        ByteBuffer target = this.digits.duplicate();
+        target.position(this.start);
+        target.put(source);
+        this.end = this.start + count;
+    }
+
+    /**
+     * Returns {@code n} as a {@code NaturalNumber5}, converting it through its
+     * depiction only if it is of some other type.
+     *
+     * @param n
+     *            the number to read
+     * @return a {@code NaturalNumber5} equal to {@code n}
+     * @ensures fiveOf = n
+     */
+    private static NaturalNumber5 fiveOf(NaturalNumber n) {
+        NaturalNumber5 local;
+        if (n instanceof NaturalNumber5) {
+            local = (NaturalNumber5) n;
+        } else {
+            local = new NaturalNumber5(n);
+        }
+        return local;
+    }
+
+    /**
+     * Drops leading zero digits.
+     *
+     * @updates $this.start
+     * @ensures [the byte at $this.start is not 0, or $this.start = $this.end]
+     *          and this = #this
+     */
+    private void stripLeadingZeros() {
+        while (this.start < this.end && this.digits.get(this.start) == 0) {
+            this.start++;
+        }
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public NaturalNumber5() {
+        this.createNewRep();
+    }
+
+    /**
+     * Constructor from {@code int}.
+     *
+     * @param i
+     *            {@code int} to initialize from
+     */
+    public NaturalNumber5(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+
+        this.createNewRep();
+        this.setRepFromString(Integer.toString(i));
+    }
+
+    /**
+     * Constructor from {@code String}.
+     *
+     * @param s
+     *            {@code String} to initialize from
+     */
+    public NaturalNumber5(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+
+        this.createNewRep();
+        this.setRepFromString(s);
+    }
+
+    /**
+     * Constructor from {@code NaturalNumber}.
+     *
+     * @param n
+     *            {@code NaturalNumber} to initialize from
+     */
+    public NaturalNumber5(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        this.createNewRep();
+        if (n instanceof NaturalNumber5) {
+            this.setRepFromNaturalNumber5((NaturalNumber5) n);
+        } else {
+            /*
+             * The following call to the NaturalNumber method toString is not
+             * a violation of the kernel purity rule because the parameter n is
+             * viewed only through its declared type (the interface
+             * NaturalNumber) and therefore can be safely handled from the
+             * client's point of view.
+             */
+            this.setRepFromString(n.toString());
+        }
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final NaturalNumber newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.emptyRep();
+    }
+
+    @Override
+    public final void transferFrom(NaturalNumber source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof NaturalNumber5 : ""
+                + "Violation of: source is of dynamic type NaturalNumber5";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        NaturalNumber5 localSource = (NaturalNumber5) source;
+        this.digits = localSource.digits;
+        this.start = localSource.start;
+        this.end = localSource.end;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void multiplyBy10(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k < RADIX : "Violation of: k < 10";
+
+        if (this.end > this.start || k > 0) {
+            this.ensureRoom(0, 1);
+            this.digits.put(this.end, (byte) k);
+            this.end++;
+        }
+    }
+
+    @Override
+    public final int divideBy10() {
+        int lastDigit = 0;
+        if (this.end > this.start) {
+            this.end--;
+            lastDigit = this.digits.get(this.end);
+        }
+        return lastDigit;
+    }
+
+    @Override
+    public final boolean isZero() {
+        return this.end == this.start;
+    }
+
+    /*
+     * Secondary methods overridden for efficiency -----------------------------
+     */
+
+    @Override
+    public final String toString() {
+        String result = "0";
+        int count = this.digitCount();
+        if (count > 0) {
+            char[] depiction = new char[count];
+            for (int i = 0; i < count; i++) {
+                depiction[i] = (char) ('0' + this.digits.get(this.start + i));
+            }
+            result = new String(depiction);
+        }
+        return result;
+    }
+
+    @Override
+    public final void copyFrom(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        if (n != this) {
+            if (n instanceof NaturalNumber5) {
+                this.setRepFromNaturalNumber5((NaturalNumber5) n);
+            } else {
+                this.setRepFromString(n.toString());
+            }
+        }
+    }
+
+    @Override
+    public final int compareTo(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        int result;
+        if (n instanceof NaturalNumber5) {
+            NaturalNumber5 other = (NaturalNumber5) n;
+            result = Integer.compare(this.digitCount(), other.digitCount());
+            int i = 0;
+            while (result == 0 && i < this.digitCount()) {
+                result = Integer.compare(this.digits.get(this.start + i),
+                        other.digits.get(other.start + i));
+                i++;
+            }
+        } else {
+            result = super.compareTo(n);
+        }
+        return result;
+    }
+
+    @Override
+    public final void add(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        NaturalNumber5 other = fiveOf(n);
+        int thisCount = this.digitCount();
+        int otherCount = other.digitCount();
+        int count = Math.max(thisCount, otherCount) + 1;
+        this.ensureRoom(count - thisCount, 0);
+        /*
+         * One pass from the least significant digit; each position is read
+         * before it is written, so n may be this
+         */
+        int carry = 0;
+        for (int i = 1; i <= count; i++) {
+            int sum = carry;
+            if (i <= thisCount) {
+                sum += this.digits.get(this.end - i);
+            }
+            if (i <= otherCount) {
+                sum += other.digits.get(other.end - i);
+            }
+            this.digits.put(this.end - i, (byte) (sum % RADIX));
+            carry = sum / RADIX;
+        }
+        this.start = this.end - count;
+        this.stripLeadingZeros();
+    }
+
+    @Override
+    public final void subtract(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert this.compareTo(n) >= 0 : "Violation of: this >= n";
+
+        NaturalNumber5 other = fiveOf(n);
+        int count = this.digitCount();
+        int otherCount = other.digitCount();
+        /*
+         * One pass from the least significant digit; each position is read
+         * before it is written, so n may be this
+         */
+        int borrow = 0;
+        for (int i = 1; i <= count; i++) {
+            int difference = this.digits.get(this.end - i) - borrow;
+            if (i <= otherCount) {
+                difference -= other.digits.get(other.end - i);
+            }
+            borrow = 0;
+            if (difference < 0) {
+                difference += RADIX;
+                borrow = 1;
+            }
+            this.digits.put(this.end - i, (byte) difference);
+        }
+        this.stripLeadingZeros();
+    }
+
+}
@@ -0,0 +1,203 @@
+import java.util.Collection;
+
+import components.naturalnumber.NaturalNumber;
+
+/**
+ * Running sum of many {@code NaturalNumber}s that defers carries.
+ *
+ * <p>
+ * The sum is kept in base-10^9 slots of type {@code long}, least significant
+ * first. {@code add} only adds each limb of the addend into its slot, so it
+ * costs time in the length of the addend and not of the sum, and carries are
+ * propagated once, when the result is asked for. A slot gains less than 10^9
+ * per addition, so carries also have to be propagated after about 4 billion
+ * additions to keep the slots from overflowing; this happens automatically.
+ *
+ * <p>
+ * Accumulators can be merged, which is how {@code parallelSumAll} combines
+ * the partial sums of a parallel stream.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public final class NaturalNumberAccumulator {
+
+    /**
+     * Radix of a slot once carries have been propagated.
+     */
+    private static final long BASE = LimbArithmetic.BASE;
+
+    /**
+     * Number of additions after which carries must be propagated, so that no
+     * slot can exceed {@code Long.MAX_VALUE}.
+     */
+    private static final long MAX_PENDING = 1L << 32;
+
+    /**
+     * Initial number of slots.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Slots of the sum, least significant first; a slot may exceed
+     * {@code BASE} until carries are propagated.
+     */
+    private long[] slots;
+
+    /**
+     * Number of slots in use.
+     */
+    private int length;
+
+    /**
+     * Upper bound on the number of values below {@code BASE} added into any
+     * one slot since carries were last propagated.
+     */
+    private long pending;
+
+    /**
+     * Constructor for an accumulator holding 0.
+     */
+    public NaturalNumberAccumulator() {
+        this.slots = new long[INITIAL_CAPACITY];
+        this.length = 0;
+        this.pending = 0;
+    }
+
+    /**
+     * Makes room for at least {@code count} slots.
+     *
+     * @param count
+     *            the number of slots needed
+     */
+    private void ensureCapacity(int count) {
+        if (count > this.slots.length) {
+            long[] larger = new long[Math.max(count, 2 * this.slots.length)];
+            System.arraycopy(this.slots, 0, larger, 0, this.length);
+            this.slots = larger;
+        }
+        this.length = Math.max(this.length, count);
+    }
+
+    /**
+     * Propagates all pending carries, leaving every slot below {@code BASE}.
+     */
+    private void normalize() {
+        long carry = 0;
+        for (int i = 0; i < this.length; i++) {
+            long v = this.slots[i] + carry;
+            this.slots[i] = v % BASE;
+            carry = v / BASE;
+        }
+        while (carry > 0) {
+            this.ensureCapacity(this.length + 1);
+            this.slots[this.length - 1] = carry % BASE;
+            carry /= BASE;
+        }
+        while (this.length > 0 && this.slots[this.length - 1] == 0) {
+            this.length--;
+        }
+        this.pending = 1;
+    }
+
+    /**
+     * Adds {@code n} to the sum.
+     *
+     * @param n
+     *            the number to add
+     * @ensures [the sum is increased by n]
+     */
+    public void add(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        if (this.pending >= MAX_PENDING) {
+            this.normalize();
+        }
+        int[] magnitude = NaturalNumber4.magnitudeOf(n);
+        this.ensureCapacity(magnitude.length);
+        for (int i = 0; i < magnitude.length; i++) {
+            this.slots[i] += magnitude[i];
+        }
+        this.pending++;
+    }
+
+    /**
+     * Adds the sum held by {@code other} to this sum.
+     *
+     * @param other
+     *            the accumulator to add
+     * @requires other is not this
+     * @ensures [the sum is increased by the sum of other, and the sum of
+     *          other is unchanged]
+     */
+    public void merge(NaturalNumberAccumulator other) {
+        assert other != null : "Violation of: other is not null";
+        assert other != this : "Violation of: other is not this";
+
+        if (this.pending + other.pending >= MAX_PENDING) {
+            this.normalize();
+            other.normalize();
+        }
+        this.ensureCapacity(other.length);
+        for (int i = 0; i < other.length; i++) {
+            this.slots[i] += other.slots[i];
+        }
+        this.pending += other.pending;
+    }
+
+    /**
+     * Returns the sum as a new {@code NaturalNumber}.
+     *
+     * @return the sum
+     * @ensures [result is the sum of all numbers added]
+     */
+    public NaturalNumber result() {
+        this.normalize();
+        int[] magnitude = new int[this.length];
+        for (int i = 0; i < this.length; i++) {
+            magnitude[i] = (int) this.slots[i];
+        }
+        return NaturalNumber4.fromMagnitude(magnitude);
+    }
+
+    /**
+     * Returns the sum of {@code numbers}.
+     *
+     * @param numbers
+     *            the numbers to add
+     * @return the sum, 0 if there are none
+     * @ensures sumAll = [the sum of the entries of numbers]
+     */
+    public static NaturalNumber sumAll(
+            Iterable<? extends NaturalNumber> numbers) {
+        assert numbers != null : "Violation of: numbers is not null";
+
+        NaturalNumberAccumulator accumulator = new NaturalNumberAccumulator();
+        for (NaturalNumber n : numbers) {
+            accumulator.add(n);
+        }
+        return accumulator.result();
+    }
+
+    /**
+     * Returns the sum of {@code numbers}, adding parts of the collection into
+     * separate accumulators in parallel and merging them at the end.
+     *
+     * @param numbers
+     *            the numbers to add
+     * @return the sum, 0 if there are none
+     * @requires [no NaturalNumber occurs in numbers more than once]
+     * @ensures parallelSumAll = [the sum of the entries of numbers]
+     */
+    public static NaturalNumber parallelSumAll(
+            Collection<? extends NaturalNumber> numbers) {
+        assert numbers != null : "Violation of: numbers is not null";
+
+        return numbers.parallelStream()
+                .collect(NaturalNumberAccumulator::new,
+                        NaturalNumberAccumulator::add,
+                        NaturalNumberAccumulator::merge)
+                .result();
+    }
+
+}
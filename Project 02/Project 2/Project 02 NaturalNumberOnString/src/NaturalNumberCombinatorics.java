@@ -0,0 +1,177 @@
+import java.util.concurrent.ForkJoinPool;
+
+import components.naturalnumber.NaturalNumber;
+
+/**
+ * Factorials and binomial coefficients as {@code NaturalNumber}s, computed
+ * from their prime factorizations rather than by repeated {@code multiply}.
+ *
+ * <p>
+ * The exponent of each prime p <= n is found with Legendre's formula, for
+ * {@code C(n, k)} as the difference of the exponents in {@code n!}, {@code k!}
+ * and {@code (n - k)!}. The result is then assembled from the bits of those
+ * exponents, most significant bit first: at each bit the running result is
+ * squared and multiplied by the product of the primes whose exponent has that
+ * bit set, and each such product is built with a balanced product tree.
+ * Every large multiplication is therefore between operands of similar size,
+ * where Karatsuba and Toom-3 pay off.
+ *
+ * <p>
+ * When {@code NaturalNumber4.setMultiplyParallelism} has been given more than
+ * one thread, the product trees and the large squarings run in parallel on
+ * the same pool.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public final class NaturalNumberCombinatorics {
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private NaturalNumberCombinatorics() {
+    }
+
+    /**
+     * Returns the primes up to {@code n} in increasing order, by the sieve of
+     * Eratosthenes.
+     *
+     * @param n
+     *            the upper bound
+     * @return the primes
+     * @requires n >= 0
+     * @ensures primesUpTo = [the primes p <= n, in increasing order]
+     */
+    private static int[] primesUpTo(int n) {
+        boolean[] composite = new boolean[n + 1];
+        int count = 0;
+        for (int i = 2; i <= n; i++) {
+            if (!composite[i]) {
+                count++;
+                for (long j = (long) i * i; j <= n; j += i) {
+                    composite[(int) j] = true;
+                }
+            }
+        }
+        int[] primes = new int[count];
+        int next = 0;
+        for (int i = 2; i <= n; i++) {
+            if (!composite[i]) {
+                primes[next] = i;
+                next++;
+            }
+        }
+        return primes;
+    }
+
+    /**
+     * Returns the exponent of the prime {@code p} in {@code n!}, by Legendre's
+     * formula.
+     *
+     * @param n
+     *            the number whose factorial is factored
+     * @param p
+     *            the prime
+     * @return the exponent
+     * @requires n >= 0 and [p is prime]
+     * @ensures legendre = [sum over i >= 1 of floor(n / p^i)]
+     */
+    private static int legendre(int n, int p) {
+        int exponent = 0;
+        long power = p;
+        while (power <= n) {
+            exponent += n / power;
+            power *= p;
+        }
+        return exponent;
+    }
+
+    /**
+     * Returns the product of {@code primes[i]^exponents[i]} over all
+     * {@code i}.
+     *
+     * @param primes
+     *            the primes
+     * @param exponents
+     *            their exponents
+     * @return the product
+     * @requires |primes| = |exponents| and [every exponent is >= 0]
+     * @ensures assemble = [product of primes[i]^exponents[i]]
+     */
+    private static NaturalNumber assemble(int[] primes, int[] exponents) {
+        ForkJoinPool pool = NaturalNumber4.multiplyPoolOrNull();
+        int maxExponent = 0;
+        for (int e : exponents) {
+            maxExponent = Math.max(maxExponent, e);
+        }
+        int[] result = { 1 };
+        int[] selected = new int[primes.length];
+        for (int bit = Integer.SIZE - 1
+                - Integer.numberOfLeadingZeros(maxExponent); bit >= 0; bit--) {
+            int count = 0;
+            for (int i = 0; i < primes.length; i++) {
+                if (((exponents[i] >> bit) & 1) != 0) {
+                    selected[count] = primes[i];
+                    count++;
+                }
+            }
+            int[] factor = LimbArithmetic.productTree(selected, count, pool);
+            if (pool == null) {
+                result = LimbArithmetic.multiply(
+                        LimbArithmetic.multiply(result, result), factor);
+            } else {
+                result = LimbArithmetic.parallelMultiply(
+                        LimbArithmetic.parallelMultiply(result, result, pool),
+                        factor, pool);
+            }
+        }
+        return NaturalNumber4.fromMagnitude(result);
+    }
+
+    /**
+     * Returns {@code n!}.
+     *
+     * @param n
+     *            the number whose factorial is computed
+     * @return the factorial
+     * @requires n >= 0
+     * @ensures factorial = n!
+     */
+    public static NaturalNumber factorial(int n) {
+        assert n >= 0 : "Violation of: n >= 0";
+
+        int[] primes = primesUpTo(n);
+        int[] exponents = new int[primes.length];
+        for (int i = 0; i < primes.length; i++) {
+            exponents[i] = legendre(n, primes[i]);
+        }
+        return assemble(primes, exponents);
+    }
+
+    /**
+     * Returns the binomial coefficient {@code C(n, k)}, the number of
+     * {@code k}-element subsets of an {@code n}-element set.
+     *
+     * @param n
+     *            the size of the set
+     * @param k
+     *            the size of the subsets
+     * @return the binomial coefficient
+     * @requires 0 <= k <= n
+     * @ensures binomial = n! / (k! * (n - k)!)
+     */
+    public static NaturalNumber binomial(int n, int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k <= n : "Violation of: k <= n";
+
+        int[] primes = primesUpTo(n);
+        int[] exponents = new int[primes.length];
+        for (int i = 0; i < primes.length; i++) {
+            int p = primes[i];
+            exponents[i] = legendre(n, p) - legendre(k, p)
+                    - legendre(n - k, p);
+        }
+        return assemble(primes, exponents);
+    }
+
+}
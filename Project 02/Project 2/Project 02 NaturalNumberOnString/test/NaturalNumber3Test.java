@@ -1,3 +1,8 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
 import components.naturalnumber.NaturalNumber;
 import components.naturalnumber.NaturalNumber1L;
 
@@ -47,4 +52,290 @@ public class NaturalNumber3Test extends NaturalNumberTest {
     protected final NaturalNumber constructorRef(NaturalNumber n) {
         return new NaturalNumber1L(n);
     }
+
+    @Test
+    public final void testCompareToSameLength() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("123456789");
+        NaturalNumber m = this.constructorTest("123456798");
+        NaturalNumber nExpected = this.constructorRef("123456789");
+        NaturalNumber mExpected = this.constructorRef("123456798");
+        /*
+         * Call method under test
+         */
+        int nm = n.compareTo(m);
+        int mn = m.compareTo(n);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertTrue(nm < 0);
+        assertTrue(mn > 0);
+        assertEquals(nExpected, n);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testCompareToDifferentLength() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("99");
+        NaturalNumber m = this.constructorTest("100");
+        /*
+         * Call method under test
+         */
+        int nm = n.compareTo(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertTrue(nm < 0);
+    }
+
+    @Test
+    public final void testCompareToZeroAndOtherKernel() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest();
+        NaturalNumber m = this.constructorTest(7);
+        NaturalNumber ref = this.constructorRef(7);
+        /*
+         * Call method under test
+         */
+        int nm = n.compareTo(m);
+        int mRef = m.compareTo(ref);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertTrue(nm < 0);
+        assertEquals(0, mRef);
+    }
+
+    @Test
+    public final void testEqualsAndHashCode() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("8675309");
+        NaturalNumber m = this.constructorTest();
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < "8675309".length(); i++) {
+            m.multiplyBy10("8675309".charAt(i) - '0');
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(n, m);
+        assertEquals(n.hashCode(), m.hashCode());
+        assertTrue(!n.equals(this.constructorTest("8675308")));
+    }
+
+    @Test
+    public final void testDigitCount() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber3 zero = new NaturalNumber3();
+        NaturalNumber3 n = new NaturalNumber3("1000000000000");
+        /*
+         * Call method under test
+         */
+        int zeroCount = zero.digitCount();
+        int nCount = n.digitCount();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(1, zeroCount);
+        assertEquals(13, nCount);
+    }
+
+    @Test
+    public final void testMultiplyBy10LeavesInlineRange() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(999_999_999);
+        NaturalNumber nExpected = this.constructorRef("9999999995");
+        /*
+         * Call method under test
+         */
+        n.multiplyBy10(5);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals("9999999995", n.toString());
+    }
+
+    @Test
+    public final void testDivideBy10ReturnsToInlineRange() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("1000000000");
+        NaturalNumber m = this.constructorTest(100_000_000);
+        NaturalNumber nExpected = this.constructorRef(100_000_000);
+        /*
+         * Call method under test
+         */
+        int digit = n.divideBy10();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(0, digit);
+        assertEquals(nExpected, n);
+        assertEquals(m, n);
+        assertEquals(0, n.compareTo(m));
+        assertEquals(m.hashCode(), n.hashCode());
+    }
+
+    @Test
+    public final void testCompareToAcrossForms() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(999_999_999);
+        NaturalNumber m = this.constructorTest("1000000000");
+        /*
+         * Call method under test
+         */
+        int nm = n.compareTo(m);
+        int mn = m.compareTo(n);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertTrue(nm < 0);
+        assertTrue(mn > 0);
+        assertTrue(!n.equals(m));
+    }
+
+    @Test
+    public final void testHashCodeMatchesOtherKernel() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber zero = this.constructorTest();
+        NaturalNumber n = this.constructorTest(70_400_321);
+        NaturalNumber m = this.constructorTest("123456789012");
+        NaturalNumber zeroRef = this.constructorRef();
+        NaturalNumber nRef = this.constructorRef(70_400_321);
+        NaturalNumber mRef = this.constructorRef("123456789012");
+        /*
+         * Call method under test
+         */
+        int zeroHash = zero.hashCode();
+        int nHash = n.hashCode();
+        int mHash = m.hashCode();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(zeroRef, zero);
+        assertEquals(zeroRef.hashCode(), zeroHash);
+        assertEquals(nRef, n);
+        assertEquals(nRef.hashCode(), nHash);
+        assertEquals(mRef, m);
+        assertEquals(mRef.hashCode(), mHash);
+    }
+
+    @Test
+    public final void testHashCodeFollowsChanges() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(999_999_999);
+        NaturalNumber m = this.constructorTest("123456789012");
+        int nBefore = n.hashCode();
+        int mBefore = m.hashCode();
+        /*
+         * Call method under test
+         */
+        n.multiplyBy10(7);
+        int nGrown = n.hashCode();
+        n.divideBy10();
+        n.divideBy10();
+        int nShrunk = n.hashCode();
+        n.transferFrom(m);
+        int nTransferred = n.hashCode();
+        int mTransferred = m.hashCode();
+        n.clear();
+        int nCleared = n.hashCode();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(this.constructorRef(999_999_999).hashCode(), nBefore);
+        assertEquals(this.constructorRef("9999999997").hashCode(), nGrown);
+        assertEquals(this.constructorRef(99_999_999).hashCode(), nShrunk);
+        assertEquals(mBefore, nTransferred);
+        assertEquals(this.constructorRef().hashCode(), mTransferred);
+        assertEquals(this.constructorRef().hashCode(), nCleared);
+    }
+
+    @Test
+    public final void testToStringSharesSmallDepictions() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(42);
+        NaturalNumber m = this.constructorTest("42");
+        /*
+         * Call method under test
+         */
+        String nString = n.toString();
+        String mString = m.toString();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("42", nString);
+        assertTrue(nString == mString);
+    }
+
+    @Test
+    public final void testNaturalNumberConstructorFromSameKernel() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber small = this.constructorTest(31_415);
+        NaturalNumber large = this.constructorTest("271828182845904523536");
+        /*
+         * Call method under test
+         */
+        NaturalNumber smallCopy = this.constructorTest(small);
+        NaturalNumber largeCopy = this.constructorTest(large);
+        smallCopy.multiplyBy10(9);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(this.constructorRef(31_415), small);
+        assertEquals(this.constructorRef(314_159), smallCopy);
+        assertEquals(large, largeCopy);
+    }
+
+    @Test
+    public final void testNaturalNumberConstructorFromOtherKernel() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber small = this.constructorRef(999_999_999);
+        NaturalNumber overInline = this.constructorRef(1_000_000_000);
+        NaturalNumber overInt = this.constructorRef("271828182845904523536");
+        /*
+         * Call method under test
+         */
+        NaturalNumber smallCopy = this.constructorTest(small);
+        NaturalNumber overInlineCopy = this.constructorTest(overInline);
+        NaturalNumber overIntCopy = this.constructorTest(overInt);
+        smallCopy.increment();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(this.constructorRef(999_999_999), small);
+        assertEquals("1000000000", smallCopy.toString());
+        assertEquals("1000000000", overInlineCopy.toString());
+        assertEquals("271828182845904523536", overIntCopy.toString());
+    }
+
 }
@@ -0,0 +1,768 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber1L;
+
+/**
+ * Customized JUnit test fixture for {@code NaturalNumber4}.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ */
+public class NaturalNumber4Test extends NaturalNumberTest {
+
+    @Override
+    protected final NaturalNumber constructorTest() {
+        return new NaturalNumber4();
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(int i) {
+        return new NaturalNumber4(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(String s) {
+        return new NaturalNumber4(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(NaturalNumber n) {
+        return new NaturalNumber4(n);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef() {
+        return new NaturalNumber1L();
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(int i) {
+        return new NaturalNumber1L(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(String s) {
+        return new NaturalNumber1L(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(NaturalNumber n) {
+        return new NaturalNumber1L(n);
+    }
+
+    /**
+     * Seed for the pseudo-random operands, so failures are reproducible.
+     */
+    private static final long SEED = 2231L;
+
+    /**
+     * Radix of a decimal digit.
+     */
+    private static final int RADIX = 10;
+
+    /**
+     * Number of non-zero decimal digits.
+     */
+    private static final int RADIX_MINUS_ONE = 9;
+
+    /**
+     * Returns a pseudo-random decimal depiction with exactly {@code digits}
+     * digits.
+     *
+     * @param random
+     *            the source of randomness
+     * @param digits
+     *            the number of digits
+     * @return the depiction
+     * @requires digits > 0
+     * @ensures [randomDigits has no leading '0' and |randomDigits| = digits]
+     */
+    private static String randomDigits(Random random, int digits) {
+        StringBuilder depiction = new StringBuilder();
+        depiction.append((char) ('1' + random.nextInt(RADIX_MINUS_ONE)));
+        for (int i = 1; i < digits; i++) {
+            depiction.append((char) ('0' + random.nextInt(RADIX)));
+        }
+        return depiction.toString();
+    }
+
+    /**
+     * Multiplies {@code a} by {@code b} with {@code NaturalNumber4} and checks
+     * the product against {@code BigInteger}.
+     *
+     * @param a
+     *            depiction of the first factor
+     * @param b
+     *            depiction of the second factor
+     */
+    private void checkMultiply(String a, String b) {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(a);
+        NaturalNumber m = this.constructorTest(b);
+        NaturalNumber mExpected = this.constructorRef(b);
+        String nExpected = new BigInteger(a).multiply(new BigInteger(b))
+                .toString();
+        /*
+         * Call method under test
+         */
+        n.multiply(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n.toString());
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testMultiplyByZero() {
+        this.checkMultiply("123456789012", "0");
+    }
+
+    @Test
+    public final void testMultiplyAcrossLimbBoundary() {
+        this.checkMultiply("999999999", "999999999");
+    }
+
+    @Test
+    public final void testMultiplySchoolbookSize() {
+        Random random = new Random(SEED);
+        final int digits = 200;
+        this.checkMultiply(randomDigits(random, digits),
+                randomDigits(random, digits + 1));
+    }
+
+    @Test
+    public final void testMultiplyKaratsubaSize() {
+        Random random = new Random(SEED);
+        final int digits = 1_000;
+        this.checkMultiply(randomDigits(random, digits),
+                randomDigits(random, digits - 7));
+    }
+
+    @Test
+    public final void testMultiplyToom3Size() {
+        Random random = new Random(SEED);
+        final int digits = 20_000;
+        this.checkMultiply(randomDigits(random, digits),
+                randomDigits(random, digits + 13));
+    }
+
+    @Test
+    public final void testMultiplyUnbalanced() {
+        Random random = new Random(SEED);
+        final int digits = 5_000;
+        final int shortDigits = 400;
+        this.checkMultiply(randomDigits(random, digits),
+                randomDigits(random, shortDigits));
+    }
+
+    @Test
+    public final void testMultiplyBySelf() {
+        /*
+         * Set up variables
+         */
+        Random random = new Random(SEED);
+        final int digits = 3_000;
+        String a = randomDigits(random, digits);
+        NaturalNumber n = this.constructorTest(a);
+        String nExpected = new BigInteger(a).pow(2).toString();
+        /*
+         * Call method under test
+         */
+        n.multiply(n);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n.toString());
+    }
+
+    /**
+     * Divides {@code a} by {@code b} with {@code NaturalNumber4} and checks
+     * the quotient and remainder against {@code BigInteger}.
+     *
+     * @param a
+     *            depiction of the dividend
+     * @param b
+     *            depiction of the divisor
+     */
+    private void checkDivide(String a, String b) {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(a);
+        NaturalNumber m = this.constructorTest(b);
+        NaturalNumber mExpected = this.constructorRef(b);
+        BigInteger[] expected = new BigInteger(a)
+                .divideAndRemainder(new BigInteger(b));
+        /*
+         * Call method under test
+         */
+        NaturalNumber r = n.divide(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(expected[0].toString(), n.toString());
+        assertEquals(expected[1].toString(), r.toString());
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testDivideSmallerBySmaller() {
+        this.checkDivide("12", "123456789012");
+    }
+
+    @Test
+    public final void testDivideBySingleLimb() {
+        this.checkDivide("123456789012345678901234567890", "987654321");
+    }
+
+    @Test
+    public final void testDivideBySelf() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("123456789012345678901234");
+        NaturalNumber nExpected = this.constructorRef(1);
+        NaturalNumber rExpected = this.constructorRef();
+        /*
+         * Call method under test
+         */
+        NaturalNumber r = n.divide(n);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(rExpected, r);
+    }
+
+    @Test
+    public final void testDivideKnuthSize() {
+        Random random = new Random(SEED);
+        final int digits = 300;
+        final int divisorDigits = 120;
+        this.checkDivide(randomDigits(random, digits),
+                randomDigits(random, divisorDigits));
+    }
+
+    @Test
+    public final void testDivideAllNines() {
+        final int digits = 2_000;
+        final int divisorDigits = 900;
+        this.checkDivide("9".repeat(digits), "9".repeat(divisorDigits));
+    }
+
+    @Test
+    public final void testDivideBurnikelZieglerSize() {
+        Random random = new Random(SEED);
+        final int digits = 30_000;
+        final int divisorDigits = 8_000;
+        this.checkDivide(randomDigits(random, digits),
+                randomDigits(random, divisorDigits));
+    }
+
+    @Test
+    public final void testDivideExactBurnikelZieglerSize() {
+        /*
+         * Set up variables
+         */
+        Random random = new Random(SEED);
+        final int digits = 12_000;
+        final int divisorDigits = 5_000;
+        String b = randomDigits(random, divisorDigits);
+        String a = new BigInteger(randomDigits(random, digits))
+                .multiply(new BigInteger(b)).toString();
+        /*
+         * Call method under test and check
+         */
+        this.checkDivide(a, b);
+    }
+
+    @Test
+    public final void testToStringLarge() {
+        /*
+         * Set up variables
+         */
+        Random random = new Random(SEED);
+        final int digits = 100_000;
+        String s = randomDigits(random, digits);
+        NaturalNumber n = this.constructorTest(s);
+        /*
+         * Call method under test and assert that values of variables match
+         * expectations
+         */
+        assertEquals(s, n.toString());
+    }
+
+    @Test
+    public final void testToStringPartialTail() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("1000000000000");
+        /*
+         * Call method under test
+         */
+        n.divideBy10();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("100000000000", n.toString());
+    }
+
+    @Test
+    public final void testIntConstructorTenDigits() {
+        /*
+         * Set up variables and call method under test
+         */
+        NaturalNumber n = this.constructorTest(Integer.MAX_VALUE);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(Integer.toString(Integer.MAX_VALUE), n.toString());
+    }
+
+    @Test
+    public final void testNaturalNumberConstructorFromOtherKernel() {
+        /*
+         * Set up variables
+         */
+        Random random = new Random(SEED);
+        final int digits = 5_000;
+        String s = randomDigits(random, digits);
+        NaturalNumber m = this.constructorRef(s);
+        /*
+         * Call method under test
+         */
+        NaturalNumber n = this.constructorTest(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(s, n.toString());
+        assertEquals(m, n);
+    }
+
+    @Test
+    public final void testCopyFromDoesNotAlias() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest();
+        NaturalNumber m = this.constructorTest("98765432109876543210");
+        NaturalNumber mExpected = this.constructorRef("98765432109876543210");
+        /*
+         * Call method under test
+         */
+        n.copyFrom(m);
+        n.multiplyBy10(1);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("987654321098765432101", n.toString());
+        assertEquals(mExpected, m);
+    }
+
+    /**
+     * Computes {@code x^p mod m} with {@code NaturalNumber4} and checks it
+     * against {@code BigInteger}.
+     *
+     * @param x
+     *            depiction of the base
+     * @param p
+     *            depiction of the exponent
+     * @param m
+     *            depiction of the modulus
+     */
+    private void checkModPow(String x, String p, String m) {
+        /*
+         * Set up variables
+         */
+        NaturalNumber4 n = new NaturalNumber4(x);
+        NaturalNumber exponent = this.constructorTest(p);
+        NaturalNumber modulus = this.constructorTest(m);
+        NaturalNumber exponentExpected = this.constructorRef(p);
+        NaturalNumber modulusExpected = this.constructorRef(m);
+        String nExpected = new BigInteger(x)
+                .modPow(new BigInteger(p), new BigInteger(m)).toString();
+        /*
+         * Call method under test
+         */
+        n.modPow(exponent, modulus);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n.toString());
+        assertEquals(exponentExpected, exponent);
+        assertEquals(modulusExpected, modulus);
+    }
+
+    @Test
+    public final void testModPowModulusOne() {
+        this.checkModPow("12345", "678", "1");
+    }
+
+    @Test
+    public final void testModPowExponentZero() {
+        this.checkModPow("12345", "0", "1000000007");
+    }
+
+    @Test
+    public final void testModPowCoprimeModulus() {
+        Random random = new Random(SEED);
+        final int digits = 300;
+        this.checkModPow(randomDigits(random, digits),
+                randomDigits(random, digits),
+                randomDigits(random, digits) + "1");
+    }
+
+    @Test
+    public final void testModPowEvenModulus() {
+        Random random = new Random(SEED);
+        final int digits = 200;
+        this.checkModPow(randomDigits(random, digits),
+                randomDigits(random, digits),
+                randomDigits(random, digits) + "8");
+    }
+
+    @Test
+    public final void testModPowModulusMultipleOfFive() {
+        Random random = new Random(SEED);
+        final int digits = 100;
+        this.checkModPow(randomDigits(random, digits),
+                randomDigits(random, digits),
+                randomDigits(random, digits) + "5");
+    }
+
+    @Test
+    public final void testModPowBaseLargerThanModulus() {
+        Random random = new Random(SEED);
+        final int digits = 1_000;
+        final int modulusDigits = 50;
+        this.checkModPow(randomDigits(random, digits), "65537",
+                randomDigits(random, modulusDigits) + "3");
+    }
+
+    /**
+     * Replaces {@code a} by its greatest common divisor with {@code b} using
+     * {@code NaturalNumber4} and checks the result against
+     * {@code BigInteger}.
+     *
+     * @param a
+     *            depiction of the first number
+     * @param b
+     *            depiction of the second number
+     */
+    private void checkGcd(String a, String b) {
+        /*
+         * Set up variables
+         */
+        NaturalNumber4 n = new NaturalNumber4(a);
+        NaturalNumber m = this.constructorTest(b);
+        NaturalNumber mExpected = this.constructorRef(b);
+        String nExpected = new BigInteger(a).gcd(new BigInteger(b)).toString();
+        /*
+         * Call method under test
+         */
+        n.gcd(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n.toString());
+        assertEquals(mExpected, m);
+    }
+
+    /**
+     * Takes the {@code r}-th root of {@code a} with {@code NaturalNumber4} and
+     * checks that the result {@code x} satisfies x^r <= a < (x+1)^r, using
+     * {@code BigInteger}.
+     *
+     * @param a
+     *            depiction of the radicand
+     * @param r
+     *            the index of the root
+     */
+    private void checkRoot(String a, int r) {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(a);
+        BigInteger radicand = new BigInteger(a);
+        /*
+         * Call method under test
+         */
+        n.root(r);
+        /*
+         * Assert that values of variables match expectations
+         */
+        BigInteger x = new BigInteger(n.toString());
+        assertTrue(x.pow(r).compareTo(radicand) <= 0);
+        assertTrue(x.add(BigInteger.ONE).pow(r).compareTo(radicand) > 0);
+    }
+
+    @Test
+    public final void testGcdWithZero() {
+        this.checkGcd("0", "123456789012345678901234567890");
+        this.checkGcd("123456789012345678901234567890", "0");
+        this.checkGcd("0", "0");
+    }
+
+    @Test
+    public final void testGcdSmall() {
+        this.checkGcd("462", "1071");
+    }
+
+    @Test
+    public final void testGcdCommonFactor() {
+        Random random = new Random(SEED);
+        final int factorDigits = 150;
+        final int cofactorDigits = 400;
+        String g = randomDigits(random, factorDigits);
+        String a = new BigInteger(randomDigits(random, cofactorDigits))
+                .multiply(new BigInteger(g)).toString();
+        String b = new BigInteger(randomDigits(random, cofactorDigits))
+                .multiply(new BigInteger(g)).toString();
+        this.checkGcd(a, b);
+    }
+
+    @Test
+    public final void testGcdRandomProperty() {
+        Random random = new Random(SEED);
+        final int trials = 200;
+        final int maxDigits = 120;
+        for (int i = 0; i < trials; i++) {
+            this.checkGcd(randomDigits(random, 1 + random.nextInt(maxDigits)),
+                    randomDigits(random, 1 + random.nextInt(maxDigits)));
+        }
+    }
+
+    @Test
+    public final void testGcdConsecutiveFibonacci() {
+        final int steps = 500;
+        BigInteger a = BigInteger.ONE;
+        BigInteger b = BigInteger.ONE;
+        for (int i = 0; i < steps; i++) {
+            BigInteger t = a.add(b);
+            a = b;
+            b = t;
+        }
+        this.checkGcd(b.toString(), a.toString());
+    }
+
+    @Test
+    public final void testRootPerfectSquareAndNeighbours() {
+        Random random = new Random(SEED);
+        final int digits = 250;
+        BigInteger x = new BigInteger(randomDigits(random, digits));
+        BigInteger square = x.multiply(x);
+        this.checkRoot(square.toString(), 2);
+        this.checkRoot(square.subtract(BigInteger.ONE).toString(), 2);
+        this.checkRoot(square.add(BigInteger.ONE).toString(), 2);
+    }
+
+    @Test
+    public final void testRootRandomProperty() {
+        Random random = new Random(SEED);
+        final int trials = 100;
+        final int maxDigits = 200;
+        final int maxIndex = 12;
+        for (int i = 0; i < trials; i++) {
+            this.checkRoot(randomDigits(random, 1 + random.nextInt(maxDigits)),
+                    2 + random.nextInt(maxIndex));
+        }
+    }
+
+    @Test
+    public final void testRootLargeIndex() {
+        this.checkRoot("123456789012345678901234567890", 100);
+    }
+
+    @Test
+    public final void testParallelMultiplyMatchesSequential() {
+        /*
+         * Set up variables
+         */
+        Random random = new Random(SEED);
+        final int digits = 60_000;
+        final int parallelism = 4;
+        String a = randomDigits(random, digits);
+        String b = randomDigits(random, digits + 1);
+        NaturalNumber sequential = this.constructorTest(a);
+        NaturalNumber parallel = this.constructorTest(a);
+        NaturalNumber m = this.constructorTest(b);
+        /*
+         * Call method under test
+         */
+        sequential.multiply(m);
+        NaturalNumber4.setMultiplyParallelism(parallelism);
+        try {
+            parallel.multiply(m);
+        } finally {
+            NaturalNumber4.setMultiplyParallelism(1);
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(sequential.toString(), parallel.toString());
+        assertEquals(new BigInteger(a).multiply(new BigInteger(b)).toString(),
+                parallel.toString());
+    }
+
+    @Test
+    public final void testParallelMultiplyUnbalanced() {
+        /*
+         * Set up variables
+         */
+        Random random = new Random(SEED);
+        final int digits = 80_000;
+        final int shortDigits = 12_000;
+        final int parallelism = 3;
+        String a = randomDigits(random, digits);
+        String b = randomDigits(random, shortDigits);
+        NaturalNumber n = this.constructorTest(a);
+        NaturalNumber m = this.constructorTest(b);
+        /*
+         * Call method under test
+         */
+        NaturalNumber4.setMultiplyParallelism(parallelism);
+        try {
+            n.multiply(m);
+        } finally {
+            NaturalNumber4.setMultiplyParallelism(1);
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(new BigInteger(a).multiply(new BigInteger(b)).toString(),
+                n.toString());
+    }
+
+    @Test
+    public final void testMultiplyParallelismSetting() {
+        final int parallelism = 5;
+        NaturalNumber4.setMultiplyParallelism(parallelism);
+        try {
+            assertEquals(parallelism, NaturalNumber4.multiplyParallelism());
+        } finally {
+            NaturalNumber4.setMultiplyParallelism(1);
+        }
+        assertEquals(1, NaturalNumber4.multiplyParallelism());
+    }
+
+    @Test
+    public final void testIncrementZero() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest();
+        NaturalNumber nExpected = this.constructorRef(1);
+        /*
+         * Call method under test
+         */
+        n.increment();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public final void testIncrementCarryIntoNewLimb() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("999999999999999999");
+        NaturalNumber nExpected = this.constructorRef("1000000000000000000");
+        /*
+         * Call method under test
+         */
+        n.increment();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals("1000000000000000000", n.toString());
+    }
+
+    @Test
+    public final void testIncrementCarryAcrossPartialTail() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("123456789999");
+        NaturalNumber nExpected = this.constructorRef("123456790000");
+        /*
+         * Call method under test
+         */
+        n.increment();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public final void testDecrementToZero() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(1);
+        NaturalNumber nExpected = this.constructorRef();
+        /*
+         * Call method under test
+         */
+        n.decrement();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public final void testDecrementLosesDigit() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("1000000000000000000");
+        NaturalNumber nExpected = this.constructorRef("999999999999999999");
+        /*
+         * Call method under test
+         */
+        n.decrement();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals("999999999999999999", n.toString());
+    }
+
+    @Test
+    public final void testIncrementDecrementRoundTrip() {
+        /*
+         * Set up variables
+         */
+        final int steps = 25_000;
+        NaturalNumber n = this.constructorTest("99999999987654");
+        NaturalNumber nExpected = this.constructorRef("99999999987654");
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < steps; i++) {
+            n.increment();
+        }
+        for (int i = 0; i < steps; i++) {
+            n.decrement();
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+}
@@ -0,0 +1,305 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber1L;
+
+/**
+ * Customized JUnit test fixture for {@code NaturalNumber5}.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ */
+public class NaturalNumber5Test extends NaturalNumberTest {
+
+    @Override
+    protected final NaturalNumber constructorTest() {
+        return new NaturalNumber5();
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(int i) {
+        return new NaturalNumber5(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(String s) {
+        return new NaturalNumber5(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(NaturalNumber n) {
+        return new NaturalNumber5(n);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef() {
+        return new NaturalNumber1L();
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(int i) {
+        return new NaturalNumber1L(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(String s) {
+        return new NaturalNumber1L(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(NaturalNumber n) {
+        return new NaturalNumber1L(n);
+    }
+
+    /**
+     * Seed for the pseudo-random operands, fixed so failures are repeatable.
+     */
+    private static final long SEED = 2231L;
+
+    /**
+     * Radix of a decimal digit.
+     */
+    private static final int RADIX = 10;
+
+    /**
+     * Number of non-zero decimal digits.
+     */
+    private static final int RADIX_MINUS_ONE = 9;
+
+    /**
+     * Returns a pseudo-random decimal depiction with exactly {@code digits}
+     * digits.
+     *
+     * @param random
+     *            the source of randomness
+     * @param digits
+     *            the number of digits
+     * @return the depiction
+     * @requires digits > 0
+     * @ensures [randomDigits has no leading '0' and |randomDigits| = digits]
+     */
+    private static String randomDigits(Random random, int digits) {
+        StringBuilder depiction = new StringBuilder();
+        depiction.append((char) ('1' + random.nextInt(RADIX_MINUS_ONE)));
+        for (int i = 1; i < digits; i++) {
+            depiction.append((char) ('0' + random.nextInt(RADIX)));
+        }
+        return depiction.toString();
+    }
+
+    @Test
+    public final void testAddCarryIntoNewDigit() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("99999");
+        NaturalNumber m = this.constructorTest(1);
+        NaturalNumber nExpected = this.constructorRef("100000");
+        NaturalNumber mExpected = this.constructorRef(1);
+        /*
+         * Call method under test
+         */
+        n.add(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testAddToItself() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("987654321");
+        NaturalNumber nExpected = this.constructorRef("1975308642");
+        /*
+         * Call method under test
+         */
+        n.add(n);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public final void testAddOtherKernel() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(5);
+        NaturalNumber m = this.constructorRef("123456789012345678901234567890");
+        NaturalNumber nExpected = this
+                .constructorRef("123456789012345678901234567895");
+        /*
+         * Call method under test
+         */
+        n.add(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public final void testSubtractToZero() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("1000000");
+        NaturalNumber m = this.constructorTest("1000000");
+        NaturalNumber nExpected = this.constructorRef();
+        /*
+         * Call method under test
+         */
+        n.subtract(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertTrue(n.isZero());
+    }
+
+    @Test
+    public final void testSubtractBorrowAcrossZeros() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("1000000");
+        NaturalNumber m = this.constructorTest(1);
+        NaturalNumber nExpected = this.constructorRef("999999");
+        /*
+         * Call method under test
+         */
+        n.subtract(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals("999999", n.toString());
+    }
+
+    @Test
+    public final void testAddSubtractCompareRandom() {
+        Random random = new Random(SEED);
+        final int trials = 200;
+        final int maxDigits = 300;
+        for (int i = 0; i < trials; i++) {
+            /*
+             * Set up variables
+             */
+            String a = randomDigits(random, 1 + random.nextInt(maxDigits));
+            String b = randomDigits(random, 1 + random.nextInt(maxDigits));
+            BigInteger x = new BigInteger(a);
+            BigInteger y = new BigInteger(b);
+            NaturalNumber sum = this.constructorTest(a);
+            NaturalNumber difference = this
+                    .constructorTest(x.max(y).toString());
+            /*
+             * Call method under test
+             */
+            sum.add(this.constructorTest(b));
+            difference.subtract(this.constructorTest(x.min(y).toString()));
+            int comparison = this.constructorTest(a)
+                    .compareTo(this.constructorTest(b));
+            /*
+             * Assert that values of variables match expectations
+             */
+            assertEquals(x.add(y).toString(), sum.toString());
+            assertEquals(x.subtract(y).abs().toString(),
+                    difference.toString());
+            assertEquals(x.compareTo(y), Integer.signum(comparison));
+        }
+    }
+
+    @Test
+    public final void testGrowBeyondOneMapping() {
+        /*
+         * Set up variables
+         */
+        final int digits = 100_000;
+        NaturalNumber n = this.constructorTest();
+        StringBuilder nines = new StringBuilder();
+        StringBuilder zeros = new StringBuilder();
+        for (int i = 0; i < digits; i++) {
+            n.multiplyBy10(RADIX_MINUS_ONE);
+            nines.append('9');
+            zeros.append('0');
+        }
+        NaturalNumber m = this.constructorTest(n);
+        /*
+         * Call method under test
+         */
+        n.increment();
+        m.add(n);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("1" + zeros, n.toString());
+        assertEquals("1" + nines, m.toString());
+    }
+
+    @Test
+    public final void testManyLiveValues() {
+        /*
+         * Set up variables
+         */
+        final int count = 200_000;
+        NaturalNumber[] values = new NaturalNumber[count];
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < count; i++) {
+            NaturalNumber n = this.constructorTest(i);
+            NaturalNumber m = n.newInstance();
+            m.transferFrom(n);
+            n.copyFrom(m);
+            n.clear();
+            n.add(m);
+            values[i] = n;
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        for (int i = 0; i < count; i++) {
+            assertEquals(Integer.toString(i), values[i].toString());
+        }
+    }
+
+    @Test
+    public final void testClearAndTransferFromLargeValue() {
+        /*
+         * Set up variables
+         */
+        final int digits = 10_000;
+        Random random = new Random(SEED);
+        String a = randomDigits(random, digits);
+        String b = randomDigits(random, digits);
+        NaturalNumber n = this.constructorTest(a);
+        NaturalNumber m = this.constructorTest();
+        /*
+         * Call method under test
+         */
+        n.clear();
+        boolean clearedToZero = n.isZero();
+        for (int i = 0; i < b.length(); i++) {
+            n.multiplyBy10(b.charAt(i) - '0');
+        }
+        m.transferFrom(n);
+        n.increment();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertTrue(clearedToZero);
+        assertEquals(b, m.toString());
+        assertEquals("1", n.toString());
+    }
+
+}
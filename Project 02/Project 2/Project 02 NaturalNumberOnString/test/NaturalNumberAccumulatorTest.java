@@ -0,0 +1,230 @@
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber1L;
+
+/**
+ * JUnit test fixture for {@code NaturalNumberAccumulator}.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ */
+public class NaturalNumberAccumulatorTest {
+
+    /**
+     * Seed for the pseudo-random operands, fixed so failures are repeatable.
+     */
+    private static final long SEED = 2231L;
+
+    /**
+     * Radix of a decimal digit.
+     */
+    private static final int RADIX = 10;
+
+    /**
+     * Number of non-zero decimal digits.
+     */
+    private static final int RADIX_MINUS_ONE = 9;
+
+    /**
+     * Returns a pseudo-random decimal depiction with exactly {@code digits}
+     * digits.
+     *
+     * @param random
+     *            the source of randomness
+     * @param digits
+     *            the number of digits
+     * @return the depiction
+     * @requires digits > 0
+     * @ensures [randomDigits has no leading '0' and |randomDigits| = digits]
+     */
+    private static String randomDigits(Random random, int digits) {
+        StringBuilder depiction = new StringBuilder();
+        depiction.append((char) ('1' + random.nextInt(RADIX_MINUS_ONE)));
+        for (int i = 1; i < digits; i++) {
+            depiction.append((char) ('0' + random.nextInt(RADIX)));
+        }
+        return depiction.toString();
+    }
+
+    /**
+     * Returns {@code count} pseudo-random numbers of 1 to {@code maxDigits}
+     * digits, cycling through {@code NaturalNumber3}, {@code NaturalNumber4}
+     * and {@code NaturalNumber1L}, and adds each into {@code expected[0]}.
+     *
+     * @param random
+     *            the source of randomness
+     * @param count
+     *            the number of numbers
+     * @param maxDigits
+     *            the largest number of digits
+     * @param expected
+     *            the running sum, as a one-element array
+     * @return the numbers
+     */
+    private static List<NaturalNumber> randomNumbers(Random random, int count,
+            int maxDigits, BigInteger[] expected) {
+        final int kinds = 3;
+        List<NaturalNumber> numbers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String depiction = randomDigits(random,
+                    1 + random.nextInt(maxDigits));
+            expected[0] = expected[0].add(new BigInteger(depiction));
+            switch (i % kinds) {
+                case 0:
+                    numbers.add(new NaturalNumber3(depiction));
+                    break;
+                case 1:
+                    numbers.add(new NaturalNumber4(depiction));
+                    break;
+                default:
+                    numbers.add(new NaturalNumber1L(depiction));
+                    break;
+            }
+        }
+        return numbers;
+    }
+
+    @Test
+    public final void testEmptySum() {
+        /*
+         * Set up variables
+         */
+        List<NaturalNumber> numbers = new ArrayList<>();
+        /*
+         * Call method under test
+         */
+        NaturalNumber sum = NaturalNumberAccumulator.sumAll(numbers);
+        NaturalNumber parallelSum = NaturalNumberAccumulator
+                .parallelSumAll(numbers);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(new NaturalNumber1L(), sum);
+        assertEquals(new NaturalNumber1L(), parallelSum);
+    }
+
+    @Test
+    public final void testAddCarriesAcrossSlots() {
+        /*
+         * Set up variables
+         */
+        final int count = 1_000;
+        NaturalNumberAccumulator accumulator = new NaturalNumberAccumulator();
+        NaturalNumber nines = new NaturalNumber4("999999999999999999");
+        NaturalNumber ninesExpected = new NaturalNumber1L("999999999999999999");
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < count; i++) {
+            accumulator.add(nines);
+        }
+        NaturalNumber sum = accumulator.result();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("999999999999999999000", sum.toString());
+        assertEquals(ninesExpected, nines);
+    }
+
+    @Test
+    public final void testResultThenAddMore() {
+        /*
+         * Set up variables
+         */
+        NaturalNumberAccumulator accumulator = new NaturalNumberAccumulator();
+        accumulator.add(new NaturalNumber3(999_999_999));
+        /*
+         * Call method under test
+         */
+        NaturalNumber first = accumulator.result();
+        accumulator.add(new NaturalNumber3(1));
+        NaturalNumber second = accumulator.result();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("999999999", first.toString());
+        assertEquals("1000000000", second.toString());
+    }
+
+    @Test
+    public final void testSumAllMixedKernels() {
+        /*
+         * Set up variables
+         */
+        final int count = 2_000;
+        final int maxDigits = 60;
+        BigInteger[] expected = { BigInteger.ZERO };
+        List<NaturalNumber> numbers = randomNumbers(new Random(SEED), count,
+                maxDigits, expected);
+        /*
+         * Call method under test
+         */
+        NaturalNumber sum = NaturalNumberAccumulator.sumAll(numbers);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(expected[0].toString(), sum.toString());
+    }
+
+    @Test
+    public final void testMerge() {
+        /*
+         * Set up variables
+         */
+        final int count = 500;
+        final int maxDigits = 40;
+        Random random = new Random(SEED);
+        BigInteger[] expected = { BigInteger.ZERO };
+        NaturalNumberAccumulator a = new NaturalNumberAccumulator();
+        NaturalNumberAccumulator b = new NaturalNumberAccumulator();
+        for (NaturalNumber n : randomNumbers(random, count, maxDigits,
+                expected)) {
+            a.add(n);
+        }
+        BigInteger aExpected = expected[0];
+        for (NaturalNumber n : randomNumbers(random, count, 2 * maxDigits,
+                expected)) {
+            b.add(n);
+        }
+        BigInteger bExpected = expected[0].subtract(aExpected);
+        /*
+         * Call method under test
+         */
+        a.merge(b);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(expected[0].toString(), a.result().toString());
+        assertEquals(bExpected.toString(), b.result().toString());
+    }
+
+    @Test
+    public final void testParallelSumAllMatchesSumAll() {
+        /*
+         * Set up variables
+         */
+        final int count = 20_000;
+        final int maxDigits = 30;
+        BigInteger[] expected = { BigInteger.ZERO };
+        List<NaturalNumber> numbers = randomNumbers(new Random(SEED), count,
+                maxDigits, expected);
+        /*
+         * Call method under test
+         */
+        NaturalNumber parallelSum = NaturalNumberAccumulator
+                .parallelSumAll(numbers);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(expected[0].toString(), parallelSum.toString());
+        assertEquals(NaturalNumberAccumulator.sumAll(numbers), parallelSum);
+    }
+
+}
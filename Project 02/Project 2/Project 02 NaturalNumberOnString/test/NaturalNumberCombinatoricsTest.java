@@ -0,0 +1,173 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+
+/**
+ * JUnit test fixture for {@code NaturalNumberCombinatorics}.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ */
+public class NaturalNumberCombinatoricsTest {
+
+    /**
+     * Returns {@code n!} computed by repeated multiplication with
+     * {@code BigInteger}.
+     *
+     * @param n
+     *            the number whose factorial is computed
+     * @return the factorial
+     */
+    private static BigInteger referenceFactorial(int n) {
+        BigInteger result = BigInteger.ONE;
+        for (int i = 2; i <= n; i++) {
+            result = result.multiply(BigInteger.valueOf(i));
+        }
+        return result;
+    }
+
+    @Test
+    public final void testFactorialZeroAndOne() {
+        /*
+         * Call method under test
+         */
+        NaturalNumber zero = NaturalNumberCombinatorics.factorial(0);
+        NaturalNumber one = NaturalNumberCombinatorics.factorial(1);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("1", zero.toString());
+        assertEquals("1", one.toString());
+    }
+
+    @Test
+    public final void testFactorialSmall() {
+        /*
+         * Call method under test
+         */
+        NaturalNumber n = NaturalNumberCombinatorics.factorial(20);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("2432902008176640000", n.toString());
+    }
+
+    @Test
+    public final void testFactorialRange() {
+        final int max = 150;
+        for (int i = 0; i <= max; i++) {
+            /*
+             * Call method under test
+             */
+            NaturalNumber n = NaturalNumberCombinatorics.factorial(i);
+            /*
+             * Assert that values of variables match expectations
+             */
+            assertEquals(referenceFactorial(i).toString(), n.toString());
+        }
+    }
+
+    @Test
+    public final void testFactorialLarge() {
+        /*
+         * Set up variables
+         */
+        final int n = 5_000;
+        String expected = referenceFactorial(n).toString();
+        /*
+         * Call method under test
+         */
+        NaturalNumber result = NaturalNumberCombinatorics.factorial(n);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(expected, result.toString());
+    }
+
+    @Test
+    public final void testBinomialEdges() {
+        /*
+         * Call method under test
+         */
+        NaturalNumber none = NaturalNumberCombinatorics.binomial(0, 0);
+        NaturalNumber all = NaturalNumberCombinatorics.binomial(57, 57);
+        NaturalNumber one = NaturalNumberCombinatorics.binomial(57, 1);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("1", none.toString());
+        assertEquals("1", all.toString());
+        assertEquals("57", one.toString());
+    }
+
+    @Test
+    public final void testBinomialPascalRows() {
+        final int rows = 60;
+        for (int n = 0; n <= rows; n++) {
+            BigInteger expected = BigInteger.ONE;
+            for (int k = 0; k <= n; k++) {
+                /*
+                 * Call method under test
+                 */
+                NaturalNumber c = NaturalNumberCombinatorics.binomial(n, k);
+                /*
+                 * Assert that values of variables match expectations
+                 */
+                assertEquals(expected.toString(), c.toString());
+                expected = expected.multiply(BigInteger.valueOf(n - k))
+                        .divide(BigInteger.valueOf(k + 1));
+            }
+        }
+    }
+
+    @Test
+    public final void testBinomialLarge() {
+        /*
+         * Set up variables
+         */
+        final int n = 4_000;
+        final int k = 1_357;
+        String expected = referenceFactorial(n)
+                .divide(referenceFactorial(k)
+                        .multiply(referenceFactorial(n - k)))
+                .toString();
+        /*
+         * Call method under test
+         */
+        NaturalNumber c = NaturalNumberCombinatorics.binomial(n, k);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(expected, c.toString());
+    }
+
+    @Test
+    public final void testFactorialParallelMatchesSequential() {
+        /*
+         * Set up variables
+         */
+        final int n = 30_000;
+        final int threads = 4;
+        NaturalNumber sequential = NaturalNumberCombinatorics.factorial(n);
+        /*
+         * Call method under test
+         */
+        NaturalNumber4.setMultiplyParallelism(threads);
+        NaturalNumber parallel;
+        try {
+            parallel = NaturalNumberCombinatorics.factorial(n);
+        } finally {
+            NaturalNumber4.setMultiplyParallelism(1);
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(sequential, parallel);
+        assertTrue(parallel instanceof NaturalNumber4);
+    }
+
+}
@@ -0,0 +1,156 @@
+import java.util.function.Supplier;
+
+import components.map.Map;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Compares {@code Map4} indexed by {@code hashCode() mod |hashTable|} with
+ * {@code Map4} in mixed mode, starting from the hash table sizes the
+ * {@code Map4Test*} fixtures use. Each round adds a fixed set of keys, looks
+ * each one up with {@code hasKey} and {@code value}, and removes them all, and
+ * the mean time per key of the round is reported.
+ *
+ * <p>
+ * Two key sets are used: {@code String}s, whose hash codes are already well
+ * spread, and {@code Integer} multiples of 1024, whose hash codes all share
+ * their low 10 bits and so need mixing (or a prime table size) to spread.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public final class Map4IndexingBenchmark {
+
+    /**
+     * Hash table sizes to start from.
+     */
+    private static final int[] TABLE_SIZES = {3, 30, 509, 1009};
+
+    /**
+     * Default number of keys.
+     */
+    private static final int DEFAULT_KEYS = 10_000;
+
+    /**
+     * Spacing of the {@code Integer} keys.
+     */
+    private static final int INTEGER_KEY_STRIDE = 1024;
+
+    /**
+     * Number of untimed rounds before timing starts.
+     */
+    private static final int WARMUP_ROUNDS = 20;
+
+    /**
+     * Number of timed rounds.
+     */
+    private static final int TIMED_ROUNDS = 50;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private Map4IndexingBenchmark() {
+    }
+
+    /**
+     * Runs one round on a map made by {@code constructor}: adds every key,
+     * looks each one up, and removes them all.
+     *
+     * @param <K>
+     *            type of key
+     * @param constructor
+     *            makes an empty map
+     * @param keys
+     *            the keys
+     * @return a value depending on the lookups, so that they cannot be
+     *         optimized away
+     */
+    private static <K> long round(Supplier<Map<K, Integer>> constructor,
+            K[] keys) {
+        long check = 0;
+        Map<K, Integer> map = constructor.get();
+        for (int i = 0; i < keys.length; i++) {
+            map.add(keys[i], i);
+        }
+        for (K key : keys) {
+            if (map.hasKey(key)) {
+                check += map.value(key);
+            }
+        }
+        for (K key : keys) {
+            map.remove(key);
+        }
+        return check;
+    }
+
+    /**
+     * Times {@code TIMED_ROUNDS} rounds on maps made by {@code constructor}
+     * and reports the mean time per key on {@code out}.
+     *
+     * @param <K>
+     *            type of key
+     * @param out
+     *            the output stream
+     * @param mode
+     *            the name of the indexing mode
+     * @param keyType
+     *            the name of the key set
+     * @param tableSize
+     *            the starting hash table size
+     * @param constructor
+     *            makes an empty map
+     * @param keys
+     *            the keys
+     * @updates out.content
+     * @requires out.is_open
+     */
+    private static <K> void run(SimpleWriter out, String mode, String keyType,
+            int tableSize, Supplier<Map<K, Integer>> constructor, K[] keys) {
+        long check = 0;
+        for (int r = 0; r < WARMUP_ROUNDS; r++) {
+            check += round(constructor, keys);
+        }
+        long start = System.nanoTime();
+        for (int r = 0; r < TIMED_ROUNDS; r++) {
+            check += round(constructor, keys);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (check == 0 && keys.length > 1) {
+            throw new AssertionError("lookups gave the wrong answers");
+        }
+        out.println(mode + "," + keyType + "," + tableSize + "," + keys.length
+                + "," + (double) elapsed / ((long) TIMED_ROUNDS * keys.length));
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; the optional first one is the
+     *            number of keys
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        int count = DEFAULT_KEYS;
+        if (args.length > 0) {
+            count = Integer.parseInt(args[0]);
+        }
+        String[] strings = new String[count];
+        Integer[] integers = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            strings[i] = "key" + i;
+            integers[i] = i * INTEGER_KEY_STRIDE;
+        }
+        out.println("mode,keys,table_size,entries,ns_per_key");
+        for (int size : TABLE_SIZES) {
+            run(out, "modulo", "String", size, () -> new Map4<>(size), strings);
+            run(out, "mixed", "String", size, () -> Map4.mixed(size), strings);
+            run(out, "modulo", "Integer", size, () -> new Map4<>(size),
+                    integers);
+            run(out, "mixed", "Integer", size, () -> Map4.mixed(size),
+                    integers);
+        }
+        out.close();
+    }
+
+}
@@ -0,0 +1,126 @@
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import components.map.Map;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Measures the latency of each {@code add} while a {@code Map4} grows from one
+ * bucket to a few million entries, once with the hash table regrown all at
+ * once and once in incremental mode, and reports percentiles and the worst
+ * case. A full rehash shows up as a handful of very slow calls; incremental
+ * mode spreads the same work over many calls.
+ *
+ * <p>
+ * Garbage collection pauses land on whichever {@code add} is running, so run
+ * with a large fixed heap (e.g. {@code -Xms3g -Xmx3g}) to keep them from
+ * hiding the rehash.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public final class Map4ResizeLatencyBenchmark {
+
+    /**
+     * Default number of entries added.
+     */
+    private static final int DEFAULT_ENTRIES = 2_000_000;
+
+    /**
+     * Percentiles reported.
+     */
+    private static final double[] PERCENTILES = {50.0, 99.0, 99.9, 99.99};
+
+    /**
+     * Number of times each mode is run, so that the last run is measured with
+     * the code compiled.
+     */
+    private static final int RUNS = 3;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private Map4ResizeLatencyBenchmark() {
+    }
+
+    /**
+     * Adds {@code keys} to a map made by {@code constructor} and returns the
+     * time each {@code add} took, in nanoseconds, sorted.
+     *
+     * @param constructor
+     *            makes an empty map
+     * @param keys
+     *            the keys to add
+     * @return the sorted latencies
+     */
+    private static long[] latencies(Supplier<Map<Integer, Integer>> constructor,
+            Integer[] keys) {
+        long[] result = new long[keys.length];
+        Map<Integer, Integer> map = constructor.get();
+        for (int i = 0; i < keys.length; i++) {
+            long start = System.nanoTime();
+            map.add(keys[i], keys[i]);
+            result[i] = System.nanoTime() - start;
+        }
+        if (map.size() != keys.length) {
+            throw new AssertionError("entries were lost");
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Measures one mode and reports it on {@code out}.
+     *
+     * @param out
+     *            the output stream
+     * @param mode
+     *            the name of the mode
+     * @param constructor
+     *            makes an empty map
+     * @param keys
+     *            the keys to add
+     * @updates out.content
+     * @requires out.is_open
+     */
+    private static void run(SimpleWriter out, String mode,
+            Supplier<Map<Integer, Integer>> constructor, Integer[] keys) {
+        long[] sorted = latencies(constructor, keys);
+        for (int r = 1; r < RUNS; r++) {
+            System.gc();
+            sorted = latencies(constructor, keys);
+        }
+        out.print(mode + "," + keys.length);
+        for (double p : PERCENTILES) {
+            int index = (int) Math.min(sorted.length - 1,
+                    Math.ceil(p / 100.0 * sorted.length) - 1);
+            out.print("," + sorted[Math.max(index, 0)]);
+        }
+        out.println("," + sorted[sorted.length - 1]);
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; the optional first one is the
+     *            number of entries
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        int count = DEFAULT_ENTRIES;
+        if (args.length > 0) {
+            count = Integer.parseInt(args[0]);
+        }
+        Integer[] keys = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = i;
+        }
+        out.println("mode,entries,p50_ns,p99_ns,p99.9_ns,p99.99_ns,max_ns");
+        run(out, "all-at-once", () -> new Map4<>(1), keys);
+        run(out, "incremental", () -> Map4.incremental(1), keys);
+        out.close();
+    }
+
+}
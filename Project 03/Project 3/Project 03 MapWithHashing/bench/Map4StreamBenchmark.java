@@ -0,0 +1,116 @@
+import components.map.Map.Pair;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Measures how long it takes to sum the values of every entry of a large
+ * {@code Map4}: with its {@code Iterator}, with {@code stream} and with
+ * {@code parallelStream}. The parallel stream only beats the others if there
+ * are processors for its parts to run on, so compare runs on the same
+ * machine.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public final class Map4StreamBenchmark {
+
+    /**
+     * Default number of entries in the map.
+     */
+    private static final int DEFAULT_ENTRIES = 10_000_000;
+
+    /**
+     * Number of untimed runs before the timed one.
+     */
+    private static final int WARMUP_RUNS = 2;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private Map4StreamBenchmark() {
+    }
+
+    /**
+     * Returns the sum of the values of {@code map}, found the way
+     * {@code traversal} names.
+     *
+     * @param map
+     *            the map
+     * @param traversal
+     *            "iterator", "stream" or "parallelStream"
+     * @return the sum
+     */
+    private static long sum(Map4<Integer, Integer> map, String traversal) {
+        long result = 0;
+        if (traversal.equals("iterator")) {
+            for (Pair<Integer, Integer> p : map) {
+                result += p.value();
+            }
+        } else if (traversal.equals("stream")) {
+            result = map.stream().mapToLong(Pair::value).sum();
+        } else {
+            result = map.parallelStream().mapToLong(Pair::value).sum();
+        }
+        return result;
+    }
+
+    /**
+     * Times one way of summing {@code map} and reports it on {@code out}.
+     *
+     * @param out
+     *            the output stream
+     * @param map
+     *            the map
+     * @param traversal
+     *            "iterator", "stream" or "parallelStream"
+     * @updates out.content
+     * @requires out.is_open
+     */
+    private static void run(SimpleWriter out, Map4<Integer, Integer> map,
+            String traversal) {
+        long expected = (long) map.size() * (map.size() - 1) / 2;
+        long elapsed = 0;
+        for (int r = 0; r <= WARMUP_RUNS; r++) {
+            long start = System.nanoTime();
+            long total = sum(map, traversal);
+            elapsed = System.nanoTime() - start;
+            if (total != expected) {
+                throw new AssertionError(traversal + " summed " + total
+                        + ", not " + expected);
+            }
+        }
+        out.println(traversal + "," + map.size() + ","
+                + elapsed / NANOS_PER_SECOND + ","
+                + map.size() * NANOS_PER_SECOND / elapsed);
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; the optional first one is the
+     *            number of entries in the map
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        int entries = DEFAULT_ENTRIES;
+        if (args.length > 0) {
+            entries = Integer.parseInt(args[0]);
+        }
+        Map4<Integer, Integer> map = new Map4<>();
+        for (int i = 0; i < entries; i++) {
+            map.add(i, i);
+        }
+        out.println("traversal,entries,seconds,entries_per_second");
+        run(out, map, "iterator");
+        run(out, map, "stream");
+        run(out, map, "parallelStream");
+        out.close();
+    }
+
+}
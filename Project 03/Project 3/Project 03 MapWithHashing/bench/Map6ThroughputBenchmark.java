@@ -0,0 +1,190 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import components.map.Map;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Measures how many words per second 1, 2, 4, 8 and 16 threads can count into
+ * one shared map: a {@code Map6}, using {@code Map6.increment}, and, for
+ * comparison, a {@code Map4} guarded by a single lock. Each thread counts its
+ * own pseudo-random sequence of words drawn from a fixed vocabulary.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public final class Map6ThroughputBenchmark {
+
+    /**
+     * Thread counts measured.
+     */
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+
+    /**
+     * Default number of words each thread counts.
+     */
+    private static final int DEFAULT_WORDS_PER_THREAD = 1_000_000;
+
+    /**
+     * Number of different words.
+     */
+    private static final int VOCABULARY = 50_000;
+
+    /**
+     * Number of untimed runs before the timed one.
+     */
+    private static final int WARMUP_RUNS = 2;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private Map6ThroughputBenchmark() {
+    }
+
+    /**
+     * Counts one word into a {@code Map4} under a single lock.
+     *
+     * @param map
+     *            the map of counts, which is also the lock
+     * @param word
+     *            the word
+     */
+    private static void countLocked(Map<String, Integer> map, String word) {
+        synchronized (map) {
+            if (map.hasKey(word)) {
+                map.replaceValue(word, map.value(word) + 1);
+            } else {
+                map.add(word, 1);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code threadCount} threads, each passing its words to
+     * {@code count}, and returns the elapsed time in nanoseconds.
+     *
+     * @param threadCount
+     *            the number of threads
+     * @param words
+     *            the words of each thread
+     * @param count
+     *            counts one word
+     * @return the elapsed time
+     */
+    private static long timeThreads(int threadCount, String[][] words,
+            Consumer<String> count) {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            String[] mine = words[t];
+            threads.add(new Thread(() -> {
+                for (String word : mine) {
+                    count.accept(word);
+                }
+            }));
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Measures one kind of map with {@code threadCount} threads and reports it
+     * on {@code out}.
+     *
+     * @param out
+     *            the output stream
+     * @param name
+     *            the name of the map
+     * @param threadCount
+     *            the number of threads
+     * @param words
+     *            the words of each thread
+     * @param striped
+     *            whether to use {@code Map6} rather than a locked
+     *            {@code Map4}
+     * @updates out.content
+     * @requires out.is_open
+     */
+    private static void run(SimpleWriter out, String name, int threadCount,
+            String[][] words, boolean striped) {
+        long elapsed = 0;
+        long total = 0;
+        for (int r = 0; r <= WARMUP_RUNS; r++) {
+            Map<String, Integer> counts;
+            Consumer<String> count;
+            if (striped) {
+                Map6<String, Integer> map = new Map6<>();
+                counts = map;
+                count = word -> Map6.increment(map, word);
+            } else {
+                Map<String, Integer> map = new Map4<>();
+                counts = map;
+                count = word -> countLocked(map, word);
+            }
+            elapsed = timeThreads(threadCount, words, count);
+            total = 0;
+            for (Map.Pair<String, Integer> p : counts) {
+                total += p.value();
+            }
+        }
+        long expected = (long) threadCount * words[0].length;
+        if (total != expected) {
+            throw new AssertionError(name + " counted " + total + " words, not "
+                    + expected);
+        }
+        out.println(name + "," + threadCount + "," + expected + ","
+                + elapsed / NANOS_PER_SECOND + ","
+                + expected * NANOS_PER_SECOND / elapsed);
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; the optional first one is the
+     *            number of words each thread counts
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        int wordsPerThread = DEFAULT_WORDS_PER_THREAD;
+        if (args.length > 0) {
+            wordsPerThread = Integer.parseInt(args[0]);
+        }
+        int maxThreads = THREAD_COUNTS[THREAD_COUNTS.length - 1];
+        String[] vocabulary = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            vocabulary[i] = "word" + i;
+        }
+        String[][] words = new String[maxThreads][wordsPerThread];
+        for (int t = 0; t < maxThreads; t++) {
+            Random random = new Random(t);
+            for (int i = 0; i < wordsPerThread; i++) {
+                words[t][i] = vocabulary[random.nextInt(VOCABULARY)];
+            }
+        }
+        out.println("map,threads,words,seconds,words_per_second");
+        for (int threadCount : THREAD_COUNTS) {
+            run(out, "Map6", threadCount, words, true);
+            run(out, "locked Map4", threadCount, words, false);
+        }
+        out.close();
+    }
+
+}
@@ -0,0 +1,262 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import components.map.Map;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Measures how many operations per second 1, 2, 4, 8 and 16 threads get out
+ * of one shared map under a read-heavy load: for every {@code WRITE_EVERY}
+ * operations, one adds or removes a key of the thread's own and the rest look
+ * up pseudo-random keys with {@code value} or {@code hasKey}. The lock-free
+ * {@code Map7} is compared with the lock-striped {@code Map6} and with a
+ * {@code Map4} guarded by a single lock.
+ *
+ * <p>
+ * Reads only scale with threads if there are processors for them to run on,
+ * so compare runs on the same machine.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public final class Map7ReadScalingBenchmark {
+
+    /**
+     * Thread counts measured.
+     */
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+
+    /**
+     * Default number of operations each thread does.
+     */
+    private static final int DEFAULT_OPERATIONS_PER_THREAD = 2_000_000;
+
+    /**
+     * Number of keys in the map before the threads start.
+     */
+    private static final int KEYS = 100_000;
+
+    /**
+     * One operation in this many is a write.
+     */
+    private static final int WRITE_EVERY = 100;
+
+    /**
+     * Number of untimed runs before the timed one.
+     */
+    private static final int WARMUP_RUNS = 2;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private Map7ReadScalingBenchmark() {
+    }
+
+    /**
+     * A map with everything each thread does to it; for {@code Map4}, every
+     * operation takes the map's lock.
+     */
+    private interface Operations {
+
+        /**
+         * Adds {@code key} if it is not in the map and removes it if it is.
+         *
+         * @param key
+         *            the key
+         */
+        void toggle(String key);
+
+        /**
+         * Returns the value of {@code key}, or 0 if it is not in the map.
+         *
+         * @param key
+         *            the key
+         * @return the value
+         */
+        int read(String key);
+
+    }
+
+    /**
+     * Returns the operations on {@code map}, each taking the map's lock if
+     * {@code locked}.
+     *
+     * @param map
+     *            the map
+     * @param locked
+     *            whether to lock the map around each operation
+     * @return the operations
+     */
+    private static Operations operationsOn(Map<String, Integer> map,
+            boolean locked) {
+        Operations unlocked = new Operations() {
+            @Override
+            public void toggle(String key) {
+                if (map.hasKey(key)) {
+                    map.remove(key);
+                } else {
+                    map.add(key, 1);
+                }
+            }
+
+            @Override
+            public int read(String key) {
+                int result = 0;
+                if (map.hasKey(key)) {
+                    result = map.value(key);
+                }
+                return result;
+            }
+        };
+        Operations result = unlocked;
+        if (locked) {
+            result = new Operations() {
+                @Override
+                public void toggle(String key) {
+                    synchronized (map) {
+                        unlocked.toggle(key);
+                    }
+                }
+
+                @Override
+                public int read(String key) {
+                    synchronized (map) {
+                        return unlocked.read(key);
+                    }
+                }
+            };
+        }
+        return result;
+    }
+
+    /**
+     * Runs {@code threadCount} threads, each doing its operations on
+     * {@code map}, and returns the elapsed time in nanoseconds.
+     *
+     * @param threadCount
+     *            the number of threads
+     * @param probes
+     *            the keys each thread reads, in order
+     * @param map
+     *            the operations on the map
+     * @return the elapsed time
+     */
+    private static long timeThreads(int threadCount, String[][] probes,
+            Operations map) {
+        List<Thread> threads = new ArrayList<>();
+        long[] checks = new long[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final int number = t;
+            String[] mine = probes[t];
+            threads.add(new Thread(() -> {
+                long check = 0;
+                for (int i = 0; i < mine.length; i++) {
+                    if (i % WRITE_EVERY == 0) {
+                        map.toggle(number + ":" + (i / WRITE_EVERY % KEYS));
+                    } else {
+                        check += map.read(mine[i]);
+                    }
+                }
+                checks[number] = check;
+            }));
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        for (long check : checks) {
+            if (check == 0) {
+                throw new AssertionError("lookups gave the wrong answers");
+            }
+        }
+        return elapsed;
+    }
+
+    /**
+     * Measures one kind of map with {@code threadCount} threads and reports it
+     * on {@code out}.
+     *
+     * @param out
+     *            the output stream
+     * @param name
+     *            the name of the map
+     * @param constructor
+     *            makes an empty map
+     * @param locked
+     *            whether to lock the map around each operation
+     * @param threadCount
+     *            the number of threads
+     * @param probes
+     *            the keys each thread reads, in order
+     * @updates out.content
+     * @requires out.is_open
+     */
+    private static void run(SimpleWriter out, String name,
+            Supplier<Map<String, Integer>> constructor, boolean locked,
+            int threadCount, String[][] probes) {
+        long elapsed = 0;
+        for (int r = 0; r <= WARMUP_RUNS; r++) {
+            Map<String, Integer> map = constructor.get();
+            for (int i = 0; i < KEYS; i++) {
+                map.add("key" + i, i + 1);
+            }
+            elapsed = timeThreads(threadCount, probes,
+                    operationsOn(map, locked));
+        }
+        long operations = (long) threadCount * probes[0].length;
+        out.println(name + "," + threadCount + "," + operations + ","
+                + elapsed / NANOS_PER_SECOND + ","
+                + operations * NANOS_PER_SECOND / elapsed);
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; the optional first one is the
+     *            number of operations each thread does
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        int operationsPerThread = DEFAULT_OPERATIONS_PER_THREAD;
+        if (args.length > 0) {
+            operationsPerThread = Integer.parseInt(args[0]);
+        }
+        int maxThreads = THREAD_COUNTS[THREAD_COUNTS.length - 1];
+        String[] keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "key" + i;
+        }
+        String[][] probes = new String[maxThreads][operationsPerThread];
+        for (int t = 0; t < maxThreads; t++) {
+            Random random = new Random(t);
+            for (int i = 0; i < operationsPerThread; i++) {
+                probes[t][i] = keys[random.nextInt(KEYS)];
+            }
+        }
+        out.println("map,threads,operations,seconds,operations_per_second");
+        for (int threadCount : THREAD_COUNTS) {
+            run(out, "Map7", Map7::new, false, threadCount, probes);
+            run(out, "Map6", Map6::new, false, threadCount, probes);
+            run(out, "locked Map4", Map4::new, true, threadCount, probes);
+        }
+        out.close();
+    }
+
+}
@@ -0,0 +1,206 @@
+import java.util.Random;
+import java.util.function.Supplier;
+
+import components.map.Map;
+import components.map.Map1L;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Compares {@code Map5}, {@code Map4} and {@code Map1L} on maps from
+ * {@code String} to {@code Integer}: mean time of {@code value} on keys that
+ * are present, mean time of {@code hasKey} on keys that are not, and heap
+ * retained per entry (not counting the keys and values themselves, which all
+ * maps share).
+ *
+ * <p>
+ * Retained heap is read from {@code Runtime} after asking for garbage
+ * collection, so it is only an estimate; run with a fixed heap (e.g.
+ * {@code -Xms2g -Xmx2g}) for steadier numbers.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public final class MapLookupBenchmark {
+
+    /**
+     * Default map sizes.
+     */
+    private static final int[] DEFAULT_SIZES = {1_000, 100_000, 1_000_000};
+
+    /**
+     * Least number of lookups timed for each map, whatever its size.
+     */
+    private static final int MIN_LOOKUPS = 4_000_000;
+
+    /**
+     * Seed for the lookup order, fixed so runs are comparable.
+     */
+    private static final long SEED = 2231L;
+
+    /**
+     * Number of times garbage collection is asked for before reading the heap.
+     */
+    private static final int GC_ROUNDS = 3;
+
+    /**
+     * The map being measured.
+     */
+    private static Map<String, Integer> measured;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private MapLookupBenchmark() {
+    }
+
+    /**
+     * Returns the heap in use after asking for garbage collection.
+     *
+     * @return the bytes in use
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < GC_ROUNDS; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Returns {@code keys} in a pseudo-random order.
+     *
+     * @param keys
+     *            the keys
+     * @param random
+     *            the source of randomness
+     * @return a shuffled copy of keys
+     */
+    private static String[] shuffled(String[] keys, Random random) {
+        String[] result = keys.clone();
+        for (int i = result.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String tmp = result[i];
+            result[i] = result[j];
+            result[j] = tmp;
+        }
+        return result;
+    }
+
+    /**
+     * Times lookups of {@code probes} in {@code map}, going through them
+     * {@code rounds} times, and returns the mean nanoseconds per lookup.
+     *
+     * @param map
+     *            the map
+     * @param probes
+     *            the keys to look up
+     * @param present
+     *            whether the probes are keys of map, in which case
+     *            {@code value} is timed, or not, in which case {@code hasKey}
+     *            is
+     * @param rounds
+     *            the number of passes over probes
+     * @return the mean time per lookup
+     */
+    private static double timeLookups(Map<String, Integer> map,
+            String[] probes, boolean present, int rounds) {
+        long check = 0;
+        long start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            for (String key : probes) {
+                if (present) {
+                    check += map.value(key);
+                } else if (map.hasKey(key)) {
+                    check++;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (present == (check == 0)) {
+            throw new AssertionError("lookups gave the wrong answers");
+        }
+        return (double) elapsed / ((long) rounds * probes.length);
+    }
+
+    /**
+     * Measures the map built by {@code constructor} with {@code size} entries
+     * and reports it on {@code out}.
+     *
+     * @param out
+     *            the output stream
+     * @param name
+     *            the name of the implementation
+     * @param constructor
+     *            makes an empty map
+     * @param keys
+     *            the keys to add
+     * @param values
+     *            the values to add, one per key
+     * @param misses
+     *            keys that are not added
+     * @updates out.content
+     * @requires out.is_open and |keys| = |values| = |misses|
+     */
+    private static void run(SimpleWriter out, String name,
+            Supplier<Map<String, Integer>> constructor, String[] keys,
+            Integer[] values, String[] misses) {
+        /*
+         * The map is only ever held in the static field, so that dropping it
+         * from there is certain to make it garbage; a local variable might
+         * keep it reachable (in the interpreter) or not (once compiled)
+         */
+        measured = constructor.get();
+        for (int i = 0; i < keys.length; i++) {
+            measured.add(keys[i], values[i]);
+        }
+        Random random = new Random(SEED);
+        String[] hits = shuffled(keys, random);
+        int rounds = Math.max(1, MIN_LOOKUPS / keys.length);
+        timeLookups(measured, hits, true, rounds);
+        double hitNanos = timeLookups(measured, hits, true, rounds);
+        timeLookups(measured, misses, false, rounds);
+        double missNanos = timeLookups(measured, misses, false, rounds);
+
+        long withMap = usedHeap();
+        measured = null;
+        long retained = withMap - usedHeap();
+
+        out.println(name + "," + keys.length + "," + hitNanos + ","
+                + missNanos + "," + (double) retained / keys.length);
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; if there are any, they are the
+     *            map sizes to measure
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        out.println("kernel,entries,ns_per_hit,ns_per_miss,bytes_per_entry");
+        for (int size : sizes) {
+            String[] keys = new String[size];
+            Integer[] values = new Integer[size];
+            String[] misses = new String[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = "key" + i;
+                values[i] = i + 1;
+                misses[i] = "miss" + i;
+            }
+            run(out, "Map5", Map5::new, keys, values, misses);
+            run(out, "Map4", Map4::new, keys, values, misses);
+            run(out, "Map1L", Map1L::new, keys, values, misses);
+        }
+        out.close();
+    }
+
+}
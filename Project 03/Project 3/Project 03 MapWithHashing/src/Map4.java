@@ -1,5 +1,13 @@
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import components.map.Map;
 import components.map.Map2;
@@ -9,6 +17,48 @@ import components.map.MapSecondary;
  * {@code Map} represented as a hash table using {@code Map}s for the buckets,
  * with implementations of primary methods.
  *
+ * <p>
+ * By default a key goes in bucket {@code hashCode() mod |hashTable|}, which
+ * spreads keys well when the table size is prime. A map constructed in mixed
+ * mode instead keeps a power-of-2 table and takes the low bits of the hash
+ * code after scrambling it with a bit-mixing finalizer, which replaces the
+ * division with a mask and does not depend on the table size being prime.
+ *
+ * <p>
+ * A map constructed in incremental mode does not move all its entries at once
+ * when the hash table grows. The old table is kept beside the new one, and
+ * each later {@code add}, {@code remove} or {@code removeAny} moves the
+ * entries of the next {@code MIGRATION_STEP} old buckets over, so no single
+ * call pays for a whole rehash. A key is looked for in its old bucket if that
+ * bucket has not been moved yet, and in its new bucket otherwise.
+ *
+ * <p>
+ * A bucket is a {@code Map2}, searched from one end to the other, until it
+ * holds more than {@code TREEIFY_THRESHOLD} entries whose keys are all
+ * {@code Comparable} and of one class. It is then turned into a
+ * {@code TreeBucket}, a balanced search tree ordered by hash code and then by
+ * {@code compareTo}, so that even keys that all land in one bucket, through a
+ * poor {@code hashCode} or on purpose, cost O(log n) to find. Keys that tie in
+ * that order are kept together in a {@code Map2} and told apart with
+ * {@code equals}, so {@code compareTo} need not be consistent with
+ * {@code equals}; keys that all tie cost O(n) to find, as in a {@code Map2}. It
+ * turns back into a {@code Map2} once it drops below
+ * {@code UNTREEIFY_THRESHOLD} entries or a key of another class is added to it.
+ * Keys that are not {@code Comparable} keep the linear buckets.
+ *
+ * <p>
+ * Statistics are off by default; with them on, each lookup also counts the
+ * length of the chain it searched and each new hash table is counted, and
+ * {@code statistics} reports these with the current chain lengths in a
+ * {@code Map4Statistics} snapshot.
+ *
+ * <p>
+ * Besides {@code iterator}, the entries can be traversed by a
+ * {@code Spliterator} that splits on ranges of buckets and knows exactly how
+ * many entries each part holds, and so by {@code stream} and
+ * {@code parallelStream}. As with {@code iterator}, {@code this} must not be
+ * changed while they are in use.
+ *
  * @param <K>
  *            type of {@code Map} domain (key) entries
  * @param <V>
@@ -19,20 +69,61 @@ import components.map.MapSecondary;
  *     where (0 <= i  and  i < |$this.hashTable|  and
  *            <pf> = $this.hashTable[i, i+1)  and
  *            x is in DOMAIN(pf))
- *   ([computed result of x.hashCode()] mod |$this.hashTable| = i))  and
- * for all i: integer
- *     where (0 <= i  and  i < |$this.hashTable|)
- *   ([entry at position i in $this.hashTable is not null])  and
- * $this.size = sum i: integer, pf: PARTIAL_FUNCTION
+ *   (INDEX(x) = i))  and
+ * [a null entry of $this.hashTable or $this.oldHashTable is an empty
+ *  bucket, i.e., pf = {} where <pf> is that entry]  and
+ * ($this.oldHashTable = null  or
+ *  (0 <= $this.migratedBuckets < |$this.oldHashTable|  and
+ *   for all i: integer
+ *       where (0 <= i  and  i < |$this.oldHashTable|)
+ *     ((i < $this.migratedBuckets  implies
+ *         [entry at position i in $this.oldHashTable is null])  and
+ *      (i >= $this.migratedBuckets  implies
+ *         for all x: K
+ *             where (x is in DOMAIN($this.oldHashTable[i]))
+ *           (OLD_INDEX(x) = i  and
+ *            [x is in no bucket of $this.hashTable])))))  and
+ * ($this.oldHashTable = null  implies  $this.migratedBuckets = 0)  and
+ * ($this.oldHashTable /= null  implies  $this.incremental)  and
+ * $this.size = [total size of the buckets of $this.hashTable and of
+ *               $this.oldHashTable]  and
+ * |$this.bucketPosition| = |$this.hashTable|  and
+ * |$this.nonEmptyBuckets| = |$this.hashTable|  and
+ * $this.nonEmptyCount = |{i: integer, pf: PARTIAL_FUNCTION
+ *     where (0 <= i  and  i < |$this.hashTable|  and
+ *            <pf> = $this.hashTable[i, i+1)  and  pf /= {})}|  and
+ * for all i: integer, pf: PARTIAL_FUNCTION
  *     where (0 <= i  and  i < |$this.hashTable|  and
  *            <pf> = $this.hashTable[i, i+1))
- *   (|pf|)
+ *   ((pf = {}  implies  $this.bucketPosition[i] = -1)  and
+ *    (pf /= {}  implies
+ *       (0 <= $this.bucketPosition[i] < $this.nonEmptyCount  and
+ *        $this.nonEmptyBuckets[$this.bucketPosition[i]] = i)))  and
+ * 0 < $this.requestedSize <= |$this.hashTable|  and
+ * $this.loadFactor > 0  and  $this.growthFactor >= 2  and
+ * ($this.mixed  implies
+ *    [|$this.hashTable|, $this.requestedSize and $this.growthFactor are
+ *     powers of 2])  and
+ * [$this.size <= $this.loadFactor * |$this.hashTable|, unless
+ *  |$this.hashTable| cannot grow any further]
+ * where INDEX(x) =
+ *   [if $this.mixed then MIX([computed result of x.hashCode()]) mod
+ *                        |$this.hashTable|
+ *    else [computed result of x.hashCode()] mod |$this.hashTable|]  and
+ *   OLD_INDEX(x) = [the same with |$this.oldHashTable| in place of
+ *                   |$this.hashTable|]
  * </pre>
  * @correspondence <pre>
- * this = union i: integer, pf: PARTIAL_FUNCTION
- *            where (0 <= i  and  i < |$this.hashTable|  and
- *                   <pf> = $this.hashTable[i, i+1))
- *          (pf)
+ * this = (union i: integer, pf: PARTIAL_FUNCTION
+ *             where (0 <= i  and  i < |$this.hashTable|  and
+ *                    <pf> = $this.hashTable[i, i+1))
+ *           (pf))  union
+ *        (union i: integer, pf: PARTIAL_FUNCTION
+ *             where ($this.oldHashTable /= null  and
+ *                    $this.migratedBuckets <= i  and
+ *                    i < |$this.oldHashTable|  and
+ *                    <pf> = $this.oldHashTable[i, i+1))
+ *           (pf))
  * </pre>
  *
  * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
@@ -49,6 +140,41 @@ public class Map4<K, V> extends MapSecondary<K, V> {
      */
     private static final int DEFAULT_HASH_TABLE_SIZE = 101;
 
+    /**
+     * Default largest ratio of size to number of buckets before the hash
+     * table grows.
+     */
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+
+    /**
+     * Default factor by which the hash table grows.
+     */
+    private static final int DEFAULT_GROWTH_FACTOR = 2;
+
+    /**
+     * Largest size the hash table grows to.
+     */
+    private static final int MAX_HASH_TABLE_SIZE = 1 << 30;
+
+    /**
+     * Number of old buckets moved to the new hash table by each {@code add},
+     * {@code remove} and {@code removeAny} in incremental mode.
+     */
+    private static final int MIGRATION_STEP = 4;
+
+    /**
+     * Number of entries above which a bucket is turned into a tree, if its
+     * keys allow it.
+     */
+    private static final int TREEIFY_THRESHOLD = 8;
+
+    /**
+     * Number of entries below which a tree bucket is turned back into a
+     * {@code Map2}; lower than {@code TREEIFY_THRESHOLD} so that a bucket
+     * hovering around one size does not keep switching.
+     */
+    private static final int UNTREEIFY_THRESHOLD = 6;
+
     /**
      * Buckets for hashing.
      */
@@ -59,6 +185,82 @@ public class Map4<K, V> extends MapSecondary<K, V> {
      */
     private int size;
 
+    /**
+     * Indices of the non-empty buckets, in no particular order, in the first
+     * {@code nonEmptyCount} entries.
+     */
+    private int[] nonEmptyBuckets;
+
+    /**
+     * Number of non-empty buckets.
+     */
+    private int nonEmptyCount;
+
+    /**
+     * Position of each non-empty bucket in {@code nonEmptyBuckets}, or -1 for
+     * an empty bucket.
+     */
+    private int[] bucketPosition;
+
+    /**
+     * Size of hash table asked for at construction; the hash table is never
+     * smaller, and {@code clear} goes back to it.
+     */
+    private int requestedSize;
+
+    /**
+     * Largest ratio of {@code size} to the number of buckets before the hash
+     * table grows.
+     */
+    private double loadFactor;
+
+    /**
+     * Factor by which the hash table grows.
+     */
+    private int growthFactor;
+
+    /**
+     * Whether the hash table is a power of 2 indexed by mixed hash codes.
+     */
+    private boolean mixed;
+
+    /**
+     * Whether the hash table grows incrementally.
+     */
+    private boolean incremental;
+
+    /**
+     * Hash table whose entries are still being moved into {@code hashTable},
+     * or null if there is none.
+     */
+    private Map<K, V>[] oldHashTable;
+
+    /**
+     * Number of buckets of {@code oldHashTable} already moved; they are the
+     * ones at the lowest positions.
+     */
+    private int migratedBuckets;
+
+    /**
+     * Whether lookups and resizes are being counted.
+     */
+    private boolean statisticsEnabled;
+
+    /**
+     * Number of lookups counted.
+     */
+    private long lookups;
+
+    /**
+     * Total length of the chains the counted lookups searched.
+     */
+    private long probes;
+
+    /**
+     * Number of times the hash table has been replaced while counting.
+     */
+    private long resizes;
+
     /**
      * Computes {@code a} mod {@code b} as % should have been defined to work.
      *
@@ -84,6 +286,73 @@ public class Map4<K, V> extends MapSecondary<K, V> {
         return remainder;
     }
 
+    /**
+     * Scrambles {@code h} so that every bit of the result depends on every
+     * bit of {@code h} (the 32-bit finalizer of MurmurHash3).
+     *
+     * @param h
+     *            the hash code to scramble
+     * @return the scrambled hash code
+     * @ensures mix = MIX(h)
+     */
+    private static int mix(int h) {
+        final int c1 = 0x85ebca6b;
+        final int c2 = 0xc2b2ae35;
+        final int shift1 = 16;
+        final int shift2 = 13;
+        int result = h ^ (h >>> shift1);
+        result *= c1;
+        result ^= result >>> shift2;
+        result *= c2;
+        result ^= result >>> shift1;
+        return result;
+    }
+
+    /**
+     * Returns the smallest power of 2 that is at least {@code n}.
+     *
+     * @param n
+     *            the least value wanted
+     * @return the power of 2
+     * @requires 0 < n <= MAX_HASH_TABLE_SIZE
+     * @ensures <pre>
+     * [powerOfTwoAtLeast is a power of 2]  and
+     * n <= powerOfTwoAtLeast < 2 * n
+     * </pre>
+     */
+    private static int powerOfTwoAtLeast(int n) {
+        int result = 1;
+        while (result < n) {
+            result *= 2;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the bucket for a key with hash code {@code hash} in a hash table
+     * of {@code length} buckets.
+     *
+     * @param hash
+     *            the hash code of the key
+     * @param length
+     *            the number of buckets
+     * @return the bucket
+     * @requires length > 0 and [length is a power of 2, if $this.mixed]
+     * @ensures <pre>
+     * bucketIndex = [if $this.mixed then MIX(hash) mod length
+     *                else hash mod length]
+     * </pre>
+     */
+    private int bucketIndex(int hash, int length) {
+        int index;
+        if (this.mixed) {
+            index = mix(hash) & (length - 1);
+        } else {
+            index = mod(hash, length);
+        }
+        return index;
+    }
+
     /**
      * Creator of initial representation.
      *
@@ -94,8 +363,10 @@ public class Map4<K, V> extends MapSecondary<K, V> {
      * |$this.hashTable| = hashTableSize  and
      * for all i: integer
      *     where (0 <= i  and  i < |$this.hashTable|)
-     *   ($this.hashTable[i, i+1) = <{}>)  and
-     * $this.size = 0
+     *   ($this.hashTable[i, i+1) = <{}>  and
+     *    $this.bucketPosition[i] = -1)  and
+     * $this.size = 0  and  $this.nonEmptyCount = 0  and
+     * $this.oldHashTable = null  and  $this.migratedBuckets = 0
      * </pre>
      */
     @SuppressWarnings("unchecked")
@@ -106,11 +377,456 @@ public class Map4<K, V> extends MapSecondary<K, V> {
          * conversion, though it cannot fail.
          */
         this.hashTable = new Map[hashTableSize];
+        /*
+         * Buckets are left null until something is added to them, so that a
+         * new hash table costs no more than its arrays
+         */
+        this.nonEmptyBuckets = new int[hashTableSize];
+        this.bucketPosition = new int[hashTableSize];
+        Arrays.fill(this.bucketPosition, -1);
+        this.size = 0;
+        this.nonEmptyCount = 0;
+        this.oldHashTable = null;
+        this.migratedBuckets = 0;
+    }
 
-        for (int i = 0; i < hashTableSize; i++) {
-            this.hashTable[i] = new Map2<>();
+    /**
+     * Returns the bucket at position {@code index} of {@code table}, putting
+     * a new empty bucket there first if it is null.
+     *
+     * @param <K>
+     *            type of {@code Map} domain (key) entries
+     * @param <V>
+     *            type of {@code Map} range (associated value) entries
+     * @param table
+     *            the hash table
+     * @param index
+     *            the position of the bucket
+     * @return the bucket
+     * @updates table
+     * @requires 0 <= index < |table|
+     * @ensures <pre>
+     * [table[index] is not null]  and  bucketIn = table[index]  and
+     * [table[index] holds the same entries as #table[index]]
+     * </pre>
+     */
+    private static <K, V> Map<K, V> bucketIn(Map<K, V>[] table, int index) {
+        if (table[index] == null) {
+            table[index] = new Map2<>();
+        }
+        return table[index];
+    }
+
+    /**
+     * Reports whether the keys of {@code bucket} can be kept in a
+     * {@code TreeBucket}: whether they are {@code Comparable} and all of one
+     * class.
+     *
+     * @param bucket
+     *            the bucket
+     * @return whether the keys can be ordered
+     * @requires |bucket| > 0
+     */
+    private static boolean canTreeify(Map<?, ?> bucket) {
+        Class<?> keyClass = null;
+        boolean result = true;
+        for (Pair<?, ?> entry : bucket) {
+            if (keyClass == null) {
+                keyClass = entry.key().getClass();
+                result = entry.key() instanceof Comparable<?>;
+            } else if (entry.key().getClass() != keyClass) {
+                result = false;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Moves every entry of {@code from} into {@code to}.
+     *
+     * @param <K>
+     *            type of {@code Map} domain (key) entries
+     * @param <V>
+     *            type of {@code Map} range (associated value) entries
+     * @param from
+     *            the bucket emptied
+     * @param to
+     *            the bucket filled
+     * @updates from, to
+     * @requires DOMAIN(from) intersection DOMAIN(to) = {}
+     * @ensures from = {} and to = #to union #from
+     */
+    private static <K, V> void moveAll(Map<K, V> from, Map<K, V> to) {
+        while (from.size() > 0) {
+            Pair<K, V> entry = from.removeAny();
+            to.add(entry.key(), entry.value());
+        }
+    }
+
+    /**
+     * Adds ({@code key}, {@code value}) to the bucket at position
+     * {@code index} of {@code table}, turning the bucket into a tree if it
+     * has grown past {@code TREEIFY_THRESHOLD} and its keys can be ordered,
+     * or back into a {@code Map2} if key cannot go in its tree.
+     *
+     * @param <K>
+     *            type of {@code Map} domain (key) entries
+     * @param <V>
+     *            type of {@code Map} range (associated value) entries
+     * @param table
+     *            the hash table
+     * @param index
+     *            the position of the bucket
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     * @updates table
+     * @requires <pre>
+     * 0 <= index < |table|  and
+     * [key is not in the bucket at position index of table]
+     * </pre>
+     * @ensures <pre>
+     * [table[index] holds the entries of #table[index] and (key, value)]
+     * </pre>
+     */
+    private static <K, V> void addToBucket(Map<K, V>[] table, int index,
+            K key, V value) {
+        Map<K, V> bucket = bucketIn(table, index);
+        if (bucket instanceof TreeBucket<?, ?>
+                && !((TreeBucket<K, V>) bucket).accepts(key)) {
+            Map<K, V> list = new Map2<>();
+            moveAll(bucket, list);
+            bucket = list;
+            table[index] = bucket;
+        }
+        bucket.add(key, value);
+        if (!(bucket instanceof TreeBucket<?, ?>)
+                && bucket.size() > TREEIFY_THRESHOLD && canTreeify(bucket)) {
+            Map<K, V> tree = new TreeBucket<>(key.getClass());
+            moveAll(bucket, tree);
+            table[index] = tree;
+        }
+    }
+
+    /**
+     * Turns the tree bucket at position {@code index} of {@code table} back
+     * into a {@code Map2} if it has dropped below
+     * {@code UNTREEIFY_THRESHOLD} entries.
+     *
+     * @param <K>
+     *            type of {@code Map} domain (key) entries
+     * @param <V>
+     *            type of {@code Map} range (associated value) entries
+     * @param table
+     *            the hash table
+     * @param index
+     *            the position of the bucket
+     * @updates table
+     * @requires 0 <= index < |table|  and  table[index] /= null
+     * @ensures [table[index] holds the same entries as #table[index]]
+     */
+    private static <K, V> void shrinkBucket(Map<K, V>[] table, int index) {
+        Map<K, V> bucket = table[index];
+        if (bucket instanceof TreeBucket<?, ?>
+                && bucket.size() < UNTREEIFY_THRESHOLD) {
+            Map<K, V> list = new Map2<>();
+            moveAll(bucket, list);
+            table[index] = list;
+        }
+    }
+
+    /**
+     * Returns the length of the chain a lookup in {@code bucket} searches:
+     * its number of entries, or the height of a balanced tree of that many
+     * entries for a tree bucket.
+     *
+     * @param bucket
+     *            the bucket, or null for an empty bucket never used
+     * @return the chain length
+     */
+    private static int chainLength(Map<?, ?> bucket) {
+        int result = 0;
+        if (bucket instanceof TreeBucket<?, ?>) {
+            result = Integer.SIZE - Integer.numberOfLeadingZeros(bucket.size());
+        } else if (bucket != null) {
+            result = bucket.size();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of entries in {@code bucket}.
+     *
+     * @param bucket
+     *            the bucket, or null for an empty bucket never used
+     * @return the number of entries
+     */
+    private static int chainSize(Map<?, ?> bucket) {
+        int result = 0;
+        if (bucket != null) {
+            result = bucket.size();
+        }
+        return result;
+    }
+
+    /**
+     * Counts a lookup in {@code bucket}, if statistics are enabled.
+     *
+     * @param bucket
+     *            the bucket searched, or null for an empty bucket never used
+     * @updates $this.lookups, $this.probes
+     */
+    private void recordLookup(Map<K, V> bucket) {
+        if (this.statisticsEnabled) {
+            this.lookups++;
+            this.probes += chainLength(bucket);
+        }
+    }
+
+    /**
+     * Lists bucket {@code index} among the non-empty buckets if an entry has
+     * just been added to it while it was empty.
+     *
+     * @param index
+     *            the bucket added to
+     * @updates $this.nonEmptyBuckets, $this.nonEmptyCount,
+     *          $this.bucketPosition
+     * @requires <pre>
+     * 0 <= index < |$this.hashTable|  and
+     * [bucket index is non-empty, and the convention holds for every other
+     *  bucket]
+     * </pre>
+     * @ensures [the convention holds for bucket index]
+     */
+    private void bucketAddedTo(int index) {
+        if (this.bucketPosition[index] < 0) {
+            this.nonEmptyBuckets[this.nonEmptyCount] = index;
+            this.bucketPosition[index] = this.nonEmptyCount;
+            this.nonEmptyCount++;
+        }
+    }
+
+    /**
+     * Drops bucket {@code index} from the non-empty buckets if an entry has
+     * just been removed from it and left it empty, moving the last listed
+     * bucket into its place.
+     *
+     * @param index
+     *            the bucket removed from
+     * @updates $this.nonEmptyBuckets, $this.nonEmptyCount,
+     *          $this.bucketPosition
+     * @requires <pre>
+     * 0 <= index < |$this.hashTable|  and
+     * [bucket index is listed, and the convention holds for every other
+     *  bucket]
+     * </pre>
+     * @ensures [the convention holds for bucket index]
+     */
+    private void bucketRemovedFrom(int index) {
+        if (this.hashTable[index].size() == 0) {
+            int position = this.bucketPosition[index];
+            int last = this.nonEmptyBuckets[this.nonEmptyCount - 1];
+            this.nonEmptyBuckets[position] = last;
+            this.bucketPosition[last] = position;
+            this.bucketPosition[index] = -1;
+            this.nonEmptyCount--;
+        }
+    }
+
+    /**
+     * Returns the position of the bucket of {@code oldHashTable} that a key
+     * with hash code {@code hash} belongs in, if that bucket has not been
+     * moved yet, and -1 otherwise.
+     *
+     * @param hash
+     *            the hash code of the key
+     * @return the position in the old hash table, or -1
+     * @ensures <pre>
+     * oldIndex = [if $this.oldHashTable /= null  and
+     *                OLD_INDEX(x) >= $this.migratedBuckets
+     *             then OLD_INDEX(x) else -1,
+     *             where x is a key with hash code hash]
+     * </pre>
+     */
+    private int oldIndex(int hash) {
+        int index = -1;
+        if (this.oldHashTable != null) {
+            index = this.bucketIndex(hash, this.oldHashTable.length);
+            if (index < this.migratedBuckets) {
+                index = -1;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the bucket {@code key} belongs in: its bucket in
+     * {@code oldHashTable} if that has not been moved yet, and its bucket in
+     * {@code hashTable} otherwise.
+     *
+     * @param key
+     *            the key
+     * @return the bucket, or null if it is empty and has never been used
+     * @requires key /= null
+     * @ensures <pre>
+     * [key is in DOMAIN(this) iff (bucketOf /= null  and
+     *                              key is in DOMAIN(bucketOf))]
+     * </pre>
+     */
+    private Map<K, V> bucketOf(K key) {
+        int hash = key.hashCode();
+        int oldIndex = this.oldIndex(hash);
+        Map<K, V> bucket;
+        if (oldIndex >= 0) {
+            bucket = this.oldHashTable[oldIndex];
+        } else {
+            bucket = this.hashTable[this.bucketIndex(hash,
+                    this.hashTable.length)];
+        }
+        return bucket;
+    }
+
+    /**
+     * Reports whether {@code key} is in {@code this}, without counting the
+     * lookup; the precondition checks use it, so that enabling assertions
+     * does not change the statistics.
+     *
+     * @param key
+     *            the key
+     * @return true iff key is in DOMAIN(this)
+     * @requires key /= null
+     */
+    private boolean contains(K key) {
+        Map<K, V> bucket = this.bucketOf(key);
+        return bucket != null && bucket.hasKey(key);
+    }
+
+    /**
+     * Moves the entries of up to {@code count} more buckets of
+     * {@code oldHashTable} into {@code hashTable}, dropping the old hash table
+     * once all of its buckets have been moved.
+     *
+     * @param count
+     *            the most buckets to move
+     * @updates $this
+     * @requires count >= 0
+     * @ensures <pre>
+     * [#$this.oldHashTable = null  implies  $this = #$this]  and
+     * [up to count more old buckets are moved]  and
+     * this = #this
+     * </pre>
+     */
+    private void migrateBuckets(int count) {
+        int remaining = count;
+        while (remaining > 0 && this.oldHashTable != null) {
+            Map<K, V> bucket = this.oldHashTable[this.migratedBuckets];
+            while (bucket != null && bucket.size() > 0) {
+                Pair<K, V> entry = bucket.removeAny();
+                int index = this.bucketIndex(entry.key().hashCode(),
+                        this.hashTable.length);
+                addToBucket(this.hashTable, index, entry.key(),
+                        entry.value());
+                this.bucketAddedTo(index);
+            }
+            this.oldHashTable[this.migratedBuckets] = null;
+            this.migratedBuckets++;
+            if (this.migratedBuckets == this.oldHashTable.length) {
+                this.oldHashTable = null;
+                this.migratedBuckets = 0;
+            }
+            remaining--;
+        }
+    }
+
+    /**
+     * Moves every entry still in {@code oldHashTable} into {@code hashTable}.
+     *
+     * @updates $this
+     * @ensures $this.oldHashTable = null and this = #this
+     */
+    private void finishMigration() {
+        this.migrateBuckets(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Replaces the hash table with an empty one of {@code newLength} buckets
+     * and starts moving the entries of the current one over to it.
+     *
+     * @param newLength
+     *            the size of the new hash table
+     * @updates $this
+     * @requires newLength > 0 and $this.oldHashTable = null
+     * @ensures <pre>
+     * |$this.hashTable| = newLength  and  $this.oldHashTable = #$this.hashTable
+     * and  this = #this
+     * </pre>
+     */
+    private void startMigration(int newLength) {
+        Map<K, V>[] oldTable = this.hashTable;
+        int oldSize = this.size;
+        if (this.statisticsEnabled) {
+            this.resizes++;
+            Map4Statistics.commitResize(oldTable.length, newLength, oldSize,
+                    this.incremental);
+        }
+        this.createNewRep(newLength);
+        this.size = oldSize;
+        this.oldHashTable = oldTable;
+    }
+
+    /**
+     * Replaces the hash table with one of {@code newLength} buckets, moving
+     * every entry to its bucket in the new table.
+     *
+     * @param newLength
+     *            the size of the new hash table
+     * @updates $this
+     * @requires newLength > 0
+     * @ensures <pre>
+     * |$this.hashTable| = newLength  and  $this.oldHashTable = null  and
+     * this = #this
+     * </pre>
+     */
+    private void rehash(int newLength) {
+        this.finishMigration();
+        this.startMigration(newLength);
+        this.finishMigration();
+    }
+
+    /**
+     * Grows the hash table by {@code growthFactor} if {@code size} has passed
+     * {@code loadFactor} times its size. All entries move to the new table at
+     * once, or, in incremental mode, over the following mutating calls.
+     *
+     * @updates $this
+     * @ensures <pre>
+     * [$this.size <= $this.loadFactor * |$this.hashTable|, unless
+     *  |$this.hashTable| = MAX_HASH_TABLE_SIZE]  and
+     * this = #this
+     * </pre>
+     */
+    private void growIfNeeded() {
+        int length = this.hashTable.length;
+        if (this.size > this.loadFactor * length
+                && length < MAX_HASH_TABLE_SIZE) {
+            long newLength = (long) length * this.growthFactor;
+            while (this.size > this.loadFactor * newLength
+                    && newLength < MAX_HASH_TABLE_SIZE) {
+                newLength *= this.growthFactor;
+            }
+            int cappedLength = (int) Math.min(newLength, MAX_HASH_TABLE_SIZE);
+            if (this.incremental) {
+                /*
+                 * The previous growth has normally long been finished by now;
+                 * if not (with a very small load factor), it is finished here
+                 */
+                this.finishMigration();
+                this.startMigration(cappedLength);
+            } else {
+                this.rehash(cappedLength);
+            }
         }
-        this.size = 0;
     }
 
     /*
@@ -121,9 +837,8 @@ public class Map4<K, V> extends MapSecondary<K, V> {
      * No-argument constructor.
      */
     public Map4() {
-
-        // TODO - fill in body
-        this.createNewRep(DEFAULT_HASH_TABLE_SIZE);
+        this(DEFAULT_HASH_TABLE_SIZE, DEFAULT_LOAD_FACTOR,
+                DEFAULT_GROWTH_FACTOR);
     }
 
     /**
@@ -135,7 +850,192 @@ public class Map4<K, V> extends MapSecondary<K, V> {
      * @ensures this = {}
      */
     public Map4(int hashTableSize) {
-        this.createNewRep(hashTableSize);
+        this(hashTableSize, DEFAULT_LOAD_FACTOR, DEFAULT_GROWTH_FACTOR);
+    }
+
+    /**
+     * Constructor resulting in a hash table of size {@code hashTableSize} that
+     * grows once there are more than {@code loadFactor} entries per bucket.
+     *
+     * @param hashTableSize
+     *            size of hash table
+     * @param loadFactor
+     *            largest number of entries per bucket before the hash table
+     *            grows
+     * @requires hashTableSize > 0 and loadFactor > 0
+     * @ensures this = {}
+     */
+    public Map4(int hashTableSize, double loadFactor) {
+        this(hashTableSize, loadFactor, DEFAULT_GROWTH_FACTOR);
+    }
+
+    /**
+     * Constructor resulting in a hash table of size {@code hashTableSize} that
+     * grows by {@code growthFactor} once there are more than
+     * {@code loadFactor} entries per bucket.
+     *
+     * @param hashTableSize
+     *            size of hash table
+     * @param loadFactor
+     *            largest number of entries per bucket before the hash table
+     *            grows
+     * @param growthFactor
+     *            factor by which the hash table grows
+     * @requires hashTableSize > 0 and loadFactor > 0 and growthFactor >= 2
+     * @ensures this = {}
+     */
+    public Map4(int hashTableSize, double loadFactor, int growthFactor) {
+        this(hashTableSize, loadFactor, growthFactor, false);
+    }
+
+    /**
+     * Constructor resulting in a hash table of size {@code hashTableSize} that
+     * grows by {@code growthFactor} once there are more than
+     * {@code loadFactor} entries per bucket, and that, if {@code mixed}, is
+     * rounded up to a power of 2 and indexed by mixed hash codes.
+     *
+     * @param hashTableSize
+     *            size of hash table
+     * @param loadFactor
+     *            largest number of entries per bucket before the hash table
+     *            grows
+     * @param growthFactor
+     *            factor by which the hash table grows
+     * @param mixed
+     *            whether to use a power-of-2 hash table indexed by mixed hash
+     *            codes
+     * @requires <pre>
+     * 0 < hashTableSize <= MAX_HASH_TABLE_SIZE  and  loadFactor > 0  and
+     * growthFactor >= 2  and  [growthFactor is a power of 2, if mixed]
+     * </pre>
+     * @ensures this = {}
+     */
+    public Map4(int hashTableSize, double loadFactor, int growthFactor,
+            boolean mixed) {
+        this(hashTableSize, loadFactor, growthFactor, mixed, false);
+    }
+
+    /**
+     * Constructor resulting in a hash table of size {@code hashTableSize} that
+     * grows by {@code growthFactor} once there are more than
+     * {@code loadFactor} entries per bucket, that, if {@code mixed}, is
+     * rounded up to a power of 2 and indexed by mixed hash codes, and that, if
+     * {@code incremental}, moves its entries to the grown table a few buckets
+     * at a time.
+     *
+     * @param hashTableSize
+     *            size of hash table
+     * @param loadFactor
+     *            largest number of entries per bucket before the hash table
+     *            grows
+     * @param growthFactor
+     *            factor by which the hash table grows
+     * @param mixed
+     *            whether to use a power-of-2 hash table indexed by mixed hash
+     *            codes
+     * @param incremental
+     *            whether to grow the hash table incrementally
+     * @requires <pre>
+     * 0 < hashTableSize <= MAX_HASH_TABLE_SIZE  and  loadFactor > 0  and
+     * growthFactor >= 2  and  [growthFactor is a power of 2, if mixed]
+     * </pre>
+     * @ensures this = {}
+     */
+    public Map4(int hashTableSize, double loadFactor, int growthFactor,
+            boolean mixed, boolean incremental) {
+        assert hashTableSize > 0 : "Violation of: hashTableSize > 0";
+        assert hashTableSize <= MAX_HASH_TABLE_SIZE : ""
+                + "Violation of: hashTableSize <= MAX_HASH_TABLE_SIZE";
+        assert loadFactor > 0 : "Violation of: loadFactor > 0";
+        assert growthFactor >= 2 : "Violation of: growthFactor >= 2";
+        assert !mixed || Integer.bitCount(growthFactor) == 1 : ""
+                + "Violation of: [growthFactor is a power of 2, if mixed]";
+
+        this.mixed = mixed;
+        this.incremental = incremental;
+        if (mixed) {
+            this.requestedSize = powerOfTwoAtLeast(hashTableSize);
+        } else {
+            this.requestedSize = hashTableSize;
+        }
+        this.loadFactor = loadFactor;
+        this.growthFactor = growthFactor;
+        this.createNewRep(this.requestedSize);
+    }
+
+    /**
+     * Returns an empty map in mixed mode with a hash table of at least
+     * {@code hashTableSize} buckets and the default load factor and growth
+     * factor.
+     *
+     * @param <K>
+     *            type of {@code Map} domain (key) entries
+     * @param <V>
+     *            type of {@code Map} range (associated value) entries
+     * @param hashTableSize
+     *            least size of hash table
+     * @return the new map
+     * @requires 0 < hashTableSize <= MAX_HASH_TABLE_SIZE
+     * @ensures mixed = {}
+     */
+    public static <K, V> Map4<K, V> mixed(int hashTableSize) {
+        return new Map4<>(hashTableSize, DEFAULT_LOAD_FACTOR,
+                DEFAULT_GROWTH_FACTOR, true);
+    }
+
+    /**
+     * Returns an empty map in incremental mode with a hash table of size
+     * {@code hashTableSize} and the default load factor and growth factor.
+     *
+     * @param <K>
+     *            type of {@code Map} domain (key) entries
+     * @param <V>
+     *            type of {@code Map} range (associated value) entries
+     * @param hashTableSize
+     *            size of hash table
+     * @return the new map
+     * @requires 0 < hashTableSize <= MAX_HASH_TABLE_SIZE
+     * @ensures incremental = {}
+     */
+    public static <K, V> Map4<K, V> incremental(int hashTableSize) {
+        return new Map4<>(hashTableSize, DEFAULT_LOAD_FACTOR,
+                DEFAULT_GROWTH_FACTOR, false, true);
+    }
+
+    /**
+     * Returns the number of bucket positions: the listed buckets of
+     * {@code hashTable} and then the buckets of {@code oldHashTable} not
+     * moved yet.
+     *
+     * @return the number of positions
+     */
+    private int positionCount() {
+        int result = this.nonEmptyCount;
+        if (this.oldHashTable != null) {
+            result += this.oldHashTable.length - this.migratedBuckets;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the bucket at {@code position}, counting first the listed
+     * buckets of {@code hashTable} and then the buckets of
+     * {@code oldHashTable} not moved yet.
+     *
+     * @param position
+     *            the position
+     * @return the bucket, or null if it has never been used
+     * @requires 0 <= position < positionCount()
+     */
+    private Map<K, V> bucketAt(int position) {
+        Map<K, V> result;
+        if (position < this.nonEmptyCount) {
+            result = this.hashTable[this.nonEmptyBuckets[position]];
+        } else {
+            result = this.oldHashTable[this.migratedBuckets + position
+                    - this.nonEmptyCount];
+        }
+        return result;
     }
 
     /*
@@ -155,7 +1055,7 @@ public class Map4<K, V> extends MapSecondary<K, V> {
 
     @Override
     public final void clear() {
-        this.createNewRep(DEFAULT_HASH_TABLE_SIZE);
+        this.createNewRep(this.requestedSize);
     }
 
     @Override
@@ -170,9 +1070,32 @@ public class Map4<K, V> extends MapSecondary<K, V> {
          * the ?,? must be K,V or the call would not have compiled.
          */
         Map4<K, V> localSource = (Map4<K, V>) source;
+        /*
+         * The hash table moves over as it is, while each map keeps its own
+         * requested size, growth policy and indexing; if the table is smaller
+         * than this map asked for, indexed the other way, or fuller than this
+         * map allows, it is regrown
+         */
         this.hashTable = localSource.hashTable;
         this.size = localSource.size;
-        localSource.createNewRep(DEFAULT_HASH_TABLE_SIZE);
+        this.nonEmptyBuckets = localSource.nonEmptyBuckets;
+        this.nonEmptyCount = localSource.nonEmptyCount;
+        this.bucketPosition = localSource.bucketPosition;
+        this.oldHashTable = localSource.oldHashTable;
+        this.migratedBuckets = localSource.migratedBuckets;
+        boolean sameIndexing = this.mixed == localSource.mixed;
+        localSource.createNewRep(localSource.requestedSize);
+        if (this.hashTable.length < this.requestedSize || !sameIndexing) {
+            int newLength = Math.max(this.hashTable.length, this.requestedSize);
+            if (this.mixed) {
+                newLength = powerOfTwoAtLeast(newLength);
+            }
+            this.rehash(newLength);
+        }
+        if (!this.incremental) {
+            this.finishMigration();
+        }
+        this.growIfNeeded();
     }
 
     /*
@@ -183,50 +1106,84 @@ public class Map4<K, V> extends MapSecondary<K, V> {
     public final void add(K key, V value) {
         assert key != null : "Violation of: key is not null";
         assert value != null : "Violation of: value is not null";
-        assert !this.hasKey(key) : "Violation of: key is not in DOMAIN(this)";
+        assert !this.contains(key) : "Violation of: key is not in DOMAIN(this)";
 
-        int index = mod(key.hashCode(), this.hashTable.length);
-        this.hashTable[index].add(key, value);
+        int hash = key.hashCode();
+        int oldIndex = this.oldIndex(hash);
+        if (oldIndex >= 0) {
+            addToBucket(this.oldHashTable, oldIndex, key, value);
+        } else {
+            int index = this.bucketIndex(hash, this.hashTable.length);
+            addToBucket(this.hashTable, index, key, value);
+            this.bucketAddedTo(index);
+        }
         this.size++;
+        this.migrateBuckets(MIGRATION_STEP);
+        this.growIfNeeded();
     }
 
     @Override
     public final Pair<K, V> remove(K key) {
         assert key != null : "Violation of: key is not null";
-        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+        assert this.contains(key) : "Violation of: key is in DOMAIN(this)";
 
-        int index = mod(key.hashCode(), this.hashTable.length);
+        int hash = key.hashCode();
+        int oldIndex = this.oldIndex(hash);
+        Pair<K, V> result;
+        if (oldIndex >= 0) {
+            this.recordLookup(this.oldHashTable[oldIndex]);
+            result = this.oldHashTable[oldIndex].remove(key);
+            shrinkBucket(this.oldHashTable, oldIndex);
+        } else {
+            int index = this.bucketIndex(hash, this.hashTable.length);
+            this.recordLookup(this.hashTable[index]);
+            result = this.hashTable[index].remove(key);
+            shrinkBucket(this.hashTable, index);
+            this.bucketRemovedFrom(index);
+        }
         this.size--;
-        return this.hashTable[index].remove(key);
+        this.migrateBuckets(MIGRATION_STEP);
+        return result;
     }
 
     @Override
     public final Pair<K, V> removeAny() {
         assert this.size() > 0 : "Violation of: this /= empty_set";
 
-        int index = 0;
-        while (this.hashTable[index].size() == 0) {
-            index++;
+        /*
+         * Taking from the last listed bucket means that emptying it leaves
+         * the rest of the list as it is; if every entry is still in the old
+         * hash table, buckets are moved until one reaches the new one
+         */
+        this.migrateBuckets(MIGRATION_STEP);
+        while (this.nonEmptyCount == 0) {
+            this.migrateBuckets(1);
         }
+        int index = this.nonEmptyBuckets[this.nonEmptyCount - 1];
+        Pair<K, V> result = this.hashTable[index].removeAny();
+        shrinkBucket(this.hashTable, index);
+        this.bucketRemovedFrom(index);
         this.size--;
-        return this.hashTable[index].removeAny();
+        return result;
     }
 
     @Override
     public final V value(K key) {
         assert key != null : "Violation of: key is not null";
-        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+        assert this.contains(key) : "Violation of: key is in DOMAIN(this)";
 
-        int index = mod(key.hashCode(), this.hashTable.length);
-        return this.hashTable[index].value(key);
+        Map<K, V> bucket = this.bucketOf(key);
+        this.recordLookup(bucket);
+        return bucket.value(key);
     }
 
     @Override
     public final boolean hasKey(K key) {
         assert key != null : "Violation of: key is not null";
 
-        int index = mod(key.hashCode(), this.hashTable.length);
-        return this.hashTable[index].hasKey(key);
+        Map<K, V> bucket = this.bucketOf(key);
+        this.recordLookup(bucket);
+        return bucket != null && bucket.hasKey(key);
     }
 
     @Override
@@ -239,6 +1196,280 @@ public class Map4<K, V> extends MapSecondary<K, V> {
         return new Map4Iterator();
     }
 
+    @Override
+    public final Spliterator<Pair<K, V>> spliterator() {
+        return new Map4Spliterator(0, this.positionCount(), this.size);
+    }
+
+    /*
+     * Other methods -----------------------------------------------------------
+     */
+
+    /**
+     * Returns a sequential {@code Stream} of the entries of {@code this}.
+     *
+     * @return the stream
+     * @requires [this is not changed while the stream is in use]
+     */
+    public final Stream<Pair<K, V>> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel {@code Stream} of the entries of {@code this}, whose
+     * parts each cover a range of buckets.
+     *
+     * @return the stream
+     * @requires [this is not changed while the stream is in use]
+     */
+    public final Stream<Pair<K, V>> parallelStream() {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    /**
+     * Turns the counting of lookups and resizes on or off. Counting starts
+     * from the counts reached when it was last on; while it is off, lookups
+     * and resizes cost nothing extra.
+     *
+     * @param enabled
+     *            whether to count
+     */
+    public final void setStatisticsEnabled(boolean enabled) {
+        this.statisticsEnabled = enabled;
+    }
+
+    /**
+     * Returns a snapshot of the bucket occupancy of {@code this}, with the
+     * lookups and resizes counted so far, and records it as a Flight
+     * Recorder event if such events are being recorded. Takes time in the
+     * number of buckets.
+     *
+     * @return the snapshot
+     */
+    public final Map4Statistics statistics() {
+        List<Map<K, V>> buckets = new ArrayList<>();
+        buckets.addAll(Arrays.asList(this.hashTable));
+        if (this.oldHashTable != null) {
+            buckets.addAll(Arrays.asList(this.oldHashTable).subList(
+                    this.migratedBuckets, this.oldHashTable.length));
+        }
+        int longest = 0;
+        for (Map<K, V> bucket : buckets) {
+            longest = Math.max(longest, chainSize(bucket));
+        }
+        int[] occupancy = new int[longest + 1];
+        int treeBuckets = 0;
+        for (Map<K, V> bucket : buckets) {
+            occupancy[chainSize(bucket)]++;
+            if (bucket instanceof TreeBucket<?, ?>) {
+                treeBuckets++;
+            }
+        }
+        Map4Statistics result = new Map4Statistics(this.size, occupancy,
+                treeBuckets, this.lookups, this.probes, this.resizes);
+        result.commitEvent();
+        return result;
+    }
+
+    /**
+     * Bucket holding keys that are {@code Comparable} and all of one class in
+     * a red-black tree ({@code java.util.TreeMap}), ordered by hash code and
+     * then by {@code compareTo}. Each node of the tree holds a {@code Map2} of
+     * the keys that tie in that order, searched with {@code equals}, so
+     * {@code compareTo} need not be consistent with {@code equals}.
+     *
+     * @param <K>
+     *            type of key
+     * @param <V>
+     *            type of value
+     */
+    private static final class TreeBucket<K, V> extends MapSecondary<K, V> {
+
+        /**
+         * The entries, in groups of keys that tie; no group is empty, and the
+         * key of each node of the tree is one of the keys of its group.
+         */
+        private TreeMap<K, Map<K, V>> groups;
+
+        /**
+         * Number of entries.
+         */
+        private int size;
+
+        /**
+         * The class of every key.
+         */
+        private final Class<?> keyClass;
+
+        /**
+         * Compares two keys of {@code keyClass} by hash code and then by
+         * {@code compareTo}.
+         *
+         * @param a
+         *            the first key
+         * @param b
+         *            the second key
+         * @return negative, zero or positive as a comes before, ties with, or
+         *         comes after b
+         * @requires [a and b are Comparable keys of the same class]
+         */
+        @SuppressWarnings("unchecked")
+        private static int compareKeys(Object a, Object b) {
+            int result = Integer.compare(a.hashCode(), b.hashCode());
+            if (result == 0) {
+                result = ((Comparable<Object>) a).compareTo(b);
+            }
+            return result;
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param keyClass
+         *            the class of every key
+         * @requires [keyClass implements Comparable]
+         * @ensures this = {}
+         */
+        TreeBucket(Class<?> keyClass) {
+            this.keyClass = keyClass;
+            this.groups = new TreeMap<>(TreeBucket::compareKeys);
+            this.size = 0;
+        }
+
+        /**
+         * Reports whether {@code key} can go in this tree.
+         *
+         * @param key
+         *            the key
+         * @return whether key is of keyClass
+         */
+        boolean accepts(K key) {
+            return key.getClass() == this.keyClass;
+        }
+
+        /**
+         * Removes the node of {@code group} after an entry with key
+         * {@code key} has been removed from it, putting it back under one of
+         * its remaining keys unless it is empty.
+         *
+         * @param key
+         *            the key removed
+         * @param group
+         *            the group it was removed from
+         * @updates this.groups
+         */
+        private void regroup(K key, Map<K, V> group) {
+            this.groups.remove(key);
+            if (group.size() > 0) {
+                this.groups.put(group.iterator().next().key(), group);
+            }
+        }
+
+        @Override
+        public Map<K, V> newInstance() {
+            return new TreeBucket<>(this.keyClass);
+        }
+
+        @Override
+        public void clear() {
+            this.groups = new TreeMap<>(TreeBucket::compareKeys);
+            this.size = 0;
+        }
+
+        @Override
+        public void transferFrom(Map<K, V> source) {
+            assert source instanceof TreeBucket<?, ?> : ""
+                    + "Violation of: source is of dynamic type TreeBucket<?,?>";
+            TreeBucket<K, V> localSource = (TreeBucket<K, V>) source;
+            assert localSource.keyClass == this.keyClass : ""
+                    + "Violation of: source has the same key class";
+            this.groups = localSource.groups;
+            this.size = localSource.size;
+            localSource.clear();
+        }
+
+        @Override
+        public void add(K key, V value) {
+            assert this.accepts(key) : "Violation of: key is of keyClass";
+
+            Map<K, V> group = this.groups.get(key);
+            if (group == null) {
+                group = new Map2<>();
+                this.groups.put(key, group);
+            }
+            group.add(key, value);
+            this.size++;
+        }
+
+        @Override
+        public Pair<K, V> remove(K key) {
+            Map<K, V> group = this.groups.get(key);
+            Pair<K, V> result = group.remove(key);
+            this.regroup(key, group);
+            this.size--;
+            return result;
+        }
+
+        @Override
+        public Pair<K, V> removeAny() {
+            Map<K, V> group = this.groups.firstEntry().getValue();
+            Pair<K, V> result = group.removeAny();
+            this.regroup(result.key(), group);
+            this.size--;
+            return result;
+        }
+
+        @Override
+        public V value(K key) {
+            return this.groups.get(key).value(key);
+        }
+
+        @Override
+        public boolean hasKey(K key) {
+            boolean result = false;
+            if (this.accepts(key)) {
+                Map<K, V> group = this.groups.get(key);
+                result = group != null && group.hasKey(key);
+            }
+            return result;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        @Override
+        public Iterator<Pair<K, V>> iterator() {
+            Iterator<Map<K, V>> outer = this.groups.values().iterator();
+            return new Iterator<Pair<K, V>>() {
+                /**
+                 * Iterator over the group being walked, or null before the
+                 * first.
+                 */
+                private Iterator<Pair<K, V>> inner = null;
+
+                @Override
+                public boolean hasNext() {
+                    while ((this.inner == null || !this.inner.hasNext())
+                            && outer.hasNext()) {
+                        this.inner = outer.next().iterator();
+                    }
+                    return this.inner != null && this.inner.hasNext();
+                }
+
+                @Override
+                public Pair<K, V> next() {
+                    if (!this.hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return this.inner.next();
+                }
+            };
+        }
+
+    }
+
     /**
      * Implementation of {@code Iterator} interface for {@code Map4}.
      */
@@ -250,12 +1481,15 @@ public class Map4<K, V> extends MapSecondary<K, V> {
         private int numberSeen;
 
         /**
-         * Bucket from which current bucket iterator comes.
+         * Position of the bucket from which current bucket iterator comes,
+         * counting first the listed buckets of {@code hashTable} and then the
+         * buckets of {@code oldHashTable} not moved yet.
          */
-        private int currentBucket;
+        private int currentPosition;
 
         /**
-         * Bucket iterator from which next element will come.
+         * Bucket iterator from which next element will come, or null if the
+         * current bucket has never been used.
          */
         private Iterator<Pair<K, V>> bucketIterator;
 
@@ -264,8 +1498,28 @@ public class Map4<K, V> extends MapSecondary<K, V> {
          */
         Map4Iterator() {
             this.numberSeen = 0;
-            this.currentBucket = 0;
-            this.bucketIterator = Map4.this.hashTable[0].iterator();
+            this.currentPosition = 0;
+            this.bucketIterator = this.iteratorAt(0);
+        }
+
+        /**
+         * Returns an iterator over the bucket at {@code position}, or null if
+         * that bucket has never been used or does not exist.
+         *
+         * @param position
+         *            the position
+         * @return the bucket iterator, or null
+         * @requires position >= 0
+         */
+        private Iterator<Pair<K, V>> iteratorAt(int position) {
+            Iterator<Pair<K, V>> result = null;
+            if (position < Map4.this.positionCount()) {
+                Map<K, V> bucket = Map4.this.bucketAt(position);
+                if (bucket != null) {
+                    result = bucket.iterator();
+                }
+            }
+            return result;
         }
 
         @Override
@@ -285,10 +1539,10 @@ public class Map4<K, V> extends MapSecondary<K, V> {
                 throw new NoSuchElementException();
             }
             this.numberSeen++;
-            while (!this.bucketIterator.hasNext()) {
-                this.currentBucket++;
-                this.bucketIterator = Map4.this.hashTable[this.currentBucket]
-                        .iterator();
+            while (this.bucketIterator == null
+                    || !this.bucketIterator.hasNext()) {
+                this.currentPosition++;
+                this.bucketIterator = this.iteratorAt(this.currentPosition);
             }
             return this.bucketIterator.next();
         }
@@ -301,4 +1555,128 @@ public class Map4<K, V> extends MapSecondary<K, V> {
 
     }
 
+    /**
+     * Implementation of {@code Spliterator} interface for {@code Map4}, over
+     * a range of bucket positions (see {@code bucketAt}).
+     */
+    private final class Map4Spliterator implements Spliterator<Pair<K, V>> {
+
+        /**
+         * Position of the next bucket to start on.
+         */
+        private int position;
+
+        /**
+         * Position just past the last bucket covered.
+         */
+        private final int end;
+
+        /**
+         * Number of entries not returned yet, in {@code bucketIterator} and
+         * in the buckets from {@code position} to {@code end}.
+         */
+        private long remaining;
+
+        /**
+         * Iterator over the rest of the bucket before {@code position}, or
+         * null if there is none.
+         */
+        private Iterator<Pair<K, V>> bucketIterator;
+
+        /**
+         * Constructor.
+         *
+         * @param position
+         *            position of the first bucket covered
+         * @param end
+         *            position just past the last bucket covered
+         * @param remaining
+         *            number of entries in the buckets covered
+         * @requires 0 <= position <= end <= positionCount()
+         */
+        Map4Spliterator(int position, int end, long remaining) {
+            this.position = position;
+            this.end = end;
+            this.remaining = remaining;
+            this.bucketIterator = null;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Pair<K, V>> action) {
+            while ((this.bucketIterator == null
+                    || !this.bucketIterator.hasNext())
+                    && this.position < this.end) {
+                Map<K, V> bucket = Map4.this.bucketAt(this.position);
+                this.position++;
+                this.bucketIterator = null;
+                if (bucket != null) {
+                    this.bucketIterator = bucket.iterator();
+                }
+            }
+            boolean result = this.bucketIterator != null
+                    && this.bucketIterator.hasNext();
+            if (result) {
+                this.remaining--;
+                action.accept(this.bucketIterator.next());
+            }
+            return result;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Pair<K, V>> action) {
+            if (this.bucketIterator != null) {
+                while (this.bucketIterator.hasNext()) {
+                    action.accept(this.bucketIterator.next());
+                }
+                this.bucketIterator = null;
+            }
+            while (this.position < this.end) {
+                Map<K, V> bucket = Map4.this.bucketAt(this.position);
+                this.position++;
+                if (bucket != null) {
+                    for (Pair<K, V> p : bucket) {
+                        action.accept(p);
+                    }
+                }
+            }
+            this.remaining = 0;
+        }
+
+        @Override
+        public Spliterator<Pair<K, V>> trySplit() {
+            Spliterator<Pair<K, V>> result = null;
+            int middle = (this.position + this.end) >>> 1;
+            if (middle > this.position) {
+                /*
+                 * Hand the lower half of the buckets not started yet to the
+                 * new spliterator, counting their entries so both halves know
+                 * their sizes exactly
+                 */
+                long lower = 0;
+                for (int i = this.position; i < middle; i++) {
+                    Map<K, V> bucket = Map4.this.bucketAt(i);
+                    if (bucket != null) {
+                        lower += bucket.size();
+                    }
+                }
+                result = new Map4Spliterator(this.position, middle, lower);
+                this.position = middle;
+                this.remaining -= lower;
+            }
+            return result;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.SIZED | Spliterator.SUBSIZED
+                    | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+
+    }
+
 }
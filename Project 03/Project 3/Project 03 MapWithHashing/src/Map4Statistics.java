@@ -0,0 +1,377 @@
+import java.util.Arrays;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Snapshot of how well a {@code Map4} is sized and how well its keys hash:
+ * how many entries each bucket holds, how long the chains lookups walk are,
+ * and how often the hash table has been replaced.
+ *
+ * <p>
+ * The bucket figures are computed from the hash table when the snapshot is
+ * taken. The lookup and resize counts are only kept while statistics are
+ * enabled on the map (see {@code Map4.setStatisticsEnabled}), and are 0
+ * otherwise. The same figures are also recorded as JDK Flight Recorder
+ * events: a {@code Map4.Resize} event each time the hash table of a map with
+ * statistics enabled is replaced, and a {@code Map4.Statistics} event each
+ * time a snapshot is taken. Flight Recorder costs nothing for events that
+ * are not being recorded.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public final class Map4Statistics {
+
+    /**
+     * Number of entries in the map.
+     */
+    private final int size;
+
+    /**
+     * Number of buckets, including those of a hash table whose entries are
+     * still being moved.
+     */
+    private final int buckets;
+
+    /**
+     * Number of buckets holding each number of entries, from 0 up to the
+     * longest chain.
+     */
+    private final int[] occupancy;
+
+    /**
+     * Number of buckets kept as trees.
+     */
+    private final int treeBuckets;
+
+    /**
+     * Number of lookups counted.
+     */
+    private final long lookups;
+
+    /**
+     * Total length of the chains those lookups walked.
+     */
+    private final long probes;
+
+    /**
+     * Number of times the hash table has been replaced.
+     */
+    private final long resizes;
+
+    /**
+     * Constructor.
+     *
+     * @param size
+     *            number of entries in the map
+     * @param occupancy
+     *            number of buckets holding each number of entries
+     * @param treeBuckets
+     *            number of buckets kept as trees
+     * @param lookups
+     *            number of lookups counted
+     * @param probes
+     *            total length of the chains those lookups walked
+     * @param resizes
+     *            number of times the hash table has been replaced
+     * @requires <pre>
+     * |occupancy| > 0  and  [no entry of occupancy is negative]  and
+     * size = sum k: integer where (0 <= k < |occupancy|) (k * occupancy[k])
+     * </pre>
+     */
+    Map4Statistics(int size, int[] occupancy, int treeBuckets, long lookups,
+            long probes, long resizes) {
+        this.size = size;
+        this.occupancy = occupancy.clone();
+        int total = 0;
+        for (int count : occupancy) {
+            total += count;
+        }
+        this.buckets = total;
+        this.treeBuckets = treeBuckets;
+        this.lookups = lookups;
+        this.probes = probes;
+        this.resizes = resizes;
+    }
+
+    /**
+     * Reports the number of entries in the map.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Reports the number of buckets.
+     *
+     * @return the number of buckets
+     */
+    public int buckets() {
+        return this.buckets;
+    }
+
+    /**
+     * Reports the average number of entries per bucket.
+     *
+     * @return size / buckets
+     */
+    public double load() {
+        return (double) this.size / this.buckets;
+    }
+
+    /**
+     * Reports the number of buckets holding exactly {@code entries} entries.
+     *
+     * @param entries
+     *            the number of entries
+     * @return the number of buckets
+     * @requires entries >= 0
+     */
+    public int occupancy(int entries) {
+        assert entries >= 0 : "Violation of: entries >= 0";
+
+        int result = 0;
+        if (entries < this.occupancy.length) {
+            result = this.occupancy[entries];
+        }
+        return result;
+    }
+
+    /**
+     * Reports the number of buckets holding each number of entries, from 0
+     * up to {@code maxChainLength}.
+     *
+     * @return the histogram, whose entry k is occupancy(k)
+     */
+    public int[] occupancyHistogram() {
+        return this.occupancy.clone();
+    }
+
+    /**
+     * Reports the number of entries in the fullest bucket.
+     *
+     * @return the longest chain length
+     */
+    public int maxChainLength() {
+        return this.occupancy.length - 1;
+    }
+
+    /**
+     * Reports the average number of entries in the buckets that have any.
+     *
+     * @return the mean chain length, or 0 if the map is empty
+     */
+    public double meanChainLength() {
+        int nonEmpty = this.buckets - this.occupancy[0];
+        double result = 0;
+        if (nonEmpty > 0) {
+            result = (double) this.size / nonEmpty;
+        }
+        return result;
+    }
+
+    /**
+     * Reports the number of buckets kept as trees because many keys collide
+     * in them.
+     *
+     * @return the number of tree buckets
+     */
+    public int treeBuckets() {
+        return this.treeBuckets;
+    }
+
+    /**
+     * Reports the number of lookups ({@code hasKey}, {@code value} and
+     * {@code remove}) counted while statistics were enabled. A {@code hasKey}
+     * for a key that is not there counts too, since it searches its whole
+     * chain; the precondition checks made when assertions are enabled do not.
+     *
+     * @return the number of lookups
+     */
+    public long lookups() {
+        return this.lookups;
+    }
+
+    /**
+     * Reports the average length of the chain each counted lookup walked:
+     * the number of entries in the bucket searched, or the height of a
+     * balanced tree of that many entries for a tree bucket.
+     *
+     * @return the mean probes per lookup, or 0 if no lookup was counted
+     */
+    public double probesPerLookup() {
+        double result = 0;
+        if (this.lookups > 0) {
+            result = (double) this.probes / this.lookups;
+        }
+        return result;
+    }
+
+    /**
+     * Reports the number of times the hash table has been replaced (to grow,
+     * or to re-index after {@code transferFrom}) while statistics were
+     * enabled.
+     *
+     * @return the number of resizes
+     */
+    public long resizes() {
+        return this.resizes;
+    }
+
+    /**
+     * Records this snapshot as a {@code Map4.Statistics} Flight Recorder
+     * event, if such events are being recorded.
+     */
+    void commitEvent() {
+        StatisticsEvent event = new StatisticsEvent();
+        if (event.shouldCommit()) {
+            event.size = this.size;
+            event.buckets = this.buckets;
+            event.maxChainLength = this.maxChainLength();
+            event.meanChainLength = this.meanChainLength();
+            event.treeBuckets = this.treeBuckets;
+            event.lookups = this.lookups;
+            event.probesPerLookup = this.probesPerLookup();
+            event.resizes = this.resizes;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records a {@code Map4.Resize} Flight Recorder event, if such events are
+     * being recorded.
+     *
+     * @param oldBuckets
+     *            number of buckets before
+     * @param newBuckets
+     *            number of buckets after
+     * @param size
+     *            number of entries in the map
+     * @param incremental
+     *            whether the entries move over incrementally
+     */
+    static void commitResize(int oldBuckets, int newBuckets, int size,
+            boolean incremental) {
+        ResizeEvent event = new ResizeEvent();
+        if (event.shouldCommit()) {
+            event.oldBuckets = oldBuckets;
+            event.newBuckets = newBuckets;
+            event.size = size;
+            event.incremental = incremental;
+            event.commit();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "size=" + this.size + ", buckets=" + this.buckets + ", load="
+                + this.load() + ", maxChainLength=" + this.maxChainLength()
+                + ", meanChainLength=" + this.meanChainLength()
+                + ", treeBuckets=" + this.treeBuckets + ", lookups="
+                + this.lookups + ", probesPerLookup=" + this.probesPerLookup()
+                + ", resizes=" + this.resizes + ", occupancy="
+                + Arrays.toString(this.occupancy);
+    }
+
+    /**
+     * Flight Recorder event for a snapshot of {@code Map4} statistics.
+     */
+    @Name("Map4.Statistics")
+    @Label("Map4 Statistics")
+    @Category({ "OSU Components", "Map4" })
+    @Description("Chain lengths, lookups and resizes of a Map4")
+    static final class StatisticsEvent extends Event {
+
+        /**
+         * Number of entries.
+         */
+        @Label("Size")
+        private int size;
+
+        /**
+         * Number of buckets.
+         */
+        @Label("Buckets")
+        private int buckets;
+
+        /**
+         * Longest chain.
+         */
+        @Label("Max Chain Length")
+        private int maxChainLength;
+
+        /**
+         * Mean chain length over non-empty buckets.
+         */
+        @Label("Mean Chain Length")
+        private double meanChainLength;
+
+        /**
+         * Number of tree buckets.
+         */
+        @Label("Tree Buckets")
+        private int treeBuckets;
+
+        /**
+         * Number of lookups counted.
+         */
+        @Label("Lookups")
+        private long lookups;
+
+        /**
+         * Mean chain length walked per lookup.
+         */
+        @Label("Probes Per Lookup")
+        private double probesPerLookup;
+
+        /**
+         * Number of resizes.
+         */
+        @Label("Resizes")
+        private long resizes;
+
+    }
+
+    /**
+     * Flight Recorder event for the replacement of a {@code Map4}'s hash
+     * table.
+     */
+    @Name("Map4.Resize")
+    @Label("Map4 Resize")
+    @Category({ "OSU Components", "Map4" })
+    @Description("A Map4 hash table was replaced")
+    static final class ResizeEvent extends Event {
+
+        /**
+         * Number of buckets before.
+         */
+        @Label("Old Buckets")
+        private int oldBuckets;
+
+        /**
+         * Number of buckets after.
+         */
+        @Label("New Buckets")
+        private int newBuckets;
+
+        /**
+         * Number of entries.
+         */
+        @Label("Size")
+        private int size;
+
+        /**
+         * Whether the entries move over incrementally.
+         */
+        @Label("Incremental")
+        private boolean incremental;
+
+    }
+
+}
@@ -0,0 +1,535 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.map.Map;
+import components.map.MapSecondary;
+
+/**
+ * {@code Map} represented as an open-addressing hash table, with keys, values
+ * and key hash codes in three parallel arrays, with implementations of primary
+ * methods.
+ *
+ * <p>
+ * A key lives in the first free slot at or after its home slot, wrapping
+ * around the end (linear probing). Removing a key shifts the rest of its run
+ * back into the hole, so no tombstones are ever left behind and a search
+ * always stops at the first empty slot. Keeping each key's hash code next to
+ * it lets a search skip keys that cannot match without loading them.
+ *
+ * @param <K>
+ *            type of {@code Map} domain (key) entries
+ * @param <V>
+ *            type of {@code Map} range (associated value) entries
+ * @convention <pre>
+ * |$this.keys| = |$this.values| = |$this.hashes|  and
+ * [|$this.keys| is a power of 2 and at least 2]  and
+ * for all i: integer
+ *     where (0 <= i  and  i < |$this.keys|)
+ *   (($this.keys[i] = null  iff  $this.values[i] = null)  and
+ *    (if $this.keys[i] /= null then
+ *       $this.hashes[i] = [computed result of $this.keys[i].hashCode()])  and
+ *    (if $this.keys[i] /= null then
+ *       [no slot from HOME($this.keys[i]) up to i, wrapping around the
+ *        end of $this.keys, has a null key]))  and
+ * [no two slots of $this.keys hold equal keys]  and
+ * $this.size = |{i: integer where $this.keys[i] /= null}|  and
+ * $this.size <= MAX_LOAD * |$this.keys|  and
+ * 0 <= $this.firstOccupied <= |$this.keys|  and
+ * for all i: integer
+ *     where (0 <= i  and  i < $this.firstOccupied)
+ *   ($this.keys[i] = null)
+ * where HOME(x) = [home slot of x, computed from x.hashCode() by home]
+ * </pre>
+ * @correspondence <pre>
+ * this = {(k, v): (K, V)
+ *            where (there exists i: integer
+ *                     ($this.keys[i] = k  and  $this.values[i] = v  and
+ *                      k /= null))}
+ * </pre>
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public class Map5<K, V> extends MapSecondary<K, V> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Default number of slots.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Fewest slots the table can have.
+     */
+    private static final int MIN_CAPACITY = 2;
+
+    /**
+     * Most slots the table can have.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Largest ratio of size to number of slots before the table doubles.
+     */
+    private static final double MAX_LOAD = 0.75;
+
+    /**
+     * Multiplier spreading hash codes over the slots (2^32 divided by the
+     * golden ratio); the home slot is taken from the top bits of the product.
+     */
+    private static final int SPREAD = 0x9E3779B9;
+
+    /**
+     * Keys, or null in an empty slot.
+     */
+    private Object[] keys;
+
+    /**
+     * Values, at the same slot as their keys.
+     */
+    private Object[] values;
+
+    /**
+     * Hash codes of the keys, at the same slot as their keys.
+     */
+    private int[] hashes;
+
+    /**
+     * Total size of abstract {@code this}.
+     */
+    private int size;
+
+    /**
+     * Every slot below this one is empty, so {@code removeAny} starts looking
+     * here.
+     */
+    private int firstOccupied;
+
+    /**
+     * Returns the smallest power of 2 that is at least {@code n}, within
+     * {@code MIN_CAPACITY} and {@code MAX_CAPACITY}.
+     *
+     * @param n
+     *            the number of slots wanted
+     * @return the number of slots to use
+     * @ensures <pre>
+     * [capacityFor is a power of 2]  and
+     * MIN_CAPACITY <= capacityFor <= MAX_CAPACITY  and
+     * [capacityFor >= n, unless n > MAX_CAPACITY]
+     * </pre>
+     */
+    private static int capacityFor(int n) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < n && capacity < MAX_CAPACITY) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    /**
+     * Returns the home slot of a key with hash code {@code hash} in a table of
+     * {@code length} slots.
+     *
+     * @param hash
+     *            the hash code of the key
+     * @param length
+     *            the number of slots
+     * @return the home slot
+     * @requires [length is a power of 2 and at least 2]
+     * @ensures 0 <= home < length
+     */
+    private static int home(int hash, int length) {
+        int shift = Integer.numberOfLeadingZeros(length) + 1;
+        return (hash * SPREAD) >>> shift;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param capacity
+     *            the number of slots
+     * @requires [capacity is a power of 2 and at least 2]
+     * @ensures <pre>
+     * |$this.keys| = capacity  and
+     * [every slot of $this.keys and $this.values is null]  and
+     * |$this.hashes| = capacity  and
+     * $this.size = 0  and  $this.firstOccupied = 0
+     * </pre>
+     */
+    private void createNewRep(int capacity) {
+        this.keys = new Object[capacity];
+        this.values = new Object[capacity];
+        this.hashes = new int[capacity];
+        this.size = 0;
+        this.firstOccupied = 0;
+    }
+
+    /**
+     * Returns the slot holding {@code key}, or the empty slot where it would
+     * go if it is not in {@code this}.
+     *
+     * @param key
+     *            the key to find
+     * @param hash
+     *            the hash code of key
+     * @return the slot
+     * @requires key /= null and hash = [computed result of key.hashCode()]
+     * @ensures <pre>
+     * ($this.keys[slotOf] = key  or  $this.keys[slotOf] = null)  and
+     * [key is in no slot from HOME(key) up to slotOf]
+     * </pre>
+     */
+    private int slotOf(Object key, int hash) {
+        int mask = this.keys.length - 1;
+        int slot = home(hash, this.keys.length);
+        while (this.keys[slot] != null && (this.hashes[slot] != hash
+                || !this.keys[slot].equals(key))) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties slot {@code hole}, moving later entries of the same run back so
+     * that every remaining key can still be reached from its home slot.
+     *
+     * @param hole
+     *            the slot to empty
+     * @updates $this.keys, $this.values, $this.hashes
+     * @requires $this.keys[hole] /= null
+     * @ensures [the entry at slot hole is gone, every other entry is still
+     *          in the table, and the convention holds except for size]
+     */
+    private void emptySlot(int hole) {
+        int mask = this.keys.length - 1;
+        int free = hole;
+        int next = (free + 1) & mask;
+        while (this.keys[next] != null) {
+            /*
+             * The entry at next may move back to free only if free is not
+             * before its home slot, i.e., if it is no farther from home
+             */
+            int homeOfNext = home(this.hashes[next], this.keys.length);
+            if (((next - homeOfNext) & mask) >= ((next - free) & mask)) {
+                this.keys[free] = this.keys[next];
+                this.values[free] = this.values[next];
+                this.hashes[free] = this.hashes[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        this.keys[free] = null;
+        this.values[free] = null;
+    }
+
+    /**
+     * Moves every entry into a new table of {@code capacity} slots.
+     *
+     * @param capacity
+     *            the number of slots of the new table
+     * @updates $this.keys, $this.values, $this.hashes
+     * @requires <pre>
+     * [capacity is a power of 2 and at least 2]  and
+     * $this.size <= MAX_LOAD * capacity
+     * </pre>
+     * @ensures |$this.keys| = capacity and this = #this
+     */
+    private void resize(int capacity) {
+        Object[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        int[] oldHashes = this.hashes;
+        int oldSize = this.size;
+        this.createNewRep(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = home(oldHashes[i], capacity);
+                while (this.keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+                this.hashes[slot] = oldHashes[i];
+            }
+        }
+        this.size = oldSize;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public Map5() {
+        this.createNewRep(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor resulting in a table with room for {@code expectedSize}
+     * entries before it has to grow.
+     *
+     * @param expectedSize
+     *            number of entries to make room for
+     * @requires expectedSize >= 0
+     * @ensures this = {}
+     */
+    public Map5(int expectedSize) {
+        assert expectedSize >= 0 : "Violation of: expectedSize >= 0";
+
+        this.createNewRep(capacityFor((int) Math
+                .min(Math.ceil(expectedSize / MAX_LOAD), MAX_CAPACITY)));
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Map<K, V> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public final void transferFrom(Map<K, V> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Map5<?, ?> : ""
+                + "Violation of: source is of dynamic type Map5<?,?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Map5<?,?>, and
+         * the ?,? must be K,V or the call would not have compiled.
+         */
+        Map5<K, V> localSource = (Map5<K, V>) source;
+        this.keys = localSource.keys;
+        this.values = localSource.values;
+        this.hashes = localSource.hashes;
+        this.size = localSource.size;
+        this.firstOccupied = localSource.firstOccupied;
+        localSource.createNewRep(DEFAULT_CAPACITY);
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(K key, V value) {
+        assert key != null : "Violation of: key is not null";
+        assert value != null : "Violation of: value is not null";
+        assert !this.hasKey(key) : "Violation of: key is not in DOMAIN(this)";
+        assert this.size < MAX_CAPACITY * MAX_LOAD : ""
+                + "Violation of: |this| < MAX_CAPACITY * MAX_LOAD";
+
+        if (this.size + 1 > MAX_LOAD * this.keys.length) {
+            this.resize(2 * this.keys.length);
+        }
+        int hash = key.hashCode();
+        int slot = this.slotOf(key, hash);
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        this.hashes[slot] = hash;
+        this.size++;
+        this.firstOccupied = Math.min(this.firstOccupied, slot);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Pair<K, V> remove(K key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        int slot = this.slotOf(key, key.hashCode());
+        Pair<K, V> result = new SimplePair<>((K) this.keys[slot],
+                (V) this.values[slot]);
+        this.emptySlot(slot);
+        this.size--;
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Pair<K, V> removeAny() {
+        assert this.size() > 0 : "Violation of: this /= empty_set";
+
+        while (this.keys[this.firstOccupied] == null) {
+            this.firstOccupied++;
+        }
+        int slot = this.firstOccupied;
+        Pair<K, V> result = new SimplePair<>((K) this.keys[slot],
+                (V) this.values[slot]);
+        this.emptySlot(slot);
+        this.size--;
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final V value(K key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        return (V) this.values[this.slotOf(key, key.hashCode())];
+    }
+
+    @Override
+    public final boolean hasKey(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        return this.keys[this.slotOf(key, key.hashCode())] != null;
+    }
+
+    @Override
+    public final int size() {
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<Pair<K, V>> iterator() {
+        return new Map5Iterator();
+    }
+
+    /**
+     * Simple implementation of {@code Pair} for the entries {@code Map5}
+     * hands out.
+     *
+     * @param <K>
+     *            type of key
+     * @param <V>
+     *            type of value
+     */
+    private static final class SimplePair<K, V> implements Pair<K, V> {
+
+        /**
+         * The key.
+         */
+        private final K key;
+
+        /**
+         * The value.
+         */
+        private final V value;
+
+        /**
+         * Constructor.
+         *
+         * @param key
+         *            the key
+         * @param value
+         *            the value
+         */
+        SimplePair(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K key() {
+            return this.key;
+        }
+
+        @Override
+        public V value() {
+            return this.value;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            boolean result = false;
+            if (obj instanceof Pair<?, ?>) {
+                Pair<?, ?> other = (Pair<?, ?>) obj;
+                result = this.key.equals(other.key())
+                        && this.value.equals(other.value());
+            }
+            return result;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.key.hashCode() ^ this.value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "(" + this.key + "," + this.value + ")";
+        }
+
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Map5}.
+     */
+    private final class Map5Iterator implements Iterator<Pair<K, V>> {
+
+        /**
+         * Number of elements seen already (i.e., |~this.seen|).
+         */
+        private int numberSeen;
+
+        /**
+         * Slot from which the next element will come, once empty slots are
+         * skipped.
+         */
+        private int currentSlot;
+
+        /**
+         * No-argument constructor.
+         */
+        Map5Iterator() {
+            this.numberSeen = 0;
+            this.currentSlot = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.numberSeen < Map5.this.size;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Pair<K, V> next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            this.numberSeen++;
+            while (Map5.this.keys[this.currentSlot] == null) {
+                this.currentSlot++;
+            }
+            Pair<K, V> result = new SimplePair<>(
+                    (K) Map5.this.keys[this.currentSlot],
+                    (V) Map5.this.values[this.currentSlot]);
+            this.currentSlot++;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
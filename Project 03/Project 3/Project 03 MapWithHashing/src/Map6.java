@@ -0,0 +1,395 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import components.map.Map;
+import components.map.MapSecondary;
+
+/**
+ * {@code Map} that several threads can use at once, represented as a fixed
+ * number of stripes, each a {@code Map4} guarded by its own lock, with
+ * implementations of primary methods.
+ *
+ * <p>
+ * A key always belongs to the same stripe, picked from the top bits of its
+ * mixed hash code, so operations on keys in different stripes never wait for
+ * each other, and a stripe's hash table grows under that stripe's lock alone.
+ * {@code add}, {@code remove}, {@code value}, {@code hasKey}, {@code size} and
+ * {@code compute} are atomic. {@code removeAny} takes an entry from the first
+ * non-empty stripe it finds. Iterators work on a copy of each stripe taken
+ * under its lock, so they never fail, but they may miss changes made while
+ * they run. The other {@code Map} methods are built from these and are not
+ * atomic as a whole; neither are {@code clear} and {@code transferFrom},
+ * which should only be called when no other thread is using either map.
+ *
+ * @param <K>
+ *            type of {@code Map} domain (key) entries
+ * @param <V>
+ *            type of {@code Map} range (associated value) entries
+ * @convention <pre>
+ * [|$this.stripes| is a power of 2]  and
+ * for all i: integer, x: K
+ *     where (0 <= i  and  i < |$this.stripes|  and
+ *            x is in DOMAIN($this.stripes[i]))
+ *   (STRIPE(x) = i)  and
+ * $this.size = sum i: integer
+ *     where (0 <= i  and  i < |$this.stripes|)
+ *   (|$this.stripes[i]|)
+ * [whenever no operation is in progress]
+ * </pre>
+ * @correspondence <pre>
+ * this = union i: integer
+ *            where (0 <= i  and  i < |$this.stripes|)
+ *          ($this.stripes[i])
+ * </pre>
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public class Map6<K, V> extends MapSecondary<K, V> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Fewest stripes a map has by default.
+     */
+    private static final int MIN_DEFAULT_STRIPES = 16;
+
+    /**
+     * Default number of stripes per available processor.
+     */
+    private static final int STRIPES_PER_PROCESSOR = 4;
+
+    /**
+     * Most stripes a map can have.
+     */
+    private static final int MAX_STRIPES = 1 << 16;
+
+    /**
+     * Multiplier spreading hash codes over the stripes (2^32 divided by the
+     * golden ratio); the stripe is taken from the top bits of the product.
+     */
+    private static final int SPREAD = 0x9E3779B9;
+
+    /**
+     * The stripes; each one's monitor is the lock guarding it.
+     */
+    private Map4<K, V>[] stripes;
+
+    /**
+     * Total size of abstract {@code this}.
+     */
+    private AtomicInteger size;
+
+    /**
+     * Number of low bits dropped from a spread hash code to get its stripe.
+     */
+    private int stripeShift;
+
+    /**
+     * Returns the default number of stripes.
+     *
+     * @return the number of stripes
+     * @ensures <pre>
+     * [defaultStripes is a power of 2]  and
+     * MIN_DEFAULT_STRIPES <= defaultStripes <= MAX_STRIPES
+     * </pre>
+     */
+    private static int defaultStripes() {
+        int wanted = STRIPES_PER_PROCESSOR
+                * Runtime.getRuntime().availableProcessors();
+        int result = MIN_DEFAULT_STRIPES;
+        while (result < wanted && result < MAX_STRIPES) {
+            result *= 2;
+        }
+        return result;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param stripeCount
+     *            the number of stripes
+     * @requires [stripeCount is a power of 2]  and  stripeCount <= MAX_STRIPES
+     * @ensures <pre>
+     * |$this.stripes| = stripeCount  and
+     * [every stripe of $this.stripes is empty]  and
+     * $this.size = 0
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(int stripeCount) {
+        /*
+         * With "new Map4<K, V>[...]" in place of "new Map4[...]" it does not
+         * compile; as shown, it results in a warning about an unchecked
+         * conversion, though it cannot fail.
+         */
+        this.stripes = new Map4[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Map4<>();
+        }
+        this.size = new AtomicInteger();
+        this.stripeShift = Integer.numberOfLeadingZeros(stripeCount) + 1;
+    }
+
+    /**
+     * Returns the stripe {@code key} belongs in.
+     *
+     * @param key
+     *            the key
+     * @return the stripe
+     * @requires key /= null
+     * @ensures stripeOf = $this.stripes[STRIPE(key)]
+     */
+    private Map4<K, V> stripeOf(Object key) {
+        /*
+         * A single stripe takes no bits at all, which a shift by 32 would not
+         * give, since Java only uses the low 5 bits of the shift distance
+         */
+        int index = 0;
+        if (this.stripes.length > 1) {
+            index = (key.hashCode() * SPREAD) >>> this.stripeShift;
+        }
+        return this.stripes[index];
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public Map6() {
+        this.createNewRep(defaultStripes());
+    }
+
+    /**
+     * Constructor resulting in {@code stripeCount} stripes, so that up to that
+     * many threads can change the map without waiting for each other, as long
+     * as they work on keys in different stripes.
+     *
+     * @param stripeCount
+     *            the number of stripes
+     * @requires [stripeCount is a power of 2]  and  stripeCount <= 65536
+     * @ensures this = {}
+     */
+    public Map6(int stripeCount) {
+        assert stripeCount > 0
+                && Integer.bitCount(stripeCount) == 1 : ""
+                        + "Violation of: stripeCount is a power of 2";
+        assert stripeCount <= MAX_STRIPES : ""
+                + "Violation of: stripeCount <= 65536";
+
+        this.createNewRep(stripeCount);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Map<K, V> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.stripes.length);
+    }
+
+    @Override
+    public final void transferFrom(Map<K, V> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Map6<?, ?> : ""
+                + "Violation of: source is of dynamic type Map6<?,?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Map6<?,?>, and
+         * the ?,? must be K,V or the call would not have compiled.
+         */
+        Map6<K, V> localSource = (Map6<K, V>) source;
+        this.stripes = localSource.stripes;
+        this.size = localSource.size;
+        this.stripeShift = localSource.stripeShift;
+        localSource.createNewRep(localSource.stripes.length);
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(K key, V value) {
+        assert key != null : "Violation of: key is not null";
+        assert value != null : "Violation of: value is not null";
+
+        Map4<K, V> stripe = this.stripeOf(key);
+        synchronized (stripe) {
+            assert !stripe.hasKey(key) : ""
+                    + "Violation of: key is not in DOMAIN(this)";
+            stripe.add(key, value);
+            this.size.incrementAndGet();
+        }
+    }
+
+    @Override
+    public final Pair<K, V> remove(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        Map4<K, V> stripe = this.stripeOf(key);
+        synchronized (stripe) {
+            assert stripe.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+            this.size.decrementAndGet();
+            return stripe.remove(key);
+        }
+    }
+
+    @Override
+    public final Pair<K, V> removeAny() {
+        Pair<K, V> result = null;
+        for (int i = 0; result == null && i < this.stripes.length; i++) {
+            Map4<K, V> stripe = this.stripes[i];
+            synchronized (stripe) {
+                if (stripe.size() > 0) {
+                    result = stripe.removeAny();
+                    this.size.decrementAndGet();
+                }
+            }
+        }
+        assert result != null : "Violation of: this /= empty_set";
+        return result;
+    }
+
+    @Override
+    public final V value(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        Map4<K, V> stripe = this.stripeOf(key);
+        synchronized (stripe) {
+            assert stripe.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+            return stripe.value(key);
+        }
+    }
+
+    @Override
+    public final boolean hasKey(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        Map4<K, V> stripe = this.stripeOf(key);
+        synchronized (stripe) {
+            return stripe.hasKey(key);
+        }
+    }
+
+    @Override
+    public final int size() {
+        return this.size.get();
+    }
+
+    @Override
+    public final Iterator<Pair<K, V>> iterator() {
+        List<Pair<K, V>> entries = new ArrayList<>(Math.max(0, this.size()));
+        for (Map4<K, V> stripe : this.stripes) {
+            synchronized (stripe) {
+                for (Pair<K, V> entry : stripe) {
+                    entries.add(entry);
+                }
+            }
+        }
+        return Collections.unmodifiableList(entries).iterator();
+    }
+
+    /*
+     * Other methods -----------------------------------------------------------
+     */
+
+    /**
+     * Atomically replaces the value associated with {@code key} by the one
+     * {@code remapping} computes from the key and its current value (null if
+     * the key is not in {@code this}), adding the key if it was not there and
+     * removing it if the computed value is null. No other operation on
+     * {@code key}'s stripe runs while {@code remapping} does, so it should be
+     * quick and must not use {@code this}.
+     *
+     * @param key
+     *            the key
+     * @param remapping
+     *            computes the new value from the key and the old value
+     * @return the new value, or null if key is no longer in {@code this}
+     * @updates this
+     * @requires key /= null and remapping /= null
+     * @ensures <pre>
+     * [compute = remapping(key, the value of key in #this, or null)]  and
+     * (if compute = null then this = #this \ {(key, #this(key))}
+     *  else this = (#this \ {(key, #this(key))}) union {(key, compute)})
+     * </pre>
+     */
+    public final V compute(K key,
+            BiFunction<? super K, ? super V, ? extends V> remapping) {
+        assert key != null : "Violation of: key is not null";
+        assert remapping != null : "Violation of: remapping is not null";
+
+        Map4<K, V> stripe = this.stripeOf(key);
+        synchronized (stripe) {
+            V oldValue = null;
+            if (stripe.hasKey(key)) {
+                oldValue = stripe.remove(key).value();
+            }
+            V newValue = remapping.apply(key, oldValue);
+            if (newValue != null) {
+                stripe.add(key, newValue);
+            }
+            if (oldValue == null && newValue != null) {
+                this.size.incrementAndGet();
+            } else if (oldValue != null && newValue == null) {
+                this.size.decrementAndGet();
+            }
+            return newValue;
+        }
+    }
+
+    /**
+     * Atomically adds 1 to the count associated with {@code key} in
+     * {@code map}, adding {@code key} with count 1 if it is not there.
+     *
+     * @param <K>
+     *            type of {@code Map} domain (key) entries
+     * @param map
+     *            the map of counts
+     * @param key
+     *            the key to count
+     * @return the new count
+     * @updates map
+     * @requires key /= null
+     * @ensures <pre>
+     * increment = [the value of key in #map, or 0] + 1  and
+     * map = (#map \ {(key, #map(key))}) union {(key, increment)}
+     * </pre>
+     */
+    public static <K> int increment(Map6<K, Integer> map, K key) {
+        assert map != null : "Violation of: map is not null";
+        assert key != null : "Violation of: key is not null";
+
+        return map.compute(key, (k, count) -> {
+            int result = 1;
+            if (count != null) {
+                result = count + 1;
+            }
+            return result;
+        });
+    }
+
+}
@@ -0,0 +1,791 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import components.map.Map;
+import components.map.MapSecondary;
+
+/**
+ * {@code Map} that several threads can use at once without locks, represented
+ * as a hash table of immutable bucket lists that are only ever swapped whole
+ * by compare-and-set, with implementations of primary methods.
+ *
+ * <p>
+ * {@code value} and {@code hasKey} never write and never wait: they read a
+ * bucket once and walk the list found there, which no thread can change
+ * afterwards. {@code add}, {@code remove} and {@code removeAny} build a new
+ * list for the bucket, sharing what they can of the old one, and install it
+ * with a compare-and-set, retrying if another thread changed the bucket first.
+ *
+ * <p>
+ * When the table gets too full, a table twice the size is hung off it, and
+ * every thread that adds an entry or runs into a bucket being moved helps move
+ * buckets over, a chunk at a time. A bucket is moved by first freezing it
+ * (swapping its list for a {@code Frozen} wrapper of the same list, which
+ * writers may not replace), then copying its entries into the two buckets of
+ * the new table they belong in, and finally replacing it with the new table
+ * itself, which readers and writers follow to find the entries there. Readers
+ * read through frozen buckets, so resizing never holds them up either.
+ *
+ * <p>
+ * {@code size} is exact whenever no operation is in progress. Iterators work
+ * on a copy of the entries taken one bucket at a time, so they never fail, but
+ * they may miss changes made while they run. The other {@code Map} methods are
+ * built from these and are not atomic as a whole; neither are {@code clear}
+ * and {@code transferFrom}, which should only be called when no other thread
+ * is using either map.
+ *
+ * @param <K>
+ *            type of {@code Map} domain (key) entries
+ * @param <V>
+ *            type of {@code Map} range (associated value) entries
+ * @convention <pre>
+ * [|$this.table.buckets| is a power of 2 and at least 2]  and
+ * [every bucket reachable from $this.table, directly or through forwarding,
+ *  holds EMPTY, a list of entries, a Frozen list of entries, or the table it
+ *  was moved to]  and
+ * [every entry e is in the bucket of index INDEX(e.hash) of its table]  and
+ * [no two reachable lists hold entries with equal keys]  and
+ * $this.size = [number of entries in reachable lists]
+ * [whenever no operation is in progress]
+ * where INDEX(h) = [top log2(|buckets|) bits of h]
+ * </pre>
+ * @correspondence <pre>
+ * this = {(e.key, e.value): (K, V)
+ *            where [e is an entry in a list reachable from $this.table]}
+ * </pre>
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public class Map7<K, V> extends MapSecondary<K, V> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Default number of buckets.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Fewest buckets the table can have.
+     */
+    private static final int MIN_CAPACITY = 2;
+
+    /**
+     * Most buckets the table can have.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Largest ratio of size to number of buckets before the table doubles.
+     */
+    private static final double MAX_LOAD = 0.75;
+
+    /**
+     * Multiplier spreading hash codes over the buckets (2^32 divided by the
+     * golden ratio); the bucket is taken from the top bits of the product.
+     */
+    private static final int SPREAD = 0x9E3779B9;
+
+    /**
+     * Number of buckets a thread claims at a time when helping to move a
+     * table.
+     */
+    private static final int MIGRATION_CHUNK = 64;
+
+    /**
+     * Contents of a bucket with no entries. A bucket of a new table is null
+     * until its entries are moved in, and never null again afterwards, so a
+     * late copy can never bring back entries that have since been removed.
+     */
+    private static final Object EMPTY = new Object();
+
+    /**
+     * Atomic access to the buckets of a table.
+     */
+    private static final VarHandle BUCKETS = MethodHandles
+            .arrayElementVarHandle(Object[].class);
+
+    /**
+     * Atomic access to {@code Table.next}.
+     */
+    private static final VarHandle NEXT;
+
+    /**
+     * Atomic access to {@code Table.claimed}.
+     */
+    private static final VarHandle CLAIMED;
+
+    /**
+     * Atomic access to {@code this.table}.
+     */
+    private static final VarHandle TABLE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            NEXT = lookup.findVarHandle(Table.class, "next", Table.class);
+            CLAIMED = lookup.findVarHandle(Table.class, "claimed", int.class);
+            TABLE = lookup.findVarHandle(Map7.class, "table", Table.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * The current table.
+     */
+    private volatile Table<K, V> table;
+
+    /**
+     * Total size of abstract {@code this}.
+     */
+    private AtomicInteger size;
+
+    /**
+     * Returns the smallest power of 2 that is at least {@code n}, within
+     * {@code MIN_CAPACITY} and {@code MAX_CAPACITY}.
+     *
+     * @param n
+     *            the number of buckets wanted
+     * @return the number of buckets to use
+     * @ensures <pre>
+     * [capacityFor is a power of 2]  and
+     * MIN_CAPACITY <= capacityFor <= MAX_CAPACITY  and
+     * [capacityFor >= n, unless n > MAX_CAPACITY]
+     * </pre>
+     */
+    private static int capacityFor(int n) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < n && capacity < MAX_CAPACITY) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    /**
+     * Returns the spread hash code of {@code key}, from whose top bits its
+     * bucket is taken.
+     *
+     * @param key
+     *            the key
+     * @return the spread hash code
+     * @requires key /= null
+     */
+    private static int spread(Object key) {
+        return key.hashCode() * SPREAD;
+    }
+
+    /**
+     * Returns the list of entries in a bucket holding {@code contents}.
+     *
+     * @param <K>
+     *            type of key
+     * @param <V>
+     *            type of value
+     * @param contents
+     *            the contents of the bucket
+     * @return the first entry of the list, or null if it is empty
+     * @requires [contents is not a table]
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> Entry<K, V> entriesIn(Object contents) {
+        Entry<K, V> result = null;
+        if (contents instanceof Entry<?, ?>) {
+            result = (Entry<K, V>) contents;
+        } else if (contents instanceof Frozen<?, ?>) {
+            result = ((Frozen<K, V>) contents).entries;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the contents of bucket {@code index} of {@code table}.
+     *
+     * @param table
+     *            the table
+     * @param index
+     *            the bucket
+     * @return the contents of the bucket
+     */
+    private static Object bucket(Table<?, ?> table, int index) {
+        return BUCKETS.getVolatile(table.buckets, index);
+    }
+
+    /**
+     * Replaces the contents of bucket {@code index} of {@code table} by
+     * {@code replacement} if they are still {@code expected}.
+     *
+     * @param table
+     *            the table
+     * @param index
+     *            the bucket
+     * @param expected
+     *            the contents the bucket must still hold
+     * @param replacement
+     *            the new contents
+     * @return whether the bucket was changed
+     */
+    private static boolean swapBucket(Table<?, ?> table, int index,
+            Object expected, Object replacement) {
+        return BUCKETS.compareAndSet(table.buckets, index, expected,
+                replacement);
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param capacity
+     *            the number of buckets
+     * @requires [capacity is a power of 2 and at least 2]
+     * @ensures <pre>
+     * |$this.table.buckets| = capacity  and
+     * [every bucket of $this.table is EMPTY]  and
+     * $this.size = 0
+     * </pre>
+     */
+    private void createNewRep(int capacity) {
+        this.table = new Table<>(capacity, true);
+        this.size = new AtomicInteger();
+    }
+
+    /**
+     * Returns the entry with key {@code key}, or null if there is none. Only
+     * reads.
+     *
+     * @param key
+     *            the key
+     * @return the entry
+     * @requires key /= null
+     */
+    private Entry<K, V> find(Object key) {
+        int hash = spread(key);
+        Table<K, V> t = this.table;
+        Object contents = bucket(t, t.index(hash));
+        while (contents instanceof Table<?, ?>) {
+            t = t.next;
+            contents = bucket(t, t.index(hash));
+        }
+        Entry<K, V> e = entriesIn(contents);
+        while (e != null && (e.hash != hash || !e.key.equals(key))) {
+            e = e.next;
+        }
+        return e;
+    }
+
+    /**
+     * Moves bucket {@code index} of {@code old} into {@code old.next}, unless
+     * some thread has already done so.
+     *
+     * @param <K>
+     *            type of key
+     * @param <V>
+     *            type of value
+     * @param old
+     *            the table being moved
+     * @param index
+     *            the bucket
+     * @requires old.next /= null
+     * @ensures [bucket index of old has been replaced by old.next]
+     */
+    private static <K, V> void moveBucket(Table<K, V> old, int index) {
+        Table<K, V> next = old.next;
+        Object contents = bucket(old, index);
+        while (!(contents instanceof Table<?, ?>)) {
+            if (contents instanceof Frozen<?, ?>) {
+                /*
+                 * Nobody can change a frozen list, so every thread copying it
+                 * makes the same two lists, and only the first copy of each
+                 * gets in
+                 */
+                Entry<K, V> low = null;
+                Entry<K, V> high = null;
+                for (Entry<K, V> e = entriesIn(contents); e != null; e = e.next) {
+                    if (next.index(e.hash) == 2 * index) {
+                        low = new Entry<>(e.hash, e.key, e.value, low);
+                    } else {
+                        high = new Entry<>(e.hash, e.key, e.value, high);
+                    }
+                }
+                swapBucket(next, 2 * index, null, low != null ? low : EMPTY);
+                swapBucket(next, 2 * index + 1, null,
+                        high != null ? high : EMPTY);
+                swapBucket(old, index, contents, next);
+            } else {
+                swapBucket(old, index, contents,
+                        new Frozen<>(entriesIn(contents)));
+            }
+            contents = bucket(old, index);
+        }
+    }
+
+    /**
+     * Helps move {@code old} into {@code old.next}: moves chunks of buckets
+     * nobody has claimed yet, then makes sure every bucket has been moved
+     * (finishing any whose thread has stalled) and makes {@code old.next}
+     * the current table.
+     *
+     * @param old
+     *            the table being moved
+     * @requires old.next /= null
+     * @ensures [every bucket of old has been moved to old.next]  and
+     *          $this.table /= old
+     */
+    private void helpMove(Table<K, V> old) {
+        int length = old.buckets.length;
+        int start = (int) CLAIMED.getAndAdd(old, MIGRATION_CHUNK);
+        while (start < length) {
+            int end = Math.min(start + MIGRATION_CHUNK, length);
+            for (int i = start; i < end; i++) {
+                moveBucket(old, i);
+            }
+            start = (int) CLAIMED.getAndAdd(old, MIGRATION_CHUNK);
+        }
+        for (int i = 0; i < length; i++) {
+            moveBucket(old, i);
+        }
+        TABLE.compareAndSet(this, old, old.next);
+    }
+
+    /**
+     * Starts doubling {@code current}, if nobody has yet, and helps finish it.
+     *
+     * @param current
+     *            the table to double
+     * @requires |current.buckets| < MAX_CAPACITY
+     */
+    private void grow(Table<K, V> current) {
+        if (current.next == null) {
+            NEXT.compareAndSet(current, null,
+                    new Table<K, V>(2 * current.buckets.length, false));
+        }
+        this.helpMove(current);
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public Map7() {
+        this.createNewRep(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor resulting in a table with room for {@code expectedSize}
+     * entries before it has to grow.
+     *
+     * @param expectedSize
+     *            number of entries to make room for
+     * @requires expectedSize >= 0
+     * @ensures this = {}
+     */
+    public Map7(int expectedSize) {
+        assert expectedSize >= 0 : "Violation of: expectedSize >= 0";
+
+        this.createNewRep(capacityFor((int) Math
+                .min(Math.ceil(expectedSize / MAX_LOAD), MAX_CAPACITY)));
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Map<K, V> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public final void transferFrom(Map<K, V> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Map7<?, ?> : ""
+                + "Violation of: source is of dynamic type Map7<?,?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Map7<?,?>, and
+         * the ?,? must be K,V or the call would not have compiled.
+         */
+        Map7<K, V> localSource = (Map7<K, V>) source;
+        this.table = localSource.table;
+        this.size = localSource.size;
+        localSource.createNewRep(DEFAULT_CAPACITY);
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(K key, V value) {
+        assert key != null : "Violation of: key is not null";
+        assert value != null : "Violation of: value is not null";
+        assert !this.hasKey(key) : "Violation of: key is not in DOMAIN(this)";
+
+        int hash = spread(key);
+        Table<K, V> t = this.table;
+        boolean added = false;
+        while (!added) {
+            int index = t.index(hash);
+            Object contents = bucket(t, index);
+            if (contents instanceof Table<?, ?>) {
+                t = t.next;
+            } else if (contents instanceof Frozen<?, ?>) {
+                this.helpMove(t);
+                t = t.next;
+            } else {
+                added = swapBucket(t, index, contents, new Entry<>(hash, key,
+                        value, Map7.<K, V>entriesIn(contents)));
+            }
+        }
+        int newSize = this.size.incrementAndGet();
+        Table<K, V> current = this.table;
+        if (newSize > MAX_LOAD * current.buckets.length
+                && current.buckets.length < MAX_CAPACITY) {
+            this.grow(current);
+        }
+    }
+
+    @Override
+    public final Pair<K, V> remove(K key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        int hash = spread(key);
+        Table<K, V> t = this.table;
+        Entry<K, V> removed = null;
+        while (removed == null) {
+            int index = t.index(hash);
+            Object contents = bucket(t, index);
+            if (contents instanceof Table<?, ?>) {
+                t = t.next;
+            } else if (contents instanceof Frozen<?, ?>) {
+                this.helpMove(t);
+                t = t.next;
+            } else {
+                Entry<K, V> first = entriesIn(contents);
+                Entry<K, V> target = first;
+                while (target != null
+                        && (target.hash != hash || !target.key.equals(key))) {
+                    target = target.next;
+                }
+                assert target != null : "Violation of: key is in DOMAIN(this)";
+                /*
+                 * The entries after target are kept as they are; the ones
+                 * before it are copied, since lists are never changed
+                 */
+                Entry<K, V> rest = target.next;
+                for (Entry<K, V> e = first; e != target; e = e.next) {
+                    rest = new Entry<>(e.hash, e.key, e.value, rest);
+                }
+                if (swapBucket(t, index, contents,
+                        rest != null ? rest : EMPTY)) {
+                    removed = target;
+                }
+            }
+        }
+        this.size.decrementAndGet();
+        return removed;
+    }
+
+    @Override
+    public final Pair<K, V> removeAny() {
+        assert this.size() > 0 : "Violation of: this /= empty_set";
+
+        Entry<K, V> removed = null;
+        boolean sawAll = false;
+        while (removed == null && !sawAll) {
+            Table<K, V> t = this.table;
+            int mask = t.buckets.length - 1;
+            int start = t.firstOccupied;
+            int i = 0;
+            while (removed == null && i <= mask) {
+                int index = (start + i) & mask;
+                Object contents = bucket(t, index);
+                if (contents instanceof Table<?, ?>
+                        || contents instanceof Frozen<?, ?>) {
+                    this.helpMove(t);
+                    i = mask + 1;
+                } else if (contents instanceof Entry<?, ?>) {
+                    Entry<K, V> first = entriesIn(contents);
+                    if (swapBucket(t, index, contents,
+                            first.next != null ? first.next : EMPTY)) {
+                        removed = first;
+                        t.firstOccupied = index;
+                    }
+                } else {
+                    i++;
+                }
+            }
+            sawAll = removed == null && t == this.table;
+        }
+        assert removed != null : "Violation of: this /= empty_set";
+        this.size.decrementAndGet();
+        return removed;
+    }
+
+    @Override
+    public final V value(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        Entry<K, V> e = this.find(key);
+        assert e != null : "Violation of: key is in DOMAIN(this)";
+        return e.value;
+    }
+
+    @Override
+    public final boolean hasKey(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        return this.find(key) != null;
+    }
+
+    @Override
+    public final int size() {
+        return this.size.get();
+    }
+
+    @Override
+    public final Iterator<Pair<K, V>> iterator() {
+        List<Pair<K, V>> entries = new ArrayList<>(Math.max(0, this.size()));
+        Table<K, V> t = this.table;
+        for (int i = 0; i < t.buckets.length; i++) {
+            collect(t, i, entries);
+        }
+        return Collections.unmodifiableList(entries).iterator();
+    }
+
+    /**
+     * Adds the entries now in bucket {@code index} of {@code table}, or in the
+     * buckets it has been moved to, to {@code entries}.
+     *
+     * @param <K>
+     *            type of key
+     * @param <V>
+     *            type of value
+     * @param table
+     *            the table
+     * @param index
+     *            the bucket
+     * @param entries
+     *            the entries found so far
+     * @updates entries
+     */
+    private static <K, V> void collect(Table<K, V> table, int index,
+            List<Pair<K, V>> entries) {
+        Object contents = bucket(table, index);
+        if (contents instanceof Table<?, ?>) {
+            collect(table.next, 2 * index, entries);
+            collect(table.next, 2 * index + 1, entries);
+        } else {
+            for (Entry<K, V> e = entriesIn(contents); e != null; e = e.next) {
+                entries.add(e);
+            }
+        }
+    }
+
+    /**
+     * Hash table: an array of buckets and, while it is being doubled, the
+     * table its entries are moving to.
+     *
+     * @param <K>
+     *            type of key
+     * @param <V>
+     *            type of value
+     */
+    private static final class Table<K, V> {
+
+        /**
+         * The buckets; see {@code BUCKETS}.
+         */
+        private final Object[] buckets;
+
+        /**
+         * Number of low bits dropped from a spread hash code to get its
+         * bucket.
+         */
+        private final int shift;
+
+        /**
+         * The table twice the size this one is moving to, or null.
+         */
+        private volatile Table<K, V> next;
+
+        /**
+         * Buckets below this one have been claimed by threads moving them.
+         */
+        private volatile int claimed;
+
+        /**
+         * Where {@code removeAny} starts looking. Only a hint, read and
+         * written without synchronization.
+         */
+        private int firstOccupied;
+
+        /**
+         * Constructor.
+         *
+         * @param length
+         *            the number of buckets
+         * @param empty
+         *            whether to fill the buckets with {@code EMPTY}, as for a
+         *            table with no entries, rather than leave them null, as
+         *            for one that entries will be moved into
+         * @requires [length is a power of 2 and at least 2]
+         */
+        Table(int length, boolean empty) {
+            this.buckets = new Object[length];
+            if (empty) {
+                Arrays.fill(this.buckets, EMPTY);
+            }
+            this.shift = Integer.numberOfLeadingZeros(length) + 1;
+        }
+
+        /**
+         * Returns the bucket of an entry with spread hash code {@code hash}.
+         *
+         * @param hash
+         *            the spread hash code
+         * @return the bucket
+         * @ensures 0 <= index < |this.buckets|
+         */
+        int index(int hash) {
+            return hash >>> this.shift;
+        }
+
+    }
+
+    /**
+     * Wrapper marking a bucket as being moved; the list it holds may be read
+     * but not replaced.
+     *
+     * @param <K>
+     *            type of key
+     * @param <V>
+     *            type of value
+     */
+    private static final class Frozen<K, V> {
+
+        /**
+         * The entries of the bucket, or null if it has none.
+         */
+        private final Entry<K, V> entries;
+
+        /**
+         * Constructor.
+         *
+         * @param entries
+         *            the entries of the bucket
+         */
+        Frozen(Entry<K, V> entries) {
+            this.entries = entries;
+        }
+
+    }
+
+    /**
+     * Node of an immutable bucket list, which is also the {@code Pair} handed
+     * out for its entry.
+     *
+     * @param <K>
+     *            type of key
+     * @param <V>
+     *            type of value
+     */
+    private static final class Entry<K, V> implements Pair<K, V> {
+
+        /**
+         * Spread hash code of the key.
+         */
+        private final int hash;
+
+        /**
+         * The key.
+         */
+        private final K key;
+
+        /**
+         * The value.
+         */
+        private final V value;
+
+        /**
+         * The rest of the list, or null.
+         */
+        private final Entry<K, V> next;
+
+        /**
+         * Constructor.
+         *
+         * @param hash
+         *            spread hash code of key
+         * @param key
+         *            the key
+         * @param value
+         *            the value
+         * @param next
+         *            the rest of the list
+         */
+        Entry(int hash, K key, V value, Entry<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+
+        @Override
+        public K key() {
+            return this.key;
+        }
+
+        @Override
+        public V value() {
+            return this.value;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            boolean result = false;
+            if (obj instanceof Pair<?, ?>) {
+                Pair<?, ?> other = (Pair<?, ?>) obj;
+                result = this.key.equals(other.key())
+                        && this.value.equals(other.value());
+            }
+            return result;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.key.hashCode() ^ this.value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "(" + this.key + "," + this.value + ")";
+        }
+
+    }
+
+}
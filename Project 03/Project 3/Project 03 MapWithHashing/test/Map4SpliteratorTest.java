@@ -0,0 +1,174 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import components.map.Map.Pair;
+
+/**
+ * JUnit test fixture for {@code Map4.spliterator}, {@code Map4.stream} and
+ * {@code Map4.parallelStream}.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ */
+public class Map4SpliteratorTest {
+
+    /**
+     * Number of entries in the larger tests.
+     */
+    private static final int MANY = 10_000;
+
+    /**
+     * Returns a map of "key0" to 0 through "key{n-1}" to n-1.
+     *
+     * @param map
+     *            the map to fill
+     * @param n
+     *            number of entries
+     * @return {@code map}
+     */
+    private static Map4<String, Integer> filled(Map4<String, Integer> map,
+            int n) {
+        for (int i = 0; i < n; i++) {
+            map.add("key" + i, i);
+        }
+        return map;
+    }
+
+    /**
+     * Splits {@code spliterator} as far as it goes, checking that the sizes
+     * of the parts add up, and puts every entry the parts hold in
+     * {@code entries}, checking that none comes twice.
+     *
+     * @param spliterator
+     *            the spliterator
+     * @param entries
+     *            where to put the entries
+     * @updates entries
+     */
+    private static void splitAndDrain(
+            Spliterator<Pair<String, Integer>> spliterator,
+            HashMap<String, Integer> entries) {
+        long size = spliterator.estimateSize();
+        Spliterator<Pair<String, Integer>> prefix = spliterator.trySplit();
+        if (prefix == null) {
+            int before = entries.size();
+            spliterator.forEachRemaining(
+                    p -> assertNull(entries.put(p.key(), p.value())));
+            assertEquals(size, entries.size() - before);
+            assertEquals(0, spliterator.estimateSize());
+        } else {
+            assertEquals(size,
+                    prefix.estimateSize() + spliterator.estimateSize());
+            splitAndDrain(prefix, entries);
+            splitAndDrain(spliterator, entries);
+        }
+    }
+
+    @Test //routine case
+    public void testEmptyMap() {
+        //Set up variables
+        Map4<String, Integer> map = new Map4<>();
+        //Call method under test
+        Spliterator<Pair<String, Integer>> spliterator = map.spliterator();
+        //Assert that values of variables match expectations
+        assertEquals(0, spliterator.getExactSizeIfKnown());
+        assertFalse(spliterator.tryAdvance(p -> {
+        }));
+        assertEquals(0, map.parallelStream().count());
+    }
+
+    @Test //routine case
+    public void testStreamSeesEveryEntry() {
+        //Set up variables
+        Map4<String, Integer> map = filled(new Map4<>(), MANY);
+        //Call method under test
+        java.util.Map<String, Integer> streamed = map.stream()
+                .collect(Collectors.toMap(Pair::key, Pair::value));
+        //Assert that values of variables match expectations
+        assertEquals(MANY, streamed.size());
+        for (int i = 0; i < MANY; i++) {
+            assertEquals(i, streamed.get("key" + i).intValue());
+        }
+    }
+
+    @Test //routine case
+    public void testParallelStreamSum() {
+        //Set up variables
+        Map4<String, Integer> map = filled(new Map4<>(), MANY);
+        //Call method under test
+        long sum = map.parallelStream().mapToLong(Pair::value).sum();
+        long count = map.parallelStream().filter(p -> p.value() % 2 == 0)
+                .count();
+        //Assert that values of variables match expectations
+        assertEquals((long) MANY * (MANY - 1) / 2, sum);
+        assertEquals(MANY / 2, count);
+    }
+
+    @Test //routine case
+    public void testTryAdvanceCountsDown() {
+        //Set up variables
+        Map4<String, Integer> map = filled(new Map4<>(), 100);
+        Spliterator<Pair<String, Integer>> spliterator = map.spliterator();
+        List<String> seen = new ArrayList<>();
+        //Call method under test
+        while (spliterator.tryAdvance(p -> seen.add(p.key()))) {
+            assertEquals(100 - seen.size(), spliterator.estimateSize());
+        }
+        //Assert that values of variables match expectations
+        assertEquals(100, seen.size());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+    }
+
+    @Test //challenging case
+    public void testSplitsAreExactAndDisjoint() {
+        //Set up variables
+        Map4<String, Integer> map = filled(new Map4<>(), MANY);
+        HashMap<String, Integer> entries = new HashMap<>();
+        //Call method under test
+        splitAndDrain(map.spliterator(), entries);
+        //Assert that values of variables match expectations
+        assertEquals(MANY, entries.size());
+    }
+
+    @Test //challenging case
+    public void testSplitAfterPartialTraversal() {
+        //Set up variables
+        Map4<String, Integer> map = filled(new Map4<>(), MANY);
+        Spliterator<Pair<String, Integer>> spliterator = map.spliterator();
+        HashMap<String, Integer> entries = new HashMap<>();
+        //Call method under test
+        for (int i = 0; i < 3; i++) {
+            spliterator.tryAdvance(p -> entries.put(p.key(), p.value()));
+        }
+        splitAndDrain(spliterator, entries);
+        //Assert that values of variables match expectations
+        assertEquals(MANY, entries.size());
+    }
+
+    @Test //challenging case
+    public void testIncrementalMidMigration() {
+        //Set up variables
+        Map4<String, Integer> map = Map4.incremental(4);
+        //Call method under test
+        for (int i = 0; i < MANY; i++) {
+            map.add("key" + i, i);
+            if (i % 97 == 0) {
+                HashMap<String, Integer> entries = new HashMap<>();
+                splitAndDrain(map.spliterator(), entries);
+                assertEquals(i + 1, entries.size());
+            }
+        }
+        //Assert that values of variables match expectations
+        assertEquals(MANY, map.parallelStream().count());
+    }
+
+}
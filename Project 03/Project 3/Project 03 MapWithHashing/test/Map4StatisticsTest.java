@@ -0,0 +1,250 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * JUnit test fixture for {@code Map4.statistics} and {@code Map4Statistics}.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ */
+public class Map4StatisticsTest {
+
+    /**
+     * Number of keys added in the larger tests.
+     */
+    private static final int MANY = 1_000;
+
+    /**
+     * Number of colliding keys added, more than a linear bucket holds.
+     */
+    private static final int COLLIDING = 16;
+
+    /**
+     * Returns a key made of {@code "Aa"} and {@code "BB"} blocks picked by the
+     * bits of {@code bits}; all such keys have the same {@code hashCode}.
+     *
+     * @param bits
+     *            which block goes where
+     * @return the key
+     */
+    private static String collidingKey(int bits) {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < Integer.SIZE - 1; i++) {
+            if ((bits & (1 << i)) == 0) {
+                key.append("Aa");
+            } else {
+                key.append("BB");
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Checks that the histogram of {@code stats} adds up to its bucket count
+     * and its size.
+     *
+     * @param stats
+     *            the snapshot
+     */
+    private static void assertHistogramAddsUp(Map4Statistics stats) {
+        int[] histogram = stats.occupancyHistogram();
+        int buckets = 0;
+        int entries = 0;
+        for (int k = 0; k < histogram.length; k++) {
+            assertEquals(histogram[k], stats.occupancy(k));
+            buckets += histogram[k];
+            entries += k * histogram[k];
+        }
+        assertEquals(stats.buckets(), buckets);
+        assertEquals(stats.size(), entries);
+        assertEquals(histogram.length - 1, stats.maxChainLength());
+        assertTrue(histogram[histogram.length - 1] > 0
+                || histogram.length == 1);
+    }
+
+    @Test //routine case
+    public void testEmptyMap() {
+        //Set up variables
+        Map4<String, Integer> map = new Map4<>(7);
+        //Call method under test
+        Map4Statistics stats = map.statistics();
+        //Assert that values of variables match expectations
+        assertEquals(0, stats.size());
+        assertEquals(7, stats.buckets());
+        assertEquals(7, stats.occupancy(0));
+        assertEquals(0, stats.maxChainLength());
+        assertEquals(0, stats.meanChainLength(), 0);
+        assertEquals(0, stats.probesPerLookup(), 0);
+    }
+
+    @Test //routine case
+    public void testDisabledCountsNothing() {
+        //Set up variables
+        Map4<String, Integer> map = new Map4<>(3);
+        //Call method under test
+        for (int i = 0; i < MANY; i++) {
+            map.add("key" + i, i);
+            map.hasKey("key" + i);
+            map.value("key" + i);
+        }
+        Map4Statistics stats = map.statistics();
+        //Assert that values of variables match expectations
+        assertEquals(0, stats.lookups());
+        assertEquals(0, stats.resizes());
+        assertEquals(MANY, stats.size());
+        assertHistogramAddsUp(stats);
+    }
+
+    @Test //routine case
+    public void testLookupsCounted() {
+        //Set up variables
+        Map4<String, Integer> map = new Map4<>();
+        for (int i = 0; i < 10; i++) {
+            map.add("key" + i, i);
+        }
+        map.setStatisticsEnabled(true);
+        //Call method under test
+        boolean found = map.hasKey("key3");
+        boolean missing = map.hasKey("absent");
+        int value = map.value("key5");
+        Map4Statistics stats = map.statistics();
+        //Assert that values of variables match expectations
+        assertTrue(found);
+        assertTrue(!missing);
+        assertEquals(5, value);
+        assertEquals(3, stats.lookups());
+        assertTrue(stats.probesPerLookup() > 0);
+    }
+
+    @Test //challenging case
+    public void testPreconditionChecksNotCounted() {
+        /*
+         * add, value and remove check their preconditions with hasKey-like
+         * lookups only when assertions are enabled, as they are when this
+         * course runs its tests; those checks must not be counted
+         */
+        assumeTrue(Map4.class.desiredAssertionStatus());
+        //Set up variables
+        final int count = 100;
+        Map4<String, Integer> map = new Map4<>();
+        map.setStatisticsEnabled(true);
+        //Call method under test
+        for (int i = 0; i < count; i++) {
+            map.add("key" + i, i);
+        }
+        for (int i = 0; i < count; i++) {
+            map.value("key" + i);
+        }
+        for (int i = 0; i < count / 2; i++) {
+            map.remove("key" + i);
+        }
+        Map4Statistics stats = map.statistics();
+        //Assert that values of variables match expectations
+        assertEquals(count + count / 2, stats.lookups());
+        assertTrue(stats.probesPerLookup() >= 1);
+    }
+
+    @Test //routine case
+    public void testResizesCounted() {
+        //Set up variables
+        Map4<String, Integer> map = new Map4<>(4);
+        map.setStatisticsEnabled(true);
+        //Call method under test
+        for (int i = 0; i < MANY; i++) {
+            map.add("key" + i, i);
+        }
+        Map4Statistics stats = map.statistics();
+        //Assert that values of variables match expectations
+        assertTrue(stats.resizes() > 0);
+        assertTrue(stats.buckets() > 4);
+        assertTrue(stats.load() <= 1);
+        assertHistogramAddsUp(stats);
+    }
+
+    @Test //routine case
+    public void testIncrementalMidMigration() {
+        //Set up variables
+        Map4<String, Integer> map = Map4.incremental(4);
+        map.setStatisticsEnabled(true);
+        //Call method under test
+        for (int i = 0; i < MANY; i++) {
+            map.add("key" + i, i);
+            assertHistogramAddsUp(map.statistics());
+        }
+        //Assert that values of variables match expectations
+        assertEquals(MANY, map.statistics().size());
+    }
+
+    @Test //challenging case
+    public void testCollidingKeysMakeOneTreeBucket() {
+        //Set up variables
+        Map4<String, Integer> map = new Map4<>();
+        map.setStatisticsEnabled(true);
+        //Call method under test
+        for (int i = 0; i < COLLIDING; i++) {
+            map.add(collidingKey(i), i);
+        }
+        Map4Statistics before = map.statistics();
+        for (int i = 0; i < COLLIDING; i++) {
+            map.value(collidingKey(i));
+        }
+        Map4Statistics after = map.statistics();
+        //Assert that values of variables match expectations
+        assertEquals(COLLIDING, after.maxChainLength());
+        assertEquals(1, after.occupancy(COLLIDING));
+        assertEquals(1, after.treeBuckets());
+        assertEquals(COLLIDING, after.meanChainLength(), 0);
+        assertTrue(after.probesPerLookup() < COLLIDING);
+        assertTrue(after.lookups() > before.lookups());
+        assertHistogramAddsUp(after);
+    }
+
+    @Test //challenging case
+    public void testFlightRecorderEvents() throws Exception {
+        //Set up variables
+        Path file = Files.createTempFile("map4", ".jfr");
+        Map4<String, Integer> map = new Map4<>(4);
+        map.setStatisticsEnabled(true);
+        //Call method under test
+        try (Recording recording = new Recording()) {
+            recording.enable("Map4.Resize");
+            recording.enable("Map4.Statistics");
+            recording.start();
+            for (int i = 0; i < MANY; i++) {
+                map.add("key" + i, i);
+            }
+            map.statistics();
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        //Assert that values of variables match expectations
+        int resizes = 0;
+        int snapshots = 0;
+        for (RecordedEvent event : events) {
+            String name = event.getEventType().getName();
+            if (name.equals("Map4.Resize")) {
+                assertTrue(event.getInt("newBuckets") > event
+                        .getInt("oldBuckets"));
+                resizes++;
+            } else if (name.equals("Map4.Statistics")) {
+                assertEquals(MANY, event.getInt("size"));
+                snapshots++;
+            }
+        }
+        assertEquals(map.statistics().resizes(), resizes);
+        assertEquals(1, snapshots);
+    }
+
+}
@@ -1,4 +1,11 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
 import components.map.Map;
+import components.map.Map.Pair;
 import components.map.Map1L;
 
 /**
@@ -16,4 +23,253 @@ public class Map4Test extends MapTest {
         return new Map1L<String, String>();
     }
 
+    /**
+     * Number of two-character blocks in each colliding key.
+     */
+    private static final int BLOCKS = 8;
+
+    /**
+     * Returns the key made of the blocks "Aa" and "BB" picked by the low
+     * {@code BLOCKS} bits of {@code bits}; all such keys have the same
+     * {@code hashCode}, since "Aa" and "BB" do.
+     *
+     * @param bits
+     *            which block goes where
+     * @return the key
+     */
+    private static String collidingKey(int bits) {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < BLOCKS; i++) {
+            if ((bits & (1 << i)) == 0) {
+                key.append("Aa");
+            } else {
+                key.append("BB");
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Key that is not {@code Comparable} and whose hash code is the same for
+     * every key.
+     */
+    private static final class PlainKey {
+
+        /**
+         * What the key stands for.
+         */
+        private final int id;
+
+        /**
+         * Constructor.
+         *
+         * @param id
+         *            what the key stands for
+         */
+        PlainKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof PlainKey && ((PlainKey) obj).id == this.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+
+    }
+
+    /**
+     * {@code Comparable} key whose hash code is the same for every key and
+     * whose {@code compareTo} only compares ranks, so keys of one rank tie
+     * although they are not equal.
+     */
+    private static final class TiedKey implements Comparable<TiedKey> {
+
+        /**
+         * What the key stands for; keys are equal iff their ids are.
+         */
+        private final int id;
+
+        /**
+         * What {@code compareTo} orders keys by.
+         */
+        private final int rank;
+
+        /**
+         * Constructor.
+         *
+         * @param id
+         *            what the key stands for
+         * @param rank
+         *            what the key is ordered by
+         */
+        TiedKey(int id, int rank) {
+            this.id = id;
+            this.rank = rank;
+        }
+
+        @Override
+        public int compareTo(TiedKey other) {
+            return Integer.compare(this.rank, other.rank);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof TiedKey && ((TiedKey) obj).id == this.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+
+    }
+
+    /**
+     * Adds {@code count} {@code TiedKey}s, with ranks {@code id / tieSize},
+     * to a {@code Map4}, then checks every key before and after removing
+     * every other one.
+     *
+     * @param count
+     *            number of keys
+     * @param tieSize
+     *            number of keys of each rank
+     */
+    private static void checkTiedKeys(int count, int tieSize) {
+        Map<TiedKey, Integer> n = new Map4<>();
+        for (int i = 0; i < count; i++) {
+            n.add(new TiedKey(i, i / tieSize), i);
+        }
+        for (int i = 0; i < count; i++) {
+            TiedKey key = new TiedKey(i, i / tieSize);
+            assertTrue(n.hasKey(key));
+            assertEquals(i, n.value(key).intValue());
+        }
+        for (int i = 0; i < count; i += 2) {
+            Pair<TiedKey, Integer> p = n.remove(new TiedKey(i, i / tieSize));
+            assertEquals(i, p.key().id);
+            assertEquals(i, p.value().intValue());
+        }
+        assertEquals(count - count / 2, n.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i % 2 == 1, n.hasKey(new TiedKey(i, i / tieSize)));
+        }
+        int sum = 0;
+        for (Pair<TiedKey, Integer> p : n) {
+            sum += p.value();
+        }
+        assertEquals((count / 2) * (count / 2), sum);
+    }
+
+    @Test //challenging case
+    public final void testCompareToAlwaysTies() {
+        /*
+         * Set up variables, call method under test and assert that values of
+         * variables match expectations: every key ties with every other
+         */
+        checkTiedKeys(20, 20);
+    }
+
+    @Test //challenging case
+    public final void testCompareToTiesInGroups() {
+        /*
+         * Set up variables, call method under test and assert that values of
+         * variables match expectations: keys tie in groups of three
+         */
+        checkTiedKeys(40, 3);
+    }
+
+    @Test //challenging case
+    public final void testCollidingKeysGrowAndShrinkBucket() {
+        /*
+         * Set up variables
+         */
+        final int count = 1 << BLOCKS;
+        Map<String, String> n = this.constructorTest();
+        Map<String, String> nExpected = this.constructorRef();
+        /*
+         * Call method under test: the one bucket all keys share grows well
+         * past the size at which it becomes a tree, then shrinks to a few
+         * entries
+         */
+        for (int i = 0; i < count; i++) {
+            n.add(collidingKey(i), Integer.toString(i));
+        }
+        for (int i = 0; i < count; i++) {
+            assertEquals(Integer.toString(i), n.value(collidingKey(i)));
+        }
+        for (int i = 0; i < count; i++) {
+            if (i % 64 == 0) {
+                nExpected.add(collidingKey(i), Integer.toString(i));
+            } else {
+                Pair<String, String> p = n.remove(collidingKey(i));
+                assertEquals(collidingKey(i), p.key());
+                assertEquals(Integer.toString(i), p.value());
+            }
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertFalse(n.hasKey(collidingKey(1)));
+    }
+
+    @Test //challenging case
+    public final void testCollidingKeysNotComparable() {
+        /*
+         * Set up variables
+         */
+        final int count = 100;
+        Map<PlainKey, Integer> n = new Map4<>();
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < count; i++) {
+            n.add(new PlainKey(i), i);
+        }
+        for (int i = 0; i < count; i += 2) {
+            assertEquals(i, n.remove(new PlainKey(i)).value().intValue());
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(count / 2, n.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i % 2 == 1, n.hasKey(new PlainKey(i)));
+        }
+    }
+
+    @Test //challenging case
+    public final void testKeyOfAnotherClassJoinsTreeBucket() {
+        /*
+         * Set up variables: the Integer has the same hash code as the
+         * strings, so it lands in the bucket they have made into a tree
+         */
+        final int count = 20;
+        Map<Object, String> n = new Map4<>();
+        for (int i = 0; i < count; i++) {
+            n.add(collidingKey(i), "s" + i);
+        }
+        Integer other = collidingKey(0).hashCode();
+        /*
+         * Call method under test
+         */
+        boolean hadOther = n.hasKey(other);
+        n.add(other, "int");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertFalse(hadOther);
+        assertEquals(count + 1, n.size());
+        assertEquals("int", n.value(other));
+        for (int i = 0; i < count; i++) {
+            assertTrue(n.hasKey(collidingKey(i)));
+            assertEquals("s" + i, n.value(collidingKey(i)));
+        }
+    }
+
 }
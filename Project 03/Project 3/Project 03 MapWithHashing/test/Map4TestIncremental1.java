@@ -0,0 +1,164 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import components.map.Map;
+import components.map.Map.Pair;
+import components.map.Map1L;
+
+/**
+ * Customized JUnit test fixture for {@code Map4} in incremental mode with hash
+ * table size 1.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ */
+public class Map4TestIncremental1 extends MapTest {
+
+    /**
+     * Size of hash table to be used in tests.
+     */
+    private static final int TEST_HASH_TABLE_SIZE = 1;
+
+    /**
+     * Number of entries after which a map made by {@code constructorTest} is
+     * part way through moving from a hash table of 1024 buckets to one of
+     * 2048 (it starts growing at 769 entries and moves 4 buckets per call).
+     */
+    private static final int MID_MIGRATION = 800;
+
+    @Override
+    protected final Map<String, String> constructorTest() {
+        return Map4.incremental(TEST_HASH_TABLE_SIZE);
+    }
+
+    @Override
+    protected final Map<String, String> constructorRef() {
+        return new Map1L<String, String>();
+    }
+
+    /**
+     * Returns a map of the implementation under test holding ("k" + i, "v" +
+     * i) for 0 <= i < {@code MID_MIGRATION}.
+     *
+     * @return the map
+     */
+    private Map<String, String> createMidMigration() {
+        Map<String, String> map = this.constructorTest();
+        for (int i = 0; i < MID_MIGRATION; i++) {
+            map.add("k" + i, "v" + i);
+        }
+        return map;
+    }
+
+    @Test //challenging case
+    public final void testValueAndHasKeyMidMigration() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.createMidMigration();
+        /*
+         * Call method under test and assert that values of variables match
+         * expectations
+         */
+        for (int i = 0; i < MID_MIGRATION; i++) {
+            assertTrue(n.hasKey("k" + i));
+            assertEquals("v" + i, n.value("k" + i));
+        }
+        assertTrue(!n.hasKey("k" + MID_MIGRATION));
+        assertEquals(MID_MIGRATION, n.size());
+    }
+
+    @Test //challenging case
+    public final void testIterateMidMigration() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.createMidMigration();
+        Map<String, String> seen = this.constructorRef();
+        Map<String, String> seenExpected = this.constructorRef();
+        for (int i = 0; i < MID_MIGRATION; i++) {
+            seenExpected.add("k" + i, "v" + i);
+        }
+        /*
+         * Call method under test
+         */
+        for (Pair<String, String> p : n) {
+            seen.add(p.key(), p.value());
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(seenExpected, seen);
+    }
+
+    @Test //challenging case
+    public final void testRemoveMidMigration() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.createMidMigration();
+        Map<String, String> nExpected = this.constructorRef();
+        for (int i = 1; i < MID_MIGRATION; i += 2) {
+            nExpected.add("k" + i, "v" + i);
+        }
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < MID_MIGRATION; i += 2) {
+            Pair<String, String> p = n.remove("k" + i);
+            assertEquals("v" + i, p.value());
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+    @Test //challenging case
+    public final void testRemoveAnyMidMigration() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.createMidMigration();
+        Map<String, String> seen = this.constructorRef();
+        Map<String, String> seenExpected = this.constructorRef();
+        for (int i = 0; i < MID_MIGRATION; i++) {
+            seenExpected.add("k" + i, "v" + i);
+        }
+        /*
+         * Call method under test
+         */
+        while (n.size() > 0) {
+            Pair<String, String> p = n.removeAny();
+            seen.add(p.key(), p.value());
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(seenExpected, seen);
+    }
+
+    @Test //challenging case
+    public final void testTransferFromMidMigration() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.constructorTest();
+        Map<String, String> m = this.createMidMigration();
+        Map<String, String> nExpected = this.constructorRef();
+        for (int i = 0; i < MID_MIGRATION; i++) {
+            nExpected.add("k" + i, "v" + i);
+        }
+        /*
+         * Call method under test
+         */
+        n.transferFrom(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(0, m.size());
+    }
+
+}
@@ -0,0 +1,92 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.map.Map;
+import components.map.Map1L;
+
+/**
+ * Customized JUnit test fixture for {@code Map4} in mixed mode with hash table
+ * size 1.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ */
+public class Map4TestMixed1 extends MapTest {
+
+    /**
+     * Size of hash table to be used in tests.
+     */
+    private static final int TEST_HASH_TABLE_SIZE = 1;
+
+    /**
+     * Size of hash table of the map in modulo mode used in tests.
+     */
+    private static final int TEST_MODULO_HASH_TABLE_SIZE = 101;
+
+    @Override
+    protected final Map<String, String> constructorTest() {
+        return Map4.mixed(TEST_HASH_TABLE_SIZE);
+    }
+
+    @Override
+    protected final Map<String, String> constructorRef() {
+        return new Map1L<String, String>();
+    }
+
+    @Test //challenging case
+    public final void testTransferFromModuloMode() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.constructorTest();
+        Map<String, String> m = new Map4<>(TEST_MODULO_HASH_TABLE_SIZE);
+        Map<String, String> nExpected = this.constructorRef();
+        final int count = 500;
+        for (int i = 0; i < count; i++) {
+            m.add("k" + i, "v" + i);
+            nExpected.add("k" + i, "v" + i);
+        }
+        /*
+         * Call method under test
+         */
+        n.transferFrom(m);
+        m.add("first", "5");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        for (int i = 0; i < count; i++) {
+            assertEquals("v" + i, n.value("k" + i));
+        }
+        assertEquals(1, m.size());
+        assertEquals("5", m.value("first"));
+    }
+
+    @Test //challenging case
+    public final void testTransferToModuloMode() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = new Map4<>(TEST_MODULO_HASH_TABLE_SIZE);
+        Map<String, String> m = this.constructorTest();
+        Map<String, String> nExpected = this.constructorRef();
+        final int count = 500;
+        for (int i = 0; i < count; i++) {
+            m.add("k" + i, "v" + i);
+            nExpected.add("k" + i, "v" + i);
+        }
+        /*
+         * Call method under test
+         */
+        n.transferFrom(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        for (int i = 0; i < count; i++) {
+            assertEquals("v" + i, n.value("k" + i));
+        }
+        assertEquals(0, m.size());
+    }
+
+}
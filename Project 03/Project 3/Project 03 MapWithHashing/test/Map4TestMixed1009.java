@@ -0,0 +1,25 @@
+import components.map.Map;
+import components.map.Map1L;
+
+/**
+ * Customized JUnit test fixture for {@code Map4} in mixed mode with hash table
+ * size 1009, which is rounded up to 1024.
+ */
+public class Map4TestMixed1009 extends MapTest {
+
+    /**
+     * Size of hash table to be used in tests.
+     */
+    private static final int TEST_HASH_TABLE_SIZE = 1009;
+
+    @Override
+    protected final Map<String, String> constructorTest() {
+        return Map4.mixed(TEST_HASH_TABLE_SIZE);
+    }
+
+    @Override
+    protected final Map<String, String> constructorRef() {
+        return new Map1L<String, String>();
+    }
+
+}
@@ -0,0 +1,86 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import components.map.Map;
+import components.map.Map.Pair;
+import components.map.Map1L;
+
+/**
+ * Customized JUnit test fixture for {@code Map5} using default constructor.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ */
+public class Map5Test extends MapTest {
+
+    @Override
+    protected final Map<String, String> constructorTest() {
+        return new Map5<String, String>();
+    }
+
+    @Override
+    protected final Map<String, String> constructorRef() {
+        return new Map1L<String, String>();
+    }
+
+    /**
+     * Number of two-character blocks in each colliding key.
+     */
+    private static final int BLOCKS = 8;
+
+    /**
+     * Returns the key made of the blocks "Aa" and "BB" picked by the low
+     * {@code BLOCKS} bits of {@code bits}; all such keys have the same
+     * {@code hashCode}, since "Aa" and "BB" do.
+     *
+     * @param bits
+     *            which block goes where
+     * @return the key
+     */
+    private static String collidingKey(int bits) {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < BLOCKS; i++) {
+            if ((bits & (1 << i)) == 0) {
+                key.append("Aa");
+            } else {
+                key.append("BB");
+            }
+        }
+        return key.toString();
+    }
+
+    @Test //challenging case
+    public final void testRemoveFromCollidingRun() {
+        /*
+         * Set up variables
+         */
+        final int count = 1 << BLOCKS;
+        Map<String, String> n = this.constructorTest();
+        Map<String, String> nExpected = this.constructorRef();
+        for (int i = 0; i < count; i++) {
+            n.add(collidingKey(i), Integer.toString(i));
+            if (i % 3 == 0) {
+                nExpected.add(collidingKey(i), Integer.toString(i));
+            }
+        }
+        /*
+         * Call method under test
+         */
+        for (int i = count - 1; i >= 0; i--) {
+            if (i % 3 != 0) {
+                Pair<String, String> p = n.remove(collidingKey(i));
+                assertEquals(Integer.toString(i), p.value());
+            }
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        for (int i = 0; i < count; i += 3) {
+            assertTrue(n.hasKey(collidingKey(i)));
+            assertEquals(Integer.toString(i), n.value(collidingKey(i)));
+        }
+    }
+
+}
@@ -0,0 +1,232 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import org.junit.Test;
+
+import components.map.Map;
+import components.map.Map.Pair;
+import components.map.Map1L;
+
+/**
+ * Customized JUnit test fixture for {@code Map6} using default constructor,
+ * including tests with several threads using one map at once.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ */
+public class Map6Test extends MapTest {
+
+    @Override
+    protected final Map<String, String> constructorTest() {
+        return new Map6<String, String>();
+    }
+
+    @Override
+    protected final Map<String, String> constructorRef() {
+        return new Map1L<String, String>();
+    }
+
+    /**
+     * Number of threads in the tests with several threads.
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * Number of operations each thread does in the tests with several
+     * threads.
+     */
+    private static final int OPERATIONS_PER_THREAD = 20_000;
+
+    /**
+     * Number of different keys counted in {@code testConcurrentIncrement}.
+     */
+    private static final int WORDS = 100;
+
+    /**
+     * Runs {@code body} in {@code THREADS} threads at once, passing each its
+     * number, and waits for them all to finish; fails if any of them failed.
+     *
+     * @param body
+     *            what each thread does, given its number
+     */
+    private static void runThreads(IntConsumer body) {
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int number = t;
+            Thread thread = new Thread(() -> body.accept(number));
+            thread.setUncaughtExceptionHandler((th, e) -> {
+                synchronized (failures) {
+                    failures.add(e);
+                }
+            });
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        }
+        assertTrue(failures.toString(), failures.isEmpty());
+    }
+
+    @Test //challenging case
+    public final void testConcurrentAddDisjointKeys() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.constructorTest();
+        Map<String, String> nExpected = this.constructorRef();
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                nExpected.add(t + ":" + i, "v" + i);
+            }
+        }
+        /*
+         * Call method under test
+         */
+        runThreads(t -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                n.add(t + ":" + i, "v" + i);
+            }
+        });
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(THREADS * OPERATIONS_PER_THREAD, n.size());
+    }
+
+    @Test //challenging case
+    public final void testConcurrentIncrement() {
+        /*
+         * Set up variables
+         */
+        Map6<String, Integer> n = new Map6<>();
+        /*
+         * Call method under test
+         */
+        runThreads(t -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                Map6.increment(n, "word" + (i % WORDS));
+            }
+        });
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(WORDS, n.size());
+        for (int w = 0; w < WORDS; w++) {
+            assertEquals(THREADS * OPERATIONS_PER_THREAD / WORDS,
+                    n.value("word" + w).intValue());
+        }
+    }
+
+    @Test //challenging case
+    public final void testConcurrentComputeAddAndRemove() {
+        /*
+         * Set up variables
+         */
+        Map6<String, Integer> n = new Map6<>();
+        /*
+         * Call method under test: every thread toggles every key an even
+         * number of times, so every key ends up absent however the toggles
+         * interleave
+         */
+        runThreads(t -> {
+            for (int i = 0; i < 2 * OPERATIONS_PER_THREAD; i++) {
+                n.compute("key" + (i / 2 % WORDS), (k, v) -> {
+                    Integer result = null;
+                    if (v == null) {
+                        result = 1;
+                    }
+                    return result;
+                });
+            }
+        });
+        /*
+         * Assert that values of variables match expectations
+         */
+        int count = 0;
+        for (int w = 0; w < WORDS; w++) {
+            if (n.hasKey("key" + w)) {
+                count++;
+            }
+        }
+        assertEquals(0, count);
+        assertEquals(0, n.size());
+    }
+
+    @Test //challenging case
+    public final void testConcurrentRemoveAnyTakesEachEntryOnce() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.constructorTest();
+        for (int i = 0; i < THREADS * OPERATIONS_PER_THREAD; i++) {
+            n.add("k" + i, "v" + i);
+        }
+        AtomicInteger taken = new AtomicInteger();
+        Map6<String, Integer> seen = new Map6<>();
+        /*
+         * Call method under test
+         */
+        runThreads(t -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                Pair<String, String> p = n.removeAny();
+                seen.add(p.key(), 1);
+                taken.incrementAndGet();
+            }
+        });
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(0, n.size());
+        assertEquals(THREADS * OPERATIONS_PER_THREAD, taken.get());
+        assertEquals(THREADS * OPERATIONS_PER_THREAD, seen.size());
+    }
+
+    @Test //challenging case
+    public final void testIterateWhileOthersAdd() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.constructorTest();
+        for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+            n.add("base" + i, "v" + i);
+        }
+        /*
+         * Call method under test: even threads add new keys while odd ones
+         * iterate, and every iteration must see at least the base keys
+         */
+        runThreads(t -> {
+            if (t % 2 == 0) {
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    n.add(t + ":" + i, "v" + i);
+                }
+            } else {
+                int count = 0;
+                for (Pair<String, String> p : n) {
+                    if (p.key().startsWith("base")) {
+                        count++;
+                    }
+                }
+                assertEquals(OPERATIONS_PER_THREAD, count);
+            }
+        });
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals((1 + (THREADS + 1) / 2) * OPERATIONS_PER_THREAD,
+                n.size());
+    }
+
+}
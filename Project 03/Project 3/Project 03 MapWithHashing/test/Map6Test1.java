@@ -0,0 +1,25 @@
+import components.map.Map;
+import components.map.Map1L;
+
+/**
+ * Customized JUnit test fixture for {@code Map6} using non-default constructor
+ * with 1 stripe.
+ */
+public class Map6Test1 extends MapTest {
+
+    /**
+     * Number of stripes to be used in tests.
+     */
+    private static final int TEST_STRIPES = 1;
+
+    @Override
+    protected final Map<String, String> constructorTest() {
+        return new Map6<String, String>(TEST_STRIPES);
+    }
+
+    @Override
+    protected final Map<String, String> constructorRef() {
+        return new Map1L<String, String>();
+    }
+
+}
@@ -0,0 +1,246 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import org.junit.Test;
+
+import components.map.Map;
+import components.map.Map.Pair;
+import components.map.Map1L;
+
+/**
+ * Customized JUnit test fixture for {@code Map7} using default constructor,
+ * including tests with several threads using one map at once while its table
+ * grows.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ */
+public class Map7Test extends MapTest {
+
+    @Override
+    protected final Map<String, String> constructorTest() {
+        return new Map7<String, String>();
+    }
+
+    @Override
+    protected final Map<String, String> constructorRef() {
+        return new Map1L<String, String>();
+    }
+
+    /**
+     * Number of threads in the tests with several threads.
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * Number of operations each thread does in the tests with several
+     * threads.
+     */
+    private static final int OPERATIONS_PER_THREAD = 20_000;
+
+    /**
+     * Runs {@code body} in {@code THREADS} threads at once, passing each its
+     * number, and waits for them all to finish; fails if any of them failed.
+     *
+     * @param body
+     *            what each thread does, given its number
+     */
+    private static void runThreads(IntConsumer body) {
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int number = t;
+            Thread thread = new Thread(() -> body.accept(number));
+            thread.setUncaughtExceptionHandler((th, e) -> {
+                synchronized (failures) {
+                    failures.add(e);
+                }
+            });
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        }
+        assertTrue(failures.toString(), failures.isEmpty());
+    }
+
+    @Test //challenging case
+    public final void testConcurrentAddDisjointKeys() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.constructorTest();
+        Map<String, String> nExpected = this.constructorRef();
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                nExpected.add(t + ":" + i, "v" + i);
+            }
+        }
+        /*
+         * Call method under test
+         */
+        runThreads(t -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                n.add(t + ":" + i, "v" + i);
+            }
+        });
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(THREADS * OPERATIONS_PER_THREAD, n.size());
+    }
+
+    @Test //challenging case
+    public final void testConcurrentAddAndRemoveOwnKeys() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.constructorTest();
+        Map<String, String> nExpected = this.constructorRef();
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 1; i < OPERATIONS_PER_THREAD; i += 2) {
+                nExpected.add(t + ":" + i, "v" + i);
+            }
+        }
+        /*
+         * Call method under test: every thread adds its keys and removes
+         * every other one as soon as the next one is in
+         */
+        runThreads(t -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                n.add(t + ":" + i, "v" + i);
+                if (i % 2 == 1) {
+                    Pair<String, String> p = n.remove(t + ":" + (i - 1));
+                    assertEquals("v" + (i - 1), p.value());
+                }
+            }
+        });
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(THREADS * OPERATIONS_PER_THREAD / 2, n.size());
+    }
+
+    @Test //challenging case
+    public final void testReadersSeeEveryKeyWhileTableGrows() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.constructorTest();
+        for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+            n.add("base" + i, "v" + i);
+        }
+        /*
+         * Call method under test: even threads add keys, making the table
+         * double several times, while odd ones keep looking up the keys that
+         * were there from the start and the ones the thread before them has
+         * added so far, none of which may ever go missing
+         */
+        AtomicInteger[] addedSoFar = new AtomicInteger[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            addedSoFar[t] = new AtomicInteger();
+        }
+        runThreads(t -> {
+            if (t % 2 == 0) {
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    n.add(t + ":" + i, "v" + i);
+                    addedSoFar[t].set(i + 1);
+                }
+            } else {
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    assertEquals("v" + i, n.value("base" + i));
+                    int writer = t - 1;
+                    int added = addedSoFar[writer].get();
+                    for (int j = Math.max(0, added - 2); j < added; j++) {
+                        assertTrue(n.hasKey(writer + ":" + j));
+                    }
+                    assertFalse(n.hasKey("missing" + i));
+                }
+            }
+        });
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals((1 + (THREADS + 1) / 2) * OPERATIONS_PER_THREAD,
+                n.size());
+    }
+
+    @Test //challenging case
+    public final void testConcurrentRemoveAnyTakesEachEntryOnce() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.constructorTest();
+        for (int i = 0; i < THREADS * OPERATIONS_PER_THREAD; i++) {
+            n.add("k" + i, "v" + i);
+        }
+        AtomicInteger taken = new AtomicInteger();
+        Map7<String, Integer> seen = new Map7<>();
+        /*
+         * Call method under test
+         */
+        runThreads(t -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                Pair<String, String> p = n.removeAny();
+                seen.add(p.key(), 1);
+                taken.incrementAndGet();
+            }
+        });
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(0, n.size());
+        assertEquals(THREADS * OPERATIONS_PER_THREAD, taken.get());
+        assertEquals(THREADS * OPERATIONS_PER_THREAD, seen.size());
+    }
+
+    @Test //challenging case
+    public final void testIterateWhileOthersAdd() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.constructorTest();
+        for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+            n.add("base" + i, "v" + i);
+        }
+        /*
+         * Call method under test: even threads add new keys while odd ones
+         * iterate, and every iteration must see each base key exactly once
+         */
+        runThreads(t -> {
+            if (t % 2 == 0) {
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    n.add(t + ":" + i, "v" + i);
+                }
+            } else {
+                int count = 0;
+                for (Pair<String, String> p : n) {
+                    if (p.key().startsWith("base")) {
+                        count++;
+                    }
+                }
+                assertEquals(OPERATIONS_PER_THREAD, count);
+            }
+        });
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals((1 + (THREADS + 1) / 2) * OPERATIONS_PER_THREAD,
+                n.size());
+    }
+
+}
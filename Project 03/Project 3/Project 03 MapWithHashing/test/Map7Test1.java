@@ -0,0 +1,25 @@
+import components.map.Map;
+import components.map.Map1L;
+
+/**
+ * Customized JUnit test fixture for {@code Map7} using non-default constructor
+ * with room for 1 entry.
+ */
+public class Map7Test1 extends MapTest {
+
+    /**
+     * Number of entries to make room for in tests.
+     */
+    private static final int TEST_EXPECTED_SIZE = 1;
+
+    @Override
+    protected final Map<String, String> constructorTest() {
+        return new Map7<String, String>(TEST_EXPECTED_SIZE);
+    }
+
+    @Override
+    protected final Map<String, String> constructorRef() {
+        return new Map1L<String, String>();
+    }
+
+}
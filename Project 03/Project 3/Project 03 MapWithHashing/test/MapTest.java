@@ -760,4 +760,169 @@ public abstract class MapTest {
         assertEquals(nExpected, n);
         assertEquals(resultExpected, result);
     }
+
+    /*
+     ************* Test cases for maps with many entries ************
+     */
+
+    /**
+     * Number of entries in the large-cardinality test cases, enough to make
+     * any hash table grow several times.
+     */
+    private static final int MANY = 20_000;
+
+    /**
+     * Adds the entries ("k" + i, "v" + i) for 0 <= i < {@code count} to
+     * {@code map}.
+     *
+     * @param map
+     *            the map to add to
+     * @param count
+     *            the number of entries to add
+     * @updates map
+     * @requires [no key "k" + i with 0 <= i < count is in DOMAIN(map)]
+     * @ensures map = #map union {("k" + i, "v" + i): 0 <= i < count}
+     */
+    private static void addMany(Map<String, String> map, int count) {
+        for (int i = 0; i < count; i++) {
+            map.add("k" + i, "v" + i);
+        }
+    }
+
+    @Test //challenging case
+    public final void testAddMany() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.createFromArgsTest();
+        Map<String, String> nExpected = this.createFromArgsRef();
+        addMany(nExpected, MANY);
+        /*
+         * Call method under test
+         */
+        addMany(n, MANY);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(MANY, n.size());
+        for (int i = 0; i < MANY; i++) {
+            assertTrue(n.hasKey("k" + i));
+            assertEquals("v" + i, n.value("k" + i));
+        }
+    }
+
+    @Test //challenging case
+    public final void testRemoveMany() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.createFromArgsTest();
+        addMany(n, MANY);
+        Map<String, String> nExpected = this.createFromArgsRef();
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < MANY; i++) {
+            Pair<String, String> p = n.remove("k" + i);
+            assertEquals("k" + i, p.key());
+            assertEquals("v" + i, p.value());
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(0, n.size());
+    }
+
+    @Test //challenging case
+    public final void testRemoveAnyMany() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.createFromArgsTest();
+        addMany(n, MANY);
+        Map<String, String> seen = this.createFromArgsRef();
+        Map<String, String> seenExpected = this.createFromArgsRef();
+        addMany(seenExpected, MANY);
+        /*
+         * Call method under test
+         */
+        while (n.size() > 0) {
+            Pair<String, String> p = n.removeAny();
+            seen.add(p.key(), p.value());
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(seenExpected, seen);
+        assertEquals(this.createFromArgsRef(), n);
+    }
+
+    @Test //challenging case
+    public final void testIterateMany() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.createFromArgsTest();
+        addMany(n, MANY);
+        Map<String, String> nExpected = this.createFromArgsRef();
+        addMany(nExpected, MANY);
+        Map<String, String> seen = this.createFromArgsRef();
+        /*
+         * Call method under test
+         */
+        for (Pair<String, String> p : n) {
+            seen.add(p.key(), p.value());
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, seen);
+        assertEquals(nExpected, n);
+    }
+
+    @Test //challenging case
+    public final void testClearAndAddManyAgain() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.createFromArgsTest();
+        addMany(n, MANY);
+        Map<String, String> nExpected = this.createFromArgsRef("first", "5");
+        /*
+         * Call method under test
+         */
+        n.clear();
+        n.add("first", "5");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertTrue(!n.hasKey("k0"));
+    }
+
+    @Test //challenging case
+    public final void testTransferFromMany() {
+        /*
+         * Set up variables
+         */
+        Map<String, String> n = this.createFromArgsTest();
+        Map<String, String> m = this.createFromArgsTest();
+        addMany(m, MANY);
+        Map<String, String> nExpected = this.createFromArgsRef();
+        addMany(nExpected, MANY);
+        /*
+         * Call method under test
+         */
+        n.transferFrom(m);
+        n.add("first", "5");
+        m.add("second", "15");
+        nExpected.add("first", "5");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(this.createFromArgsRef("second", "15"), m);
+    }
 }
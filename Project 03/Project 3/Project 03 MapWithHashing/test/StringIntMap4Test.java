@@ -0,0 +1,262 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code StringIntMap4}.
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ */
+public class StringIntMap4Test {
+
+    /**
+     * Seed for the pseudo-random words, fixed so failures are repeatable.
+     */
+    private static final long SEED = 2231L;
+
+    /**
+     * Number of words counted in the larger tests.
+     */
+    private static final int MANY = 20_000;
+
+    /**
+     * Number of different words in the larger tests.
+     */
+    private static final int VOCABULARY = 3_000;
+
+    /**
+     * Checks that {@code map} holds exactly the entries of {@code expected},
+     * both by looking each key up and by walking {@code entries}.
+     *
+     * @param expected
+     *            the entries that should be there
+     * @param map
+     *            the map
+     */
+    private static void assertSameEntries(HashMap<String, Integer> expected,
+            StringIntMap4 map) {
+        assertEquals(expected.size(), map.size());
+        for (java.util.Map.Entry<String, Integer> entry : expected
+                .entrySet()) {
+            assertTrue(map.hasKey(entry.getKey()));
+            assertEquals(entry.getValue().intValue(),
+                    map.value(entry.getKey()));
+        }
+        int walked = 0;
+        StringIntMap4.Entries entries = map.entries();
+        while (entries.advance()) {
+            assertEquals(expected.get(entries.key()).intValue(),
+                    entries.value());
+            walked++;
+        }
+        assertEquals(expected.size(), walked);
+    }
+
+    @Test //routine case
+    public final void testConstructorEmpty() {
+        /*
+         * Set up variables
+         */
+        StringIntMap4 m = new StringIntMap4();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(0, m.size());
+        assertFalse(m.hasKey("a"));
+        assertFalse(m.entries().advance());
+    }
+
+    @Test //routine case
+    public final void testIncrementNewKey() {
+        /*
+         * Set up variables
+         */
+        StringIntMap4 m = new StringIntMap4();
+        /*
+         * Call method under test
+         */
+        int count = m.increment("word");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(1, count);
+        assertEquals(1, m.size());
+        assertEquals(1, m.value("word"));
+    }
+
+    @Test //routine case
+    public final void testIncrementExistingKey() {
+        /*
+         * Set up variables
+         */
+        StringIntMap4 m = new StringIntMap4();
+        m.add("word", 41);
+        m.add("other", 7);
+        /*
+         * Call method under test
+         */
+        int count = m.increment("word");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(42, count);
+        assertEquals(2, m.size());
+        assertEquals(42, m.value("word"));
+        assertEquals(7, m.value("other"));
+    }
+
+    @Test //routine case
+    public final void testReplaceValue() {
+        /*
+         * Set up variables
+         */
+        StringIntMap4 m = new StringIntMap4();
+        m.add("a", 1);
+        m.add("b", 2);
+        /*
+         * Call method under test
+         */
+        m.replaceValue("a", -5);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(-5, m.value("a"));
+        assertEquals(2, m.value("b"));
+    }
+
+    @Test //routine case
+    public final void testRemoveLeavesOthers() {
+        /*
+         * Set up variables
+         */
+        StringIntMap4 m = new StringIntMap4();
+        HashMap<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            m.add("k" + i, i);
+            expected.put("k" + i, i);
+        }
+        /*
+         * Call method under test: removing the first entry moves the last
+         * one into its place
+         */
+        int removed = m.remove("k0");
+        int removedLast = m.remove("k9");
+        expected.remove("k0");
+        expected.remove("k9");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(0, removed);
+        assertEquals(9, removedLast);
+        assertSameEntries(expected, m);
+    }
+
+    @Test //challenging case
+    public final void testCollidingKeys() {
+        /*
+         * Set up variables: "Aa" and "BB" have the same hash code, and so do
+         * "AaAa", "AaBB", "BBAa" and "BBBB"
+         */
+        StringIntMap4 m = new StringIntMap4(1);
+        HashMap<String, Integer> expected = new HashMap<>();
+        String[] keys = {"Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB"};
+        /*
+         * Call method under test
+         */
+        for (int round = 1; round <= 3; round++) {
+            for (String key : keys) {
+                m.increment(key);
+                expected.put(key, round);
+            }
+        }
+        m.remove("BB");
+        expected.remove("BB");
+        m.remove("AaBB");
+        expected.remove("AaBB");
+        m.increment("BB");
+        expected.put("BB", 1);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertSameEntries(expected, m);
+    }
+
+    @Test //challenging case
+    public final void testIncrementManyFromSmallTable() {
+        /*
+         * Set up variables
+         */
+        StringIntMap4 m = new StringIntMap4(1);
+        HashMap<String, Integer> expected = new HashMap<>();
+        Random random = new Random(SEED);
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < MANY; i++) {
+            String word = "w" + random.nextInt(VOCABULARY);
+            int count = m.increment(word);
+            expected.merge(word, 1, Integer::sum);
+            assertEquals(expected.get(word).intValue(), count);
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertSameEntries(expected, m);
+    }
+
+    @Test //challenging case
+    public final void testMixedOperationsMany() {
+        /*
+         * Set up variables
+         */
+        StringIntMap4 m = new StringIntMap4();
+        HashMap<String, Integer> expected = new HashMap<>();
+        Random random = new Random(SEED);
+        /*
+         * Call method under test: every third operation on a present key
+         * removes it
+         */
+        for (int i = 0; i < MANY; i++) {
+            String word = "w" + random.nextInt(VOCABULARY);
+            if (expected.containsKey(word) && i % 3 == 0) {
+                assertEquals(expected.remove(word).intValue(),
+                        m.remove(word));
+            } else {
+                m.increment(word);
+                expected.merge(word, 1, Integer::sum);
+            }
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertSameEntries(expected, m);
+    }
+
+    @Test //routine case
+    public final void testClear() {
+        /*
+         * Set up variables
+         */
+        StringIntMap4 m = new StringIntMap4();
+        for (int i = 0; i < 100; i++) {
+            m.increment("k" + i);
+        }
+        /*
+         * Call method under test
+         */
+        m.clear();
+        m.increment("k1");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(1, m.size());
+        assertEquals(1, m.value("k1"));
+        assertFalse(m.hasKey("k2"));
+    }
+
+}
@@ -0,0 +1,531 @@
+import java.util.Arrays;
+
+/**
+ * Map from {@code String} to {@code int}, hashed the way {@code Map4} hashes
+ * by default (a key goes in bucket {@code hashCode() mod |heads|}, and the
+ * table grows once it holds more than {@code LOAD_FACTOR} entries per bucket),
+ * but with the values kept as {@code int}s and no object per entry.
+ *
+ * <p>
+ * Entries live in parallel arrays of keys, values, key hash codes and links,
+ * packed at the front; each bucket is a chain of links through them, starting
+ * at its head. {@code increment} finds a key with one walk down its chain and
+ * bumps its value in place, so counting words costs one hash lookup and no
+ * boxing per word, where a {@code Map<String, Integer>} needs
+ * {@code hasKey}, {@code value} and {@code replaceValue} and a new
+ * {@code Integer} for every count past the cached ones. {@code entries} walks
+ * the entries without making any objects.
+ *
+ * @convention <pre>
+ * |$this.heads| > 0  and
+ * |$this.keys| = |$this.values| = |$this.hashes| = |$this.next|  and
+ * 0 <= $this.size <= |$this.keys|  and
+ * [the chains starting at $this.heads and following $this.next, ending at
+ *  -1, together visit each of 0, 1, ..., $this.size - 1 exactly once]  and
+ * for all e: integer
+ *     where (0 <= e  and  e < $this.size)
+ *   ($this.keys[e] /= null  and
+ *    $this.hashes[e] = [computed result of $this.keys[e].hashCode()]  and
+ *    [e is on the chain starting at $this.heads[INDEX($this.keys[e])]])  and
+ * [no two of $this.keys[0, $this.size) are equal]  and
+ * [$this.size <= LOAD_FACTOR * |$this.heads|, unless |$this.heads| cannot
+ *  grow any further]
+ * where INDEX(x) = [computed result of x.hashCode()] mod |$this.heads|
+ * </pre>
+ * @correspondence <pre>
+ * this = {(k, v): (string of character, integer)
+ *            where (there exists e: integer
+ *                     (0 <= e  and  e < $this.size  and
+ *                      $this.keys[e] = k  and  $this.values[e] = v))}
+ * </pre>
+ *
+ * @author Zheng Ji Tan(tan.955) & Beiwen Wu(wu.4742)
+ *
+ */
+public final class StringIntMap4 {
+
+    /**
+     * Default size of hash table.
+     */
+    private static final int DEFAULT_HASH_TABLE_SIZE = 101;
+
+    /**
+     * Largest average number of entries per bucket before the hash table
+     * grows, as for {@code Map4}.
+     */
+    private static final double LOAD_FACTOR = 0.75;
+
+    /**
+     * Factor by which the hash table grows.
+     */
+    private static final int GROWTH_FACTOR = 2;
+
+    /**
+     * Largest size the hash table can grow to.
+     */
+    private static final int MAX_HASH_TABLE_SIZE = 1 << 30;
+
+    /**
+     * Number of entries there is room for at first.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * First entry of each bucket's chain, or -1 if the bucket is empty.
+     */
+    private int[] heads;
+
+    /**
+     * Keys of the entries.
+     */
+    private String[] keys;
+
+    /**
+     * Values of the entries.
+     */
+    private int[] values;
+
+    /**
+     * Hash codes of the keys of the entries.
+     */
+    private int[] hashes;
+
+    /**
+     * Next entry on the same chain as each entry, or -1.
+     */
+    private int[] next;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Size of hash table requested at construction.
+     */
+    private int requestedSize;
+
+    /**
+     * Computes {@code a} mod {@code b} as % should have been defined to work.
+     *
+     * @param a
+     *            the number being reduced
+     * @param b
+     *            the modulus
+     * @return the result of a mod b, which satisfies 0 <= {@code mod} < b
+     * @requires b > 0
+     * @ensures <pre>
+     * 0 <= mod  and  mod < b  and
+     * there exists k: integer (a = k * b + mod)
+     * </pre>
+     */
+    private static int mod(int a, int b) {
+        assert b > 0 : "Violation of: b > 0";
+
+        int result = a / b;
+        int remainder = a - (result * b);
+        if (remainder < 0) {
+            remainder = b + remainder;
+        }
+        return remainder;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param hashTableSize
+     *            the size of the hash table
+     * @requires hashTableSize > 0
+     * @ensures <pre>
+     * |$this.heads| = hashTableSize  and
+     * [every bucket is empty]  and
+     * |$this.keys| = INITIAL_CAPACITY  and
+     * $this.size = 0
+     * </pre>
+     */
+    private void createNewRep(int hashTableSize) {
+        this.heads = new int[hashTableSize];
+        Arrays.fill(this.heads, -1);
+        this.keys = new String[INITIAL_CAPACITY];
+        this.values = new int[INITIAL_CAPACITY];
+        this.hashes = new int[INITIAL_CAPACITY];
+        this.next = new int[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Returns the entry holding {@code key}, or -1 if there is none.
+     *
+     * @param key
+     *            the key
+     * @param hash
+     *            the hash code of key
+     * @return the entry
+     * @requires key /= null and hash = [computed result of key.hashCode()]
+     * @ensures <pre>
+     * (entryOf = -1  and  key is not in DOMAIN(this))  or
+     * (0 <= entryOf < $this.size  and  $this.keys[entryOf] = key)
+     * </pre>
+     */
+    private int entryOf(String key, int hash) {
+        int e = this.heads[mod(hash, this.heads.length)];
+        while (e >= 0
+                && (this.hashes[e] != hash || !this.keys[e].equals(key))) {
+            e = this.next[e];
+        }
+        return e;
+    }
+
+    /**
+     * Adds the entry {@code (key, value)}, which must not be there yet, and
+     * grows the arrays or the hash table if needed.
+     *
+     * @param key
+     *            the key
+     * @param hash
+     *            the hash code of key
+     * @param value
+     *            the value
+     * @updates this
+     * @requires <pre>
+     * key /= null  and  hash = [computed result of key.hashCode()]  and
+     * key is not in DOMAIN(this)
+     * </pre>
+     * @ensures this = #this union {(key, value)}
+     */
+    private void append(String key, int hash, int value) {
+        if (this.size == this.keys.length) {
+            int capacity = GROWTH_FACTOR * this.keys.length;
+            this.keys = Arrays.copyOf(this.keys, capacity);
+            this.values = Arrays.copyOf(this.values, capacity);
+            this.hashes = Arrays.copyOf(this.hashes, capacity);
+            this.next = Arrays.copyOf(this.next, capacity);
+        }
+        int e = this.size;
+        int index = mod(hash, this.heads.length);
+        this.keys[e] = key;
+        this.values[e] = value;
+        this.hashes[e] = hash;
+        this.next[e] = this.heads[index];
+        this.heads[index] = e;
+        this.size++;
+        if (this.size > LOAD_FACTOR * this.heads.length
+                && this.heads.length < MAX_HASH_TABLE_SIZE) {
+            this.rehash((int) Math.min(
+                    (long) GROWTH_FACTOR * this.heads.length,
+                    MAX_HASH_TABLE_SIZE));
+        }
+    }
+
+    /**
+     * Rebuilds the chains for a hash table of {@code length} buckets. The
+     * entries stay where they are and their hash codes are not recomputed.
+     *
+     * @param length
+     *            the new size of the hash table
+     * @updates $this.heads, $this.next
+     * @requires length > 0
+     * @ensures |$this.heads| = length  and  this = #this
+     */
+    private void rehash(int length) {
+        this.heads = new int[length];
+        Arrays.fill(this.heads, -1);
+        for (int e = 0; e < this.size; e++) {
+            int index = mod(this.hashes[e], length);
+            this.next[e] = this.heads[index];
+            this.heads[index] = e;
+        }
+    }
+
+    /**
+     * Removes entry {@code e} and moves the last entry into its place, so the
+     * entries stay packed at the front.
+     *
+     * @param e
+     *            the entry to remove
+     * @updates this
+     * @requires 0 <= e < $this.size
+     */
+    private void removeEntry(int e) {
+        this.unlink(e);
+        int last = this.size - 1;
+        if (e != last) {
+            this.unlink(last);
+            this.keys[e] = this.keys[last];
+            this.values[e] = this.values[last];
+            this.hashes[e] = this.hashes[last];
+            int index = mod(this.hashes[e], this.heads.length);
+            this.next[e] = this.heads[index];
+            this.heads[index] = e;
+        }
+        this.keys[last] = null;
+        this.size--;
+    }
+
+    /**
+     * Takes entry {@code e} off its chain.
+     *
+     * @param e
+     *            the entry
+     * @updates $this.heads, $this.next
+     * @requires [e is on the chain of its key's bucket]
+     * @ensures [e is on no chain, and every other entry is still on its own]
+     */
+    private void unlink(int e) {
+        int index = mod(this.hashes[e], this.heads.length);
+        if (this.heads[index] == e) {
+            this.heads[index] = this.next[e];
+        } else {
+            int previous = this.heads[index];
+            while (this.next[previous] != e) {
+                previous = this.next[previous];
+            }
+            this.next[previous] = this.next[e];
+        }
+    }
+
+    /**
+     * No-argument constructor.
+     */
+    public StringIntMap4() {
+        this.requestedSize = DEFAULT_HASH_TABLE_SIZE;
+        this.createNewRep(this.requestedSize);
+    }
+
+    /**
+     * Constructor resulting in a hash table of size {@code hashTableSize}.
+     *
+     * @param hashTableSize
+     *            size of hash table
+     * @requires 0 < hashTableSize <= MAX_HASH_TABLE_SIZE
+     * @ensures this = {}
+     */
+    public StringIntMap4(int hashTableSize) {
+        assert hashTableSize > 0 : "Violation of: hashTableSize > 0";
+        assert hashTableSize <= MAX_HASH_TABLE_SIZE : ""
+                + "Violation of: hashTableSize <= MAX_HASH_TABLE_SIZE";
+
+        this.requestedSize = hashTableSize;
+        this.createNewRep(this.requestedSize);
+    }
+
+    /**
+     * Resets {@code this} to an empty map.
+     *
+     * @clears this
+     */
+    public void clear() {
+        this.createNewRep(this.requestedSize);
+    }
+
+    /**
+     * Adds the pair ({@code key}, {@code value}) to {@code this}.
+     *
+     * @param key
+     *            the key to be added
+     * @param value
+     *            the associated value to be added
+     * @updates this
+     * @requires key /= null and key is not in DOMAIN(this)
+     * @ensures this = #this union {(key, value)}
+     */
+    public void add(String key, int value) {
+        assert key != null : "Violation of: key is not null";
+        assert !this.hasKey(key) : "Violation of: key is not in DOMAIN(this)";
+
+        this.append(key, key.hashCode(), value);
+    }
+
+    /**
+     * Adds 1 to the value associated with {@code key}, adding {@code key}
+     * with value 1 if it is not in {@code this}, and returns the new value.
+     *
+     * @param key
+     *            the key whose value is to be incremented
+     * @return the new value
+     * @updates this
+     * @requires key /= null
+     * @ensures <pre>
+     * increment = [the value of key in #this, or 0] + 1  and
+     * this = (#this \ {(key, #this(key))}) union {(key, increment)}
+     * </pre>
+     */
+    public int increment(String key) {
+        assert key != null : "Violation of: key is not null";
+
+        int result = 1;
+        int hash = key.hashCode();
+        int e = this.entryOf(key, hash);
+        if (e >= 0) {
+            this.values[e]++;
+            result = this.values[e];
+        } else {
+            this.append(key, hash, result);
+        }
+        return result;
+    }
+
+    /**
+     * Removes {@code key} from {@code this} and returns its value.
+     *
+     * @param key
+     *            the key to be removed
+     * @return the value that was associated with key
+     * @updates this
+     * @requires key /= null and key is in DOMAIN(this)
+     * @ensures this = #this \ {(key, remove)}  and  (key, remove) is in #this
+     */
+    public int remove(String key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        int e = this.entryOf(key, key.hashCode());
+        int result = this.values[e];
+        this.removeEntry(e);
+        return result;
+    }
+
+    /**
+     * Reports the value associated with {@code key} in {@code this}.
+     *
+     * @param key
+     *            the key whose associated value is to be reported
+     * @return the value associated with key
+     * @requires key /= null and key is in DOMAIN(this)
+     * @ensures (key, value) is in this
+     */
+    public int value(String key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        return this.values[this.entryOf(key, key.hashCode())];
+    }
+
+    /**
+     * Replaces the value associated with {@code key} by {@code value}.
+     *
+     * @param key
+     *            the key whose associated value is to be replaced
+     * @param value
+     *            the new value
+     * @updates this
+     * @requires key /= null and key is in DOMAIN(this)
+     * @ensures this = (#this \ {(key, #this(key))}) union {(key, value)}
+     */
+    public void replaceValue(String key, int value) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        this.values[this.entryOf(key, key.hashCode())] = value;
+    }
+
+    /**
+     * Reports whether there is a pair in {@code this} whose first component
+     * is {@code key}.
+     *
+     * @param key
+     *            the key to be checked
+     * @return true iff there is a pair in this whose first component is key
+     * @requires key /= null
+     * @ensures hasKey = (key is in DOMAIN(this))
+     */
+    public boolean hasKey(String key) {
+        assert key != null : "Violation of: key is not null";
+
+        return this.entryOf(key, key.hashCode()) >= 0;
+    }
+
+    /**
+     * Reports the size of {@code this}.
+     *
+     * @return the number of pairs in this
+     * @ensures size = |this|
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns a cursor over the entries of {@code this}, in no particular
+     * order. The cursor starts before the first entry; each call to
+     * {@code advance} moves it to the next one. {@code this} must not be
+     * changed while the cursor is in use.
+     *
+     * @return the cursor
+     */
+    public Entries entries() {
+        return new Entries();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("{");
+        for (int e = 0; e < this.size; e++) {
+            if (e > 0) {
+                result.append(',');
+            }
+            result.append('(').append(this.keys[e]).append(',')
+                    .append(this.values[e]).append(')');
+        }
+        return result.append('}').toString();
+    }
+
+    /**
+     * Cursor over the entries of a {@code StringIntMap4}, giving each key and
+     * its value as an {@code int} without making any objects.
+     */
+    public final class Entries {
+
+        /**
+         * Entry the cursor is at, or -1 before the first.
+         */
+        private int current;
+
+        /**
+         * No-argument constructor.
+         */
+        Entries() {
+            this.current = -1;
+        }
+
+        /**
+         * Moves to the next entry, if there is one.
+         *
+         * @return whether there was a next entry
+         */
+        public boolean advance() {
+            boolean result = false;
+            if (this.current + 1 < StringIntMap4.this.size) {
+                this.current++;
+                result = true;
+            }
+            return result;
+        }
+
+        /**
+         * Reports the key of the current entry.
+         *
+         * @return the key
+         * @requires [advance has returned true, and not yet false]
+         */
+        public String key() {
+            assert this.current >= 0 : "Violation of: cursor is at an entry";
+
+            return StringIntMap4.this.keys[this.current];
+        }
+
+        /**
+         * Reports the value of the current entry.
+         *
+         * @return the value
+         * @requires [advance has returned true, and not yet false]
+         */
+        public int value() {
+            assert this.current >= 0 : "Violation of: cursor is at an entry";
+
+            return StringIntMap4.this.values[this.current];
+        }
+
+    }
+
+}
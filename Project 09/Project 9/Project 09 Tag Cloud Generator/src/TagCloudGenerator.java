@@ -260,8 +260,8 @@ public final class TagCloudGenerator {
 
     /**
      * Takes in a line of words and separators, and adds only words to
-     * {@code  Map<String, Integer>}. If {@code  Map<String, Integer>} already
-     * has that word as a key, it would add 1 to the value of that key instead.
+     * {@code StringIntMap4}. If {@code StringIntMap4} already has that word as
+     * a key, it would add 1 to the value of that key instead.
      *
      * @param line
      *            a line of words and separators
@@ -271,12 +271,12 @@ public final class TagCloudGenerator {
      *            a word -> count map
      * @requires |line| > 0 && |separators| > 0
      * @updates wordCount
-     * @ensures {@code Map<String, Integer>} adds all unique words in
-     *          {@code String} as keys, with the number of times the word
-     *          appeared as the value.
+     * @ensures {@code StringIntMap4} adds all unique words in {@code String}
+     *          as keys, with the number of times the word appeared as the
+     *          value.
      */
     private static void processLine(String line, Set<Character> separators,
-            Map<String, Integer> wordCount) {
+            StringIntMap4 wordCount) {
         assert line.length() > 0 : "Line can not be empty";
         assert separators.size() > 0 : "The set of separators cannot be empty";
 
@@ -284,16 +284,12 @@ public final class TagCloudGenerator {
         String word = nextWordOrSeparator(tmpLine, 0, separators).toLowerCase();
 
         /*
-         * checks if word is a separator. if it is not a separator, it would be
-         * added as a key to wordCount. If wordCount already has that key, it
-         * would add 1 to the value of that key instead.
+         * checks if word is a separator. if it is not a separator, 1 is added
+         * to its count in wordCount (which adds it with count 1 if it is not
+         * there yet), with a single lookup
          */
-        if (!separators.contains(word.charAt(0)) && !wordCount.hasKey(word)) {
-            wordCount.add(word, 1);
-        } else if (wordCount.hasKey(word)) {
-            int val = wordCount.value(word);
-            val++;
-            wordCount.replaceValue(word, val);
+        if (!separators.contains(word.charAt(0))) {
+            wordCount.increment(word);
         }
         tmpLine = tmpLine.substring(word.length(), line.length());
 
@@ -375,17 +371,27 @@ public final class TagCloudGenerator {
 
         /*
          * counts the number of times each word appears in inputFileReader and
-         * store them in wordCount with the word as the key and its count as the
+         * store them in counts with the word as the key and its count as the
          * value
          */
-        Map<String, Integer> wordCount = new Map1L<>();
+        StringIntMap4 counts = new StringIntMap4();
         while (!inputFileReader.atEOS()) {
             String line = inputFileReader.nextLine();
             if (line.length() > 0) {
-                processLine(line, separators, wordCount);
+                processLine(line, separators, counts);
             }
         }
 
+        /*
+         * copies the counts into a map of pairs for sorting; this boxes each
+         * count once per distinct word rather than once per occurrence
+         */
+        Map<String, Integer> wordCount = new Map1L<>();
+        StringIntMap4.Entries entries = counts.entries();
+        while (entries.advance()) {
+            wordCount.add(entries.key(), entries.value());
+        }
+
         /*
          * sorts value in decreasing order
          */
@@ -5,13 +5,12 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.Serializable;
+import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map.Entry;
 import java.util.Scanner;
-import java.util.Set;
 
 /**
  * This program takes a text file given by the user and generates an HTML file
@@ -261,8 +260,8 @@ public final class TagCloudGenerator {
 
     /**
      * Takes in a line of words and separators, and adds only words to
-     * {@code  Map<String, Integer>}. If {@code  Map<String, Integer>} already
-     * has that word as a key, it would add 1 to the value of that key instead.
+     * {@code StringIntMap4}. If {@code StringIntMap4} already has that word as
+     * a key, it would add 1 to the value of that key instead.
      *
      * @param line
      *            a line of words and separators
@@ -272,12 +271,12 @@ public final class TagCloudGenerator {
      *            a word -> count map
      * @requires |line| > 0 && |separators| > 0
      * @updates wordCount
-     * @ensures {@code Map<String, Integer>} adds all unique words in
-     *          {@code String} as keys, with the number of times the word
-     *          appeared as the value.
+     * @ensures {@code StringIntMap4} adds all unique words in {@code String}
+     *          as keys, with the number of times the word appeared as the
+     *          value.
      */
     private static void processLine(String line, HashSet<Character> separators,
-            HashMap<String, Integer> wordCount) {
+            StringIntMap4 wordCount) {
         assert line.length() > 0 : "Line can not be empty";
         assert separators.size() > 0 : "The set of separators cannot be empty";
 
@@ -285,17 +284,12 @@ public final class TagCloudGenerator {
         String word = nextWordOrSeparator(tmpLine, 0, separators).toLowerCase();
 
         /*
-         * checks if word is a separator. if it is not a separator, it would be
-         * added as a key to wordCount. If wordCount already has that key, it
-         * would add 1 to the value of that key instead.
+         * checks if word is a separator. if it is not a separator, 1 is added
+         * to its count in wordCount (which adds it with count 1 if it is not
+         * there yet), with a single lookup
          */
-        if (!separators.contains(word.charAt(0))
-                && !wordCount.containsKey(word)) {
-            wordCount.put(word, 1);
-        } else if (wordCount.containsKey(word)) {
-            int val = wordCount.get(word);
-            val++;
-            wordCount.replace(word, val);
+        if (!separators.contains(word.charAt(0))) {
+            wordCount.increment(word);
         }
         tmpLine = tmpLine.substring(word.length(), line.length());
 
@@ -347,18 +341,21 @@ public final class TagCloudGenerator {
      *         alphabetical order]
      */
     private static ArrayList<Entry<String, Integer>> getSortedWords(
-            HashMap<String, Integer> wordCount, int numOfWords) {
+            StringIntMap4 wordCount, int numOfWords) {
 
-        Set<Entry<String, Integer>> wordCountSet = wordCount.entrySet();
         Comparator<Entry<String, Integer>> compareValue = new IntegerLT();
         ArrayList<Entry<String, Integer>> wordCountArray;
-        wordCountArray = new ArrayList<Entry<String, Integer>>();
+        wordCountArray = new ArrayList<Entry<String, Integer>>(
+                wordCount.size());
 
         /*
-         * sorts value in decreasing order
+         * sorts value in decreasing order; each count is boxed once per
+         * distinct word here rather than once per occurrence while counting
          */
-        for (Entry<String, Integer> pair : wordCountSet) {
-            wordCountArray.add(pair);
+        StringIntMap4.Entries entries = wordCount.entries();
+        while (entries.advance()) {
+            wordCountArray.add(new SimpleEntry<String, Integer>(entries.key(),
+                    entries.value()));
         }
         wordCountArray.sort(compareValue);
         while (wordCountArray.size() > numOfWords) {
@@ -385,7 +382,7 @@ public final class TagCloudGenerator {
         BufferedReader inputFileReader;
         PrintWriter outputFile;
         Scanner in = new Scanner(System.in);
-        HashMap<String, Integer> wordCount = new HashMap<String, Integer>();
+        StringIntMap4 wordCount = new StringIntMap4();
 
         /*
          * asks for the name of input file and output file